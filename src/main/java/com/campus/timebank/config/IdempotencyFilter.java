@@ -0,0 +1,248 @@
+package com.campus.timebank.config;
+
+import com.campus.timebank.entity.IdempotencyKey;
+import com.campus.timebank.security.UserPrincipal;
+import com.campus.timebank.service.IdempotencyKeyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Makes booking and offer mutations safe to retry. A request that carries an
+ * Idempotency-Key header runs once per user and key; repeating it returns the stored
+ * response without running the handler again. A repeat that arrives while the first
+ * request is still running waits for its result.
+ */
+@Component
+@RequiredArgsConstructor
+public class IdempotencyFilter extends OncePerRequestFilter {
+    
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final Set<String> MUTATING_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+    
+    private final IdempotencyKeyService idempotencyKeyService;
+    private final ObjectMapper objectMapper;
+    
+    // Bodies are buffered in memory to be fingerprinted, so keyed requests are capped
+    @Value("${app.idempotency.max-body-bytes:65536}")
+    private int maxBodyBytes;
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !MUTATING_METHODS.contains(request.getMethod())
+                || !(path.startsWith("/api/bookings") || path.startsWith("/api/offers"));
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String key = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (!StringUtils.hasText(key) || authentication == null
+                || !(authentication.getPrincipal() instanceof UserPrincipal principal)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, "Idempotency-Key must be at most 255 characters");
+            return;
+        }
+        
+        // Keys are scoped per user, so clients cannot read each other's responses
+        String id = principal.getId() + ":" + key;
+        // The body is buffered so it can be part of the fingerprint and still be read by the handler
+        byte[] body = request.getContentLengthLong() > maxBodyBytes
+                ? null
+                : request.getInputStream().readNBytes(maxBodyBytes + 1);
+        if (body == null || body.length > maxBodyBytes) {
+            writeError(response, HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Requests with an Idempotency-Key must have a body of at most " + maxBodyBytes + " bytes");
+            return;
+        }
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request, body);
+        String fingerprint = fingerprint(request.getMethod(), request.getRequestURI(), request.getQueryString(),
+                cachedRequest.body);
+        
+        IdempotencyKey stored = idempotencyKeyService.findCompleted(id);
+        if (stored == null) {
+            if (idempotencyKeyService.claim(id, fingerprint)) {
+                execute(id, cachedRequest, response, filterChain);
+                return;
+            }
+            try {
+                stored = idempotencyKeyService.awaitCompletion(id);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                stored = null;
+            }
+        }
+        
+        if (stored == null || !stored.isCompleted()) {
+            writeError(response, HttpStatus.CONFLICT,
+                    "A request with this Idempotency-Key is still being processed, please retry");
+        } else if (!stored.getFingerprint().equals(fingerprint)) {
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used for a different request");
+        } else {
+            replay(stored, response);
+        }
+    }
+    
+    private void execute(String id, HttpServletRequest request, HttpServletResponse response,
+                         FilterChain filterChain) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            filterChain.doFilter(request, wrapper);
+            if (isFinal(wrapper.getStatus())) {
+                idempotencyKeyService.complete(id, wrapper.getStatus(), wrapper.getContentType(),
+                        new String(wrapper.getContentAsByteArray(), StandardCharsets.UTF_8));
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                idempotencyKeyService.release(id);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+    
+    /**
+     * SHA-256 over the method, path, query string and body, so reusing a key with a changed
+     * payload is rejected instead of replaying the first response. Always 64 hex characters,
+     * however long the query string is.
+     */
+    static String fingerprint(String method, String uri, String queryString, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            String requestLine = method + " " + uri + (queryString != null ? "?" + queryString : "");
+            digest.update(requestLine.getBytes(StandardCharsets.UTF_8));
+            // Separates the request line from the body, so no two requests hash the same bytes
+            digest.update((byte) 0);
+            digest.update(body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+    
+    // Server errors and conflicts are transient, so those attempts may be retried with the same key
+    private boolean isFinal(int status) {
+        return status < 500 && status != HttpStatus.CONFLICT.value()
+                && status != HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+    
+    private void replay(IdempotencyKey stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.getResponseStatus());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.getContentType() != null) {
+            response.setContentType(stored.getContentType());
+        }
+        if (stored.getResponseBody() != null) {
+            byte[] body = stored.getResponseBody().getBytes(StandardCharsets.UTF_8);
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+    
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Map.of("message", message));
+    }
+    
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        
+        private final byte[] body;
+        
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+        
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+        
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+                
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+                
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+                
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+                
+                // Everything is already in memory, so the listener can be told so straight away
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        readListener.onDataAvailable();
+                        readListener.onAllDataRead();
+                    } catch (IOException ex) {
+                        readListener.onError(ex);
+                    }
+                }
+            };
+        }
+        
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
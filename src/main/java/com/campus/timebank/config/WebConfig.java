@@ -1,6 +1,7 @@
 package com.campus.timebank.config;
 
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -14,7 +15,8 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH")
                 .allowedHeaders("*")
                 .allowCredentials(false)
-                .exposedHeaders("Authorization", "Content-Type", "X-Total-Count")
+                .exposedHeaders("Authorization", "Content-Type", "X-Total-Count", IdempotencyFilter.REPLAYED_HEADER,
+                        HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED)
                 .maxAge(3600);
     }
 }
@@ -6,15 +6,20 @@ import com.campus.timebank.dto.TransactionDto;
 import com.campus.timebank.dto.UpdateUserRoleRequest;
 import com.campus.timebank.dto.UserDto;
 import com.campus.timebank.service.AdminService;
+import com.campus.timebank.service.UserImportService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.time.LocalDateTime;
 
 @RestController
@@ -23,6 +28,7 @@ import java.time.LocalDateTime;
 public class AdminController {
     
     private final AdminService adminService;
+    private final UserImportService userImportService;
     
     // Admin Creation Endpoint (for creating first admin without auth)
     
@@ -41,6 +47,21 @@ public class AdminController {
         return ResponseEntity.ok(users);
     }
     
+    // Body is CSV with a header row or one JSON object per line; one result line is streamed back per row
+    @PostMapping(value = "/users/import",
+            consumes = {"text/csv", "application/x-ndjson"},
+            produces = "application/x-ndjson")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> importUsers(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        UserImportService.Format format = UserImportService.Format.fromContentType(contentType);
+        StreamingResponseBody results = output -> userImportService.importUsers(body, format, output);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(results);
+    }
+    
     @GetMapping("/users/{userId}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<UserDto> getUserById(@PathVariable Long userId) {
@@ -1,8 +1,13 @@
 package com.campus.timebank.controller;
 
+import com.campus.timebank.dto.BookingBatchResult;
 import com.campus.timebank.dto.BookingDto;
+import com.campus.timebank.dto.ConfirmBookingsRequest;
 import com.campus.timebank.dto.CreateBookingRequest;
 import com.campus.timebank.service.BookingService;
+import com.campus.timebank.service.OptimisticLockRetry;
+import com.campus.timebank.service.ResourceVersion;
+import com.campus.timebank.service.SingleFlight;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -11,6 +16,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/bookings")
@@ -18,6 +26,8 @@ import org.springframework.web.bind.annotation.*;
 public class BookingController {
     
     private final BookingService bookingService;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final SingleFlight singleFlight;
     
     @PostMapping
     @PreAuthorize("isAuthenticated()")
@@ -35,14 +45,24 @@ public class BookingController {
     @PutMapping("/{bookingId}/confirm")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<BookingDto> confirmBooking(@PathVariable Long bookingId) {
-        BookingDto bookingDto = bookingService.confirmBooking(bookingId);
+        BookingDto bookingDto = optimisticLockRetry.execute("booking.confirm",
+                () -> bookingService.confirmBooking(bookingId));
         return ResponseEntity.ok(bookingDto);
     }
     
+    @PostMapping("/confirm-batch")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<BookingBatchResult>> confirmBookings(@Valid @RequestBody ConfirmBookingsRequest request) {
+        List<BookingBatchResult> results = optimisticLockRetry.execute("booking.confirmBatch",
+                () -> bookingService.confirmBookings(request));
+        return ResponseEntity.ok(results);
+    }
+    
     @PutMapping("/{bookingId}/complete")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<BookingDto> completeBooking(@PathVariable Long bookingId) {
-        BookingDto bookingDto = bookingService.completeBooking(bookingId);
+        BookingDto bookingDto = optimisticLockRetry.execute("booking.complete",
+                () -> bookingService.completeBooking(bookingId));
         return ResponseEntity.ok(bookingDto);
     }
     
@@ -51,29 +71,40 @@ public class BookingController {
     public ResponseEntity<BookingDto> cancelBooking(
             @PathVariable Long bookingId,
             @RequestParam(required = false, defaultValue = "No reason provided") String reason) {
-        BookingDto bookingDto = bookingService.cancelBooking(bookingId, reason);
+        BookingDto bookingDto = optimisticLockRetry.execute("booking.cancel",
+                () -> bookingService.cancelBooking(bookingId, reason));
         return ResponseEntity.ok(bookingDto);
     }
     
     @GetMapping("/my/as-requester")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<Page<BookingDto>> getMyBookingsAsRequester(Pageable pageable) {
+    public ResponseEntity<Page<BookingDto>> getMyBookingsAsRequester(Pageable pageable, WebRequest request) {
+        ResourceVersion version = bookingService.getMyBookingsAsRequesterVersion();
+        if (ConditionalGet.notModified(request, version)) {
+            return null;
+        }
         Page<BookingDto> bookings = bookingService.getMyBookingsAsRequester(pageable);
-        return ResponseEntity.ok(bookings);
+        return ConditionalGet.ok(version, bookings);
     }
     
     @GetMapping("/my/as-owner")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<Page<BookingDto>> getMyBookingsAsOwner(Pageable pageable) {
+    public ResponseEntity<Page<BookingDto>> getMyBookingsAsOwner(Pageable pageable, WebRequest request) {
+        ResourceVersion version = bookingService.getMyBookingsAsOwnerVersion();
+        if (ConditionalGet.notModified(request, version)) {
+            return null;
+        }
         Page<BookingDto> bookings = bookingService.getMyBookingsAsOwner(pageable);
-        return ResponseEntity.ok(bookings);
+        return ConditionalGet.ok(version, bookings);
     }
     
     @GetMapping("/offer/{offerId}")
     public ResponseEntity<Page<BookingDto>> getBookingsByOffer(
             @PathVariable Long offerId,
             Pageable pageable) {
-        Page<BookingDto> bookings = bookingService.getBookingsByOffer(offerId, pageable);
+        // A shared offer draws bursts of identical requests; they share one query
+        Page<BookingDto> bookings = singleFlight.execute("bookings.byOffer", List.of(offerId, pageable),
+                () -> bookingService.getBookingsByOffer(offerId, pageable));
         return ResponseEntity.ok(bookings);
     }
     
@@ -0,0 +1,35 @@
+package com.campus.timebank.controller;
+
+import com.campus.timebank.service.ResourceVersion;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Conditional GET support for the polled read endpoints. A handler reads the resource's
+ * version first and returns null when {@link #notModified} holds, so a 304 is sent
+ * before any DTO is loaded. The version must be read before the body: a change landing
+ * in between then only makes the next poll return 200 again, never keeps a stale body.
+ */
+final class ConditionalGet {
+    
+    private ConditionalGet() {
+    }
+    
+    static boolean notModified(WebRequest request, ResourceVersion version) {
+        return request.checkNotModified(version.etag(), version.lastModifiedMillis());
+    }
+    
+    // Private and revalidated on every use: browsers keep the body but always ask with If-None-Match
+    static <T> ResponseEntity<T> ok(ResourceVersion version, T body) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy(HttpHeaders.AUTHORIZATION)
+                .eTag(version.etag());
+        if (version.lastModified() != null) {
+            response.lastModified(version.lastModifiedMillis());
+        }
+        return response.body(body);
+    }
+}
@@ -1,18 +1,31 @@
 package com.campus.timebank.controller;
 
 import com.campus.timebank.dto.CreateOfferRequest;
+import com.campus.timebank.dto.CursorPage;
 import com.campus.timebank.dto.OfferDto;
+import com.campus.timebank.dto.OfferSearchResult;
+import com.campus.timebank.dto.OfferSuggestionDto;
+import com.campus.timebank.service.OfferSearchService;
 import com.campus.timebank.service.OfferService;
+import com.campus.timebank.service.OfferSnapshot;
+import com.campus.timebank.service.OfferSnapshotService;
+import com.campus.timebank.service.OfferSuggestService;
+import com.campus.timebank.service.OptimisticLockRetry;
+import com.campus.timebank.service.ResourceVersion;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/api/offers")
@@ -20,6 +33,10 @@ import java.util.List;
 public class OfferController {
     
     private final OfferService offerService;
+    private final OfferSearchService offerSearchService;
+    private final OfferSuggestService offerSuggestService;
+    private final OfferSnapshotService offerSnapshotService;
+    private final OptimisticLockRetry optimisticLockRetry;
     
     @PostMapping
     @PreAuthorize("isAuthenticated()")
@@ -29,17 +46,54 @@ public class OfferController {
     }
     
     @GetMapping("/{offerId}")
-    public ResponseEntity<OfferDto> getOffer(@PathVariable Long offerId) {
-        OfferDto offerDto = offerService.getOfferById(offerId);
-        return ResponseEntity.ok(offerDto);
+    public ResponseEntity<byte[]> getOffer(
+            @PathVariable Long offerId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return snapshotResponse(offerSnapshotService.getOffer(offerId), acceptEncoding);
     }
     
+    // The first pages at the default size are served from pre-encoded snapshots
     @GetMapping("/active/list")
-    public ResponseEntity<Page<OfferDto>> getActiveOffers(Pageable pageable) {
+    public ResponseEntity<?> getActiveOffers(
+            Pageable pageable,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        OfferSnapshot snapshot = offerSnapshotService.getActiveOffersPage(pageable);
+        if (snapshot != null) {
+            return snapshotResponse(snapshot, acceptEncoding);
+        }
         Page<OfferDto> offers = offerService.getActiveOffers(pageable);
         return ResponseEntity.ok(offers);
     }
     
+    // Cursor-paginated active offers, newest first; pass nextCursor back as cursor for the next page
+    @GetMapping("/active/feed")
+    public ResponseEntity<CursorPage<OfferDto>> getActiveOffersFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPage<OfferDto> offers = offerService.getActiveOffersFeed(cursor, size);
+        return ResponseEntity.ok(offers);
+    }
+    
+    // Ranked full-text search over active offers; pass nextCursor back as cursor for the next page.
+    // Each snippet is escaped HTML whose only tags are the <b></b> around matched terms.
+    @GetMapping("/search")
+    public ResponseEntity<CursorPage<OfferSearchResult>> searchOffers(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPage<OfferSearchResult> results = offerSearchService.search(q, cursor, size);
+        return ResponseEntity.ok(results);
+    }
+    
+    // Type-ahead from memory; the last word of q may be incomplete
+    @GetMapping("/suggest")
+    public ResponseEntity<List<OfferSuggestionDto>> suggestOffers(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<OfferSuggestionDto> suggestions = offerSuggestService.suggest(q, limit);
+        return ResponseEntity.ok(suggestions);
+    }
+    
     @GetMapping
     public ResponseEntity<Page<OfferDto>> getAllOffers(Pageable pageable) {
         Page<OfferDto> offers = offerService.getAllOffers(pageable);
@@ -49,16 +103,25 @@ public class OfferController {
     @GetMapping("/owner/{ownerId}")
     public ResponseEntity<Page<OfferDto>> getOffersByOwner(
             @PathVariable Long ownerId,
-            Pageable pageable) {
+            Pageable pageable,
+            WebRequest request) {
+        ResourceVersion version = offerService.getOffersByOwnerVersion(ownerId);
+        if (ConditionalGet.notModified(request, version)) {
+            return null;
+        }
         Page<OfferDto> offers = offerService.getOffersByOwner(ownerId, pageable);
-        return ResponseEntity.ok(offers);
+        return ConditionalGet.ok(version, offers);
     }
     
     @GetMapping("/my-offers")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<OfferDto>> getMyOffers() {
+    public ResponseEntity<List<OfferDto>> getMyOffers(WebRequest request) {
+        ResourceVersion version = offerService.getMyOffersVersion();
+        if (ConditionalGet.notModified(request, version)) {
+            return null;
+        }
         List<OfferDto> offers = offerService.getMyOffers();
-        return ResponseEntity.ok(offers);
+        return ConditionalGet.ok(version, offers);
     }
     
     @PutMapping("/{offerId}")
@@ -66,21 +129,42 @@ public class OfferController {
     public ResponseEntity<OfferDto> updateOffer(
             @PathVariable Long offerId,
             @Valid @RequestBody CreateOfferRequest request) {
-        OfferDto offerDto = offerService.updateOffer(offerId, request);
+        // Bookings bump the offer's version when they take or free a seat
+        OfferDto offerDto = optimisticLockRetry.execute("offer.update",
+                () -> offerService.updateOffer(offerId, request));
         return ResponseEntity.ok(offerDto);
     }
     
     @PutMapping("/{offerId}/deactivate")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<Void> deactivateOffer(@PathVariable Long offerId) {
-        offerService.deactivateOffer(offerId);
+        optimisticLockRetry.execute("offer.deactivate", () -> {
+            offerService.deactivateOffer(offerId);
+            return null;
+        });
         return ResponseEntity.noContent().build();
     }
     
     @PutMapping("/{offerId}/activate")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<Void> activateOffer(@PathVariable Long offerId) {
-        offerService.activateOffer(offerId);
+        optimisticLockRetry.execute("offer.activate", () -> {
+            offerService.activateOffer(offerId);
+            return null;
+        });
         return ResponseEntity.noContent().build();
     }
+    
+    // Spring answers If-None-Match with 304 from the ETag set here
+    private ResponseEntity<byte[]> snapshotResponse(OfferSnapshot snapshot, String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(snapshot.etag(gzip))
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.gzip());
+        }
+        return response.body(snapshot.identity());
+    }
 }
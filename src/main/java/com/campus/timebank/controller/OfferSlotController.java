@@ -0,0 +1,59 @@
+package com.campus.timebank.controller;
+
+import com.campus.timebank.dto.CreateOfferSlotRequest;
+import com.campus.timebank.dto.OfferSlotDto;
+import com.campus.timebank.dto.TimeRangeDto;
+import com.campus.timebank.service.OfferSlotService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/offers/{offerId}")
+@RequiredArgsConstructor
+public class OfferSlotController {
+    
+    private final OfferSlotService offerSlotService;
+    
+    @PostMapping("/slots")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<OfferSlotDto> addSlot(
+            @PathVariable Long offerId,
+            @Valid @RequestBody CreateOfferSlotRequest request) {
+        OfferSlotDto slot = offerSlotService.addSlot(offerId, request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(slot);
+    }
+    
+    @GetMapping("/slots")
+    public ResponseEntity<List<OfferSlotDto>> getSlots(
+            @PathVariable Long offerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to) {
+        List<OfferSlotDto> slots = offerSlotService.getSlots(offerId, from, to);
+        return ResponseEntity.ok(slots);
+    }
+    
+    // Free time in [from, to), the coming week by default
+    @GetMapping("/free-slots")
+    public ResponseEntity<List<TimeRangeDto>> getFreeSlots(
+            @PathVariable Long offerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to) {
+        List<TimeRangeDto> freeSlots = offerSlotService.getFreeSlots(offerId, from, to);
+        return ResponseEntity.ok(freeSlots);
+    }
+    
+    @DeleteMapping("/slots/{slotId}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Void> deleteSlot(@PathVariable Long offerId, @PathVariable Long slotId) {
+        offerSlotService.deleteSlot(offerId, slotId);
+        return ResponseEntity.noContent().build();
+    }
+}
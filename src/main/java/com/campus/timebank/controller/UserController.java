@@ -1,10 +1,12 @@
 package com.campus.timebank.controller;
 
 import com.campus.timebank.dto.UserDto;
+import com.campus.timebank.service.ResourceVersion;
 import com.campus.timebank.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/users")
@@ -14,9 +16,13 @@ public class UserController {
     private final UserService userService;
     
     @GetMapping("/me")
-    public ResponseEntity<UserDto> getCurrentUser() {
+    public ResponseEntity<UserDto> getCurrentUser(WebRequest request) {
+        ResourceVersion version = userService.getCurrentUserVersion();
+        if (ConditionalGet.notModified(request, version)) {
+            return null;
+        }
         UserDto user = userService.getCurrentUser();
-        return ResponseEntity.ok(user);
+        return ConditionalGet.ok(version, user);
     }
     
     @GetMapping("/{id}")
@@ -0,0 +1,41 @@
+package com.campus.timebank.controller;
+
+import com.campus.timebank.dto.CreateBookingRequest;
+import com.campus.timebank.dto.WaitlistEntryDto;
+import com.campus.timebank.dto.WaitlistPositionDto;
+import com.campus.timebank.service.WaitlistService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/waitlist")
+@RequiredArgsConstructor
+public class WaitlistController {
+    
+    private final WaitlistService waitlistService;
+    
+    @PostMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<WaitlistEntryDto> joinWaitlist(@Valid @RequestBody CreateBookingRequest request) {
+        WaitlistEntryDto entry = waitlistService.join(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(entry);
+    }
+    
+    @GetMapping("/offers/{offerId}/position")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<WaitlistPositionDto> getPosition(@PathVariable Long offerId) {
+        WaitlistPositionDto position = waitlistService.getPosition(offerId);
+        return ResponseEntity.ok(position);
+    }
+    
+    @DeleteMapping("/offers/{offerId}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Void> leaveWaitlist(@PathVariable Long offerId) {
+        waitlistService.leave(offerId);
+        return ResponseEntity.noContent().build();
+    }
+}
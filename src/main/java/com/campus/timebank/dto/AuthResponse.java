@@ -11,13 +11,16 @@ import lombok.NoArgsConstructor;
 @Builder
 public class AuthResponse {
     private String token;
+    private String refreshToken;
     private String type = "Bearer";
+    private long expiresIn;
     private UserDto user;
     
-    public AuthResponse(String token, UserDto user) {
+    public AuthResponse(String token, String refreshToken, long expiresIn, UserDto user) {
         this.token = token;
+        this.refreshToken = refreshToken;
+        this.expiresIn = expiresIn;
         this.user = user;
         this.type = "Bearer";
     }
 }
-
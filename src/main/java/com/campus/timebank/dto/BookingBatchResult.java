@@ -0,0 +1,21 @@
+package com.campus.timebank.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookingBatchResult {
+    private Long bookingId;
+    private Status status;
+    private String message;
+    private BookingDto booking;
+    
+    public enum Status {
+        CONFIRMED, FAILED
+    }
+}
@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 
 @Data
 @NoArgsConstructor
@@ -24,6 +25,8 @@ public class BookingDto {
     private BigDecimal reservedHours;
     private BigDecimal transferredHours;
     private String cancelReason;
+    private OffsetDateTime startTime;
+    private OffsetDateTime endTime;
     private LocalDateTime createdAt;
     private LocalDateTime confirmedAt;
     private LocalDateTime completedAt;
@@ -0,0 +1,25 @@
+package com.campus.timebank.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConfirmBookingsRequest {
+    
+    @NotEmpty(message = "Booking IDs are required")
+    @Size(max = 200, message = "At most 200 bookings can be confirmed at once")
+    private List<@NotNull Long> bookingIds;
+    
+    // When set, any booking that cannot be confirmed fails the whole batch
+    private boolean allOrNothing;
+}
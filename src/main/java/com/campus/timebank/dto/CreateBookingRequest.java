@@ -8,6 +8,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.OffsetDateTime;
 
 @Data
 @NoArgsConstructor
@@ -18,6 +19,12 @@ public class CreateBookingRequest {
     @NotNull(message = "Offer ID is required")
     private Long offerId;
     
+    // Defaults to the length of the booked slot when a start and end time are given
     @Positive(message = "Hours must be positive")
     private BigDecimal hours;
+    
+    // Optional fixed time slot; either both or neither
+    private OffsetDateTime startTime;
+    
+    private OffsetDateTime endTime;
 }
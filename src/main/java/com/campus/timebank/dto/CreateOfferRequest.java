@@ -23,4 +23,8 @@ public class CreateOfferRequest {
     
     @Positive(message = "Hours rate must be positive")
     private BigDecimal hoursRate;
+    
+    // Leave empty for an offer that any number of requesters can book
+    @Positive(message = "Capacity must be positive")
+    private Integer capacity;
 }
@@ -0,0 +1,22 @@
+package com.campus.timebank.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CreateOfferSlotRequest {
+    
+    @NotNull(message = "Start time is required")
+    private OffsetDateTime startTime;
+    
+    @NotNull(message = "End time is required")
+    private OffsetDateTime endTime;
+}
@@ -21,7 +21,10 @@ public class OfferDto {
     private BigDecimal hoursRate;
     private String status;
     private Boolean available;
+    private Integer capacity;
+    private Integer seatsTaken;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private Integer bookingCount;
+    private Integer activeBookingCount;
 }
@@ -0,0 +1,27 @@
+package com.campus.timebank.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OfferSearchResult {
+    private Long id;
+    private Long ownerId;
+    private String ownerName;
+    private String title;
+    // HTML: fragments of the description around the matched terms, wrapped in <b></b>; all other text is escaped
+    private String snippet;
+    private BigDecimal hoursRate;
+    private Integer capacity;
+    private Integer seatsTaken;
+    private LocalDateTime createdAt;
+    private Float rank;
+}
@@ -0,0 +1,19 @@
+package com.campus.timebank.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OfferSlotDto {
+    private Long id;
+    private Long offerId;
+    private OffsetDateTime startTime;
+    private OffsetDateTime endTime;
+}
@@ -0,0 +1,16 @@
+package com.campus.timebank.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OfferSuggestionDto {
+    private Long id;
+    private String title;
+    private String ownerName;
+}
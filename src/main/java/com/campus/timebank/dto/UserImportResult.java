@@ -0,0 +1,22 @@
+package com.campus.timebank.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserImportResult {
+    private int line;
+    private String email;
+    private Status status;
+    private Long userId;
+    private String message;
+    
+    public enum Status {
+        CREATED, DUPLICATE, INVALID, FAILED
+    }
+}
@@ -0,0 +1,25 @@
+package com.campus.timebank.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WaitlistEntryDto {
+    private Long id;
+    private Long offerId;
+    private String offerTitle;
+    private Long userId;
+    private BigDecimal hours;
+    private String status;
+    private Long bookingId;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,17 @@
+package com.campus.timebank.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WaitlistPositionDto {
+    private Long offerId;
+    // 1 for the next requester to be promoted
+    private Long position;
+    private Long queueLength;
+}
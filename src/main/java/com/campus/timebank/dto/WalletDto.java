@@ -16,6 +16,8 @@ public class WalletDto {
     private Long id;
     private Long userId;
     private BigDecimal balance;
+    private BigDecimal held;
+    private BigDecimal available;
     private BigDecimal totalEarned;
     private BigDecimal totalSpent;
     private LocalDateTime createdAt;
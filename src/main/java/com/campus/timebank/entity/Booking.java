@@ -11,6 +11,7 @@ import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 
 @Entity
 @Table(name = "bookings")
@@ -21,7 +22,8 @@ import java.time.LocalDateTime;
 public class Booking {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_id_seq")
+    @SequenceGenerator(name = "bookings_id_seq", sequenceName = "bookings_id_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -47,6 +49,17 @@ public class Booking {
     @Column(length = 500)
     private String cancelReason;
     
+    // Booked time slot; both null for bookings without a fixed time
+    private OffsetDateTime startTime;
+    
+    private OffsetDateTime endTime;
+    
+    // Copy of the offer owner's id for the overlap constraint on timed bookings
+    private Long slotOwnerId;
+    
+    @Version
+    private Long version;
+    
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,51 @@
+package com.campus.timebank.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "idempotency_keys")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyKey {
+    
+    @Id
+    @Column(length = 300)
+    private String id;
+    
+    // SHA-256 of the request line and body, see IdempotencyFilter.fingerprint
+    @Column(nullable = false, length = 600)
+    private String fingerprint;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+    
+    private Integer responseStatus;
+    
+    private String contentType;
+    
+    @Column(columnDefinition = "TEXT")
+    private String responseBody;
+    
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+    
+    public boolean isCompleted() {
+        return status == Status.COMPLETED;
+    }
+    
+    public enum Status {
+        IN_PROGRESS, COMPLETED
+    }
+}
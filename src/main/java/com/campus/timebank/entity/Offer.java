@@ -24,7 +24,8 @@ import java.util.Set;
 public class Offer {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "offers_id_seq")
+    @SequenceGenerator(name = "offers_id_seq", sequenceName = "offers_id_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -52,10 +53,32 @@ public class Offer {
     @Builder.Default
     private Boolean available = true;
     
+    // Maximum number of bookings that are not canceled; null means unlimited
+    @Positive(message = "Capacity must be positive")
+    @Column(updatable = false)
+    private Integer capacity;
+    
+    // Changed only by the guarded seat and capacity updates in OfferRepository
+    @Column(nullable = false, updatable = false)
+    @Builder.Default
+    private Integer seatsTaken = 0;
+    
+    // All bookings ever made and those still pending or confirmed; changed only with the seat updates in OfferRepository
+    @Column(nullable = false, updatable = false)
+    @Builder.Default
+    private Integer bookingCount = 0;
+    
+    @Column(nullable = false, updatable = false)
+    @Builder.Default
+    private Integer activeBookingCount = 0;
+    
     @OneToMany(mappedBy = "offer", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @Builder.Default
     private Set<Booking> bookings = new HashSet<>();
     
+    @Version
+    private Long version;
+    
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -72,13 +95,17 @@ public class Offer {
     
     public void activate() {
         this.status = OfferStatus.ACTIVE;
-        this.available = true;
+        this.available = hasFreeSeat();
     }
     
     public boolean isActive() {
         return status == OfferStatus.ACTIVE && available;
     }
     
+    public boolean hasFreeSeat() {
+        return capacity == null || seatsTaken < capacity;
+    }
+    
     public enum OfferStatus {
         ACTIVE, INACTIVE, ARCHIVED
     }
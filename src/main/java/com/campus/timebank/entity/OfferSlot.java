@@ -0,0 +1,40 @@
+package com.campus.timebank.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+
+// A window in which an offer can be booked
+@Entity
+@Table(name = "offer_slots")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OfferSlot {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "offer_slots_id_seq")
+    @SequenceGenerator(name = "offer_slots_id_seq", sequenceName = "offer_slots_id_seq", allocationSize = 50)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "offer_id", nullable = false)
+    private Offer offer;
+    
+    @Column(nullable = false)
+    private OffsetDateTime startTime;
+    
+    @Column(nullable = false)
+    private OffsetDateTime endTime;
+    
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
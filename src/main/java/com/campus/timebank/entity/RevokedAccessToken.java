@@ -0,0 +1,30 @@
+package com.campus.timebank.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "revoked_access_tokens")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevokedAccessToken {
+    
+    @Id
+    @Column(length = 36)
+    private String jti;
+    
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+    
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime revokedAt;
+}
@@ -19,7 +19,8 @@ import java.time.LocalDateTime;
 public class User {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+    @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false, unique = true, length = 100)
@@ -47,6 +48,10 @@ public class User {
     @Column(nullable = false)
     private Boolean active = true;
     
+    @Column(nullable = false)
+    @Builder.Default
+    private Long securityEpoch = 0L;
+    
     @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Wallet wallet;
     
@@ -4,12 +4,17 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
 
 @Entity
 @Table(name = "wallets")
@@ -20,7 +25,8 @@ import java.time.LocalDateTime;
 public class Wallet {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "wallets_id_seq")
+    @SequenceGenerator(name = "wallets_id_seq", sequenceName = "wallets_id_seq", allocationSize = 50)
     private Long id;
     
     @OneToOne(fetch = FetchType.LAZY)
@@ -36,6 +42,28 @@ public class Wallet {
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal totalSpent = BigDecimal.ZERO;
     
+    // Part of the balance reserved by active holds; it can only be spent by committing them.
+    // Kept on the shards instead once the wallet is sharded
+    @Column(nullable = false, precision = 10, scale = 2)
+    @Builder.Default
+    private BigDecimal held = BigDecimal.ZERO;
+    
+    // 0 while the balance lives on this row; otherwise the number of wallet_shards rows holding it
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer shardCount = 0;
+    
+    @OneToMany(fetch = FetchType.LAZY)
+    @JoinColumn(name = "wallet_id", insertable = false, updatable = false)
+    @OrderBy("shardNo")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @Builder.Default
+    private List<WalletShard> shards = new ArrayList<>();
+    
+    @Version
+    private Long version;
+    
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -65,6 +93,35 @@ public class Wallet {
     }
     
     public boolean hasBalance(BigDecimal amount) {
-        return this.balance.compareTo(amount) >= 0;
+        return availableBalance().compareTo(amount) >= 0;
+    }
+    
+    public boolean isSharded() {
+        return shardCount != null && shardCount > 0;
+    }
+    
+    // Balance and totals as seen by readers, summed over the shards for sharded wallets
+    public BigDecimal currentBalance() {
+        return isSharded() ? sumShards(WalletShard::getBalance) : balance;
+    }
+    
+    public BigDecimal currentHeld() {
+        return isSharded() ? sumShards(WalletShard::getHeld) : held;
+    }
+    
+    public BigDecimal availableBalance() {
+        return currentBalance().subtract(currentHeld());
+    }
+    
+    public BigDecimal currentTotalEarned() {
+        return isSharded() ? sumShards(WalletShard::getTotalEarned) : totalEarned;
+    }
+    
+    public BigDecimal currentTotalSpent() {
+        return isSharded() ? sumShards(WalletShard::getTotalSpent) : totalSpent;
+    }
+    
+    private BigDecimal sumShards(Function<WalletShard, BigDecimal> field) {
+        return shards.stream().map(field).reduce(BigDecimal.ZERO, BigDecimal::add);
     }
 }
@@ -0,0 +1,60 @@
+package com.campus.timebank.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "wallet_holds")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WalletHold {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "wallet_holds_id_seq")
+    @SequenceGenerator(name = "wallet_holds_id_seq", sequenceName = "wallet_holds_id_seq", allocationSize = 50)
+    private Long id;
+    
+    // The paying user, whose wallet holds the hours
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "booking_id", nullable = false)
+    private Booking booking;
+    
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private HoldStatus status = HoldStatus.ACTIVE;
+    
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+    
+    private LocalDateTime resolvedAt;
+    
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+    
+    public enum HoldStatus {
+        ACTIVE, COMMITTED, RELEASED, EXPIRED
+    }
+}
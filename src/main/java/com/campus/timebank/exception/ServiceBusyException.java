@@ -0,0 +1,8 @@
+package com.campus.timebank.exception;
+
+public class ServiceBusyException extends RuntimeException {
+    
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
@@ -23,6 +23,8 @@ public interface BookingMapper {
     @Mapping(target = "status", ignore = true)
     @Mapping(target = "transferredHours", ignore = true)
     @Mapping(target = "cancelReason", ignore = true)
+    @Mapping(target = "slotOwnerId", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "confirmedAt", ignore = true)
@@ -11,7 +11,6 @@ public interface OfferMapper {
     
     @Mapping(target = "ownerId", source = "owner.id")
     @Mapping(target = "ownerName", expression = "java(offer.getOwner() != null ? offer.getOwner().getFirstName() + \" \" + offer.getOwner().getLastName() : \"Unknown\")")
-    @Mapping(target = "bookingCount", expression = "java(offer.getBookings() != null ? offer.getBookings().size() : 0)")
     OfferDto toDto(Offer offer);
     
     @Mapping(target = "id", ignore = true)
@@ -19,6 +18,10 @@ public interface OfferMapper {
     @Mapping(target = "bookings", ignore = true)
     @Mapping(target = "status", ignore = true)
     @Mapping(target = "available", ignore = true)
+    @Mapping(target = "seatsTaken", ignore = true)
+    @Mapping(target = "bookingCount", ignore = true)
+    @Mapping(target = "activeBookingCount", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     Offer toEntity(CreateOfferRequest request);
@@ -0,0 +1,13 @@
+package com.campus.timebank.mapper;
+
+import com.campus.timebank.dto.OfferSlotDto;
+import com.campus.timebank.entity.OfferSlot;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface OfferSlotMapper {
+    
+    @Mapping(target = "offerId", source = "offer.id")
+    OfferSlotDto toDto(OfferSlot slot);
+}
@@ -0,0 +1,17 @@
+package com.campus.timebank.mapper;
+
+import com.campus.timebank.dto.WaitlistEntryDto;
+import com.campus.timebank.entity.WaitlistEntry;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface WaitlistEntryMapper {
+    
+    @Mapping(target = "offerId", source = "offer.id")
+    @Mapping(target = "offerTitle", source = "offer.title")
+    @Mapping(target = "userId", source = "user.id")
+    @Mapping(target = "bookingId", source = "booking.id")
+    @Mapping(target = "status", expression = "java(entry.getStatus().name())")
+    WaitlistEntryDto toDto(WaitlistEntry entry);
+}
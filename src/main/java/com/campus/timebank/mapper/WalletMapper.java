@@ -9,9 +9,17 @@ import org.mapstruct.Mapping;
 public interface WalletMapper {
     
     @Mapping(target = "userId", source = "user.id")
+    @Mapping(target = "balance", expression = "java(wallet.currentBalance())")
+    @Mapping(target = "held", expression = "java(wallet.currentHeld())")
+    @Mapping(target = "available", expression = "java(wallet.availableBalance())")
+    @Mapping(target = "totalEarned", expression = "java(wallet.currentTotalEarned())")
+    @Mapping(target = "totalSpent", expression = "java(wallet.currentTotalSpent())")
     WalletDto toDto(Wallet wallet);
     
     @Mapping(target = "user", ignore = true)
+    @Mapping(target = "shardCount", ignore = true)
+    @Mapping(target = "shards", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     Wallet toEntity(WalletDto walletDto);
@@ -1,13 +1,19 @@
 package com.campus.timebank.repository;
 
 import com.campus.timebank.entity.Booking;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,4 +44,78 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     
     @Query("SELECT b FROM Booking b JOIN b.offer o WHERE o.owner.id = :ownerId")
     Page<Booking> findByOfferOwnerId(@Param("ownerId") Long ownerId, Pageable pageable);
+    
+    @Query("SELECT b FROM Booking b JOIN FETCH b.offer o JOIN FETCH o.owner JOIN FETCH b.requester WHERE b.id = :id")
+    Optional<Booking> findByIdWithParticipants(@Param("id") Long id);
+    
+    // Returns (booking id, start, end) of the owner's timed bookings that are not canceled and end after the given time
+    @Query("SELECT b.id, b.startTime, b.endTime FROM Booking b WHERE b.slotOwnerId = :ownerId " +
+           "AND b.status <> 'CANCELED' AND b.endTime > :after")
+    List<Object[]> findTimedSlotsByOwnerEndingAfter(@Param("ownerId") Long ownerId, @Param("after") OffsetDateTime after);
+    
+    // Same overlap test as the excl_bookings_owner_slot constraint
+    @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.slotOwnerId = :ownerId AND b.status <> 'CANCELED' " +
+           "AND b.startTime < :end AND b.endTime > :start")
+    boolean existsOverlappingSlot(@Param("ownerId") Long ownerId, @Param("start") OffsetDateTime start,
+                                  @Param("end") OffsetDateTime end);
+    
+    // Validator parts of a user's bookings, covering the offer and user rows their DTOs show
+    @Query("SELECT u.id, u.updatedAt, COUNT(b), COALESCE(SUM(b.version), 0), MAX(b.updatedAt), " +
+           "MAX(o.updatedAt), MAX(ow.updatedAt) FROM User u LEFT JOIN Booking b ON b.requester = u " +
+           "LEFT JOIN b.offer o LEFT JOIN o.owner ow WHERE u.id = :requesterId GROUP BY u.id, u.updatedAt")
+    List<Object[]> findRequesterBookingsVersion(@Param("requesterId") Long requesterId);
+    
+    @Query("SELECT u.id, u.updatedAt, COUNT(b), COALESCE(SUM(b.version), 0), MAX(b.updatedAt), " +
+           "MAX(o.updatedAt), MAX(r.updatedAt) FROM User u LEFT JOIN Offer o ON o.owner = u " +
+           "LEFT JOIN Booking b ON b.offer = o LEFT JOIN b.requester r WHERE u.id = :ownerId GROUP BY u.id, u.updatedAt")
+    List<Object[]> findOwnerBookingsVersion(@Param("ownerId") Long ownerId);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b JOIN FETCH b.offer o JOIN FETCH b.requester " +
+           "WHERE b.id IN :ids AND o.owner.id = :ownerId ORDER BY b.id")
+    List<Booking> findByIdsAndOfferOwnerIdForUpdate(@Param("ids") Collection<Long> ids, @Param("ownerId") Long ownerId);
+    
+    // State transitions are compare-and-set: each returns 0 when the booking is not in the
+    // expected state or the caller may not perform the transition, so concurrent calls cannot both win
+    
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = :confirmed, b.confirmedAt = :now, b.updatedAt = :now, " +
+           "b.version = b.version + 1 " +
+           "WHERE b.id = :id AND b.status = :pending " +
+           "AND b.offer.id IN (SELECT o.id FROM Offer o WHERE o.owner.id = :ownerId)")
+    int confirmAsOwner(@Param("id") Long id, @Param("ownerId") Long ownerId, @Param("now") LocalDateTime now,
+                       @Param("pending") Booking.BookingStatus pending,
+                       @Param("confirmed") Booking.BookingStatus confirmed);
+    
+    default int confirmAsOwner(Long id, Long ownerId, LocalDateTime now) {
+        return confirmAsOwner(id, ownerId, now, Booking.BookingStatus.PENDING, Booking.BookingStatus.CONFIRMED);
+    }
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = :completed, b.completedAt = :now, b.updatedAt = :now, " +
+           "b.transferredHours = b.reservedHours, b.version = b.version + 1 " +
+           "WHERE b.id = :id AND b.status = :confirmed " +
+           "AND b.offer.id IN (SELECT o.id FROM Offer o WHERE o.owner.id = :ownerId)")
+    int completeAsOwner(@Param("id") Long id, @Param("ownerId") Long ownerId, @Param("now") LocalDateTime now,
+                        @Param("confirmed") Booking.BookingStatus confirmed,
+                        @Param("completed") Booking.BookingStatus completed);
+    
+    default int completeAsOwner(Long id, Long ownerId, LocalDateTime now) {
+        return completeAsOwner(id, ownerId, now, Booking.BookingStatus.CONFIRMED, Booking.BookingStatus.COMPLETED);
+    }
+    
+    // Either participant may cancel
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = :canceled, b.cancelReason = :reason, b.canceledAt = :now, " +
+           "b.updatedAt = :now, b.version = b.version + 1 " +
+           "WHERE b.id = :id AND b.status = :expected " +
+           "AND (b.requester.id = :userId OR b.offer.id IN (SELECT o.id FROM Offer o WHERE o.owner.id = :userId))")
+    int cancelAsParticipant(@Param("id") Long id, @Param("userId") Long userId, @Param("expected") Booking.BookingStatus expected,
+                            @Param("reason") String reason, @Param("now") LocalDateTime now,
+                            @Param("canceled") Booking.BookingStatus canceled);
+    
+    default int cancelAsParticipant(Long id, Long userId, Booking.BookingStatus expected, String reason,
+                                    LocalDateTime now) {
+        return cancelAsParticipant(id, userId, expected, reason, now, Booking.BookingStatus.CANCELED);
+    }
 }
@@ -0,0 +1,47 @@
+package com.campus.timebank.repository;
+
+import com.campus.timebank.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+    
+    // Returns 1 when the caller now owns the key: it was unused, its stored response has expired,
+    // or the request holding it never finished within its lease
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (id, fingerprint, status, created_at, expires_at) " +
+                   "VALUES (:id, :fingerprint, 'IN_PROGRESS', :now, :expiresAt) " +
+                   "ON CONFLICT (id) DO UPDATE SET fingerprint = EXCLUDED.fingerprint, status = 'IN_PROGRESS', " +
+                   "response_status = NULL, content_type = NULL, response_body = NULL, " +
+                   "created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at " +
+                   "WHERE idempotency_keys.expires_at < EXCLUDED.created_at",
+           nativeQuery = true)
+    int claim(@Param("id") String id, @Param("fingerprint") String fingerprint,
+              @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+    
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.status = :completed, k.responseStatus = :responseStatus, " +
+           "k.contentType = :contentType, k.responseBody = :responseBody, k.expiresAt = :expiresAt WHERE k.id = :id")
+    int complete(@Param("id") String id, @Param("responseStatus") int responseStatus,
+                 @Param("contentType") String contentType, @Param("responseBody") String responseBody,
+                 @Param("expiresAt") LocalDateTime expiresAt, @Param("completed") IdempotencyKey.Status completed);
+    
+    default int complete(String id, int responseStatus, String contentType, String responseBody,
+                         LocalDateTime expiresAt) {
+        return complete(id, responseStatus, contentType, responseBody, expiresAt, IdempotencyKey.Status.COMPLETED);
+    }
+    
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.id = :id AND k.status = 'IN_PROGRESS'")
+    int release(@Param("id") String id);
+    
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
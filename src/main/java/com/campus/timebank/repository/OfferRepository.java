@@ -5,10 +5,12 @@ import com.campus.timebank.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,10 +32,68 @@ public interface OfferRepository extends JpaRepository<Offer, Long> {
     @Query("SELECT o FROM Offer o WHERE o.status = 'ACTIVE' AND o.available = true ORDER BY o.createdAt DESC")
     List<Offer> findAllActiveOffers();
     
+    // Keyset pages of the active feed, newest first; served by idx_offers_active_feed without a count query
+    @Query("SELECT o FROM Offer o JOIN FETCH o.owner WHERE o.status = 'ACTIVE' AND o.available = true " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Offer> findActiveFeed(Pageable pageable);
+    
+    @Query("SELECT o FROM Offer o JOIN FETCH o.owner WHERE o.status = 'ACTIVE' AND o.available = true " +
+           "AND (o.createdAt, o.id) < (:createdAt, :id) ORDER BY o.createdAt DESC, o.id DESC")
+    List<Offer> findActiveFeedAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+    
+    @Query("SELECT o FROM Offer o JOIN FETCH o.owner WHERE o.status = :status")
+    List<Offer> findAllByStatusWithOwner(@Param("status") Offer.OfferStatus status);
+    
+    // Validator parts of an owner's offers; empty when the user does not exist
+    @Query("SELECT u.id, u.updatedAt, COUNT(o), COALESCE(SUM(o.version), 0), MAX(o.updatedAt) " +
+           "FROM User u LEFT JOIN Offer o ON o.owner = u WHERE u.id = :ownerId GROUP BY u.id, u.updatedAt")
+    List<Object[]> findOwnerOffersVersion(@Param("ownerId") Long ownerId);
+    
     @Query("SELECT COUNT(b) FROM Booking b WHERE b.offer.id = :offerId AND b.status IN ('PENDING', 'CONFIRMED')")
     Long countPendingBookings(@Param("offerId") Long offerId);
     
     @Query(value = "SELECT o FROM Offer o LEFT JOIN FETCH o.owner WHERE o.status = :status AND o.available = true ORDER BY o.createdAt DESC",
            countQuery = "SELECT COUNT(o) FROM Offer o WHERE o.status = :status AND o.available = true")
     Page<Offer> findByStatusAndAvailableTrueWithOwner(@Param("status") Offer.OfferStatus status, Pageable pageable);
+    
+    // Serializes waitlist promotions of one offer; taken before the queue head, as the seat updates below do
+    @Query(value = "SELECT id FROM offers WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(@Param("id") Long id);
+    
+    // Seats are counted with single-row guarded updates, so concurrent bookings of one offer only
+    // queue on that offer's row and can never take more seats than its capacity
+    
+    @Modifying
+    @Query("UPDATE Offer o SET o.seatsTaken = o.seatsTaken + 1, " +
+           "o.bookingCount = o.bookingCount + 1, o.activeBookingCount = o.activeBookingCount + 1, " +
+           "o.available = CASE WHEN o.capacity IS NULL OR o.seatsTaken + 1 < o.capacity THEN true ELSE false END, " +
+           "o.version = o.version + 1, o.updatedAt = :now " +
+           "WHERE o.id = :id AND o.status = 'ACTIVE' AND o.available = true " +
+           "AND (o.capacity IS NULL OR o.seatsTaken < o.capacity)")
+    int claimSeat(@Param("id") Long id, @Param("now") LocalDateTime now);
+    
+    // Only an active offer becomes available again; deactivated offers stay hidden
+    @Modifying
+    @Query("UPDATE Offer o SET o.seatsTaken = o.seatsTaken - 1, " +
+           "o.activeBookingCount = CASE WHEN o.activeBookingCount > 0 THEN o.activeBookingCount - 1 ELSE 0 END, " +
+           "o.available = CASE WHEN o.status = 'ACTIVE' THEN true ELSE o.available END, " +
+           "o.version = o.version + 1, o.updatedAt = :now " +
+           "WHERE o.id = :id AND o.seatsTaken > 0")
+    int releaseSeat(@Param("id") Long id, @Param("now") LocalDateTime now);
+    
+    // A completed booking keeps its seat but is no longer active
+    @Modifying
+    @Query("UPDATE Offer o SET o.activeBookingCount = o.activeBookingCount - 1, " +
+           "o.version = o.version + 1, o.updatedAt = :now " +
+           "WHERE o.id = :id AND o.activeBookingCount > 0")
+    int recordCompletedBooking(@Param("id") Long id, @Param("now") LocalDateTime now);
+    
+    // Returns 0 when the new capacity is below the seats already taken
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Offer o SET o.capacity = :capacity, " +
+           "o.available = CASE WHEN o.status = 'ACTIVE' AND (:capacity IS NULL OR o.seatsTaken < :capacity) " +
+           "THEN true ELSE false END, " +
+           "o.version = o.version + 1, o.updatedAt = :now " +
+           "WHERE o.id = :id AND (:capacity IS NULL OR o.seatsTaken <= :capacity)")
+    int updateCapacity(@Param("id") Long id, @Param("capacity") Integer capacity, @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,30 @@
+package com.campus.timebank.repository;
+
+import com.campus.timebank.entity.OfferSlot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OfferSlotRepository extends JpaRepository<OfferSlot, Long> {
+    
+    Optional<OfferSlot> findByIdAndOfferId(Long id, Long offerId);
+    
+    boolean existsByOfferId(Long offerId);
+    
+    // Slots overlapping [from, to), ordered by start
+    @Query("SELECT s FROM OfferSlot s WHERE s.offer.id = :offerId AND s.startTime < :to AND s.endTime > :from " +
+           "ORDER BY s.startTime")
+    List<OfferSlot> findOverlapping(@Param("offerId") Long offerId, @Param("from") OffsetDateTime from,
+                                    @Param("to") OffsetDateTime to);
+    
+    @Query("SELECT COUNT(s) > 0 FROM OfferSlot s WHERE s.offer.id = :offerId " +
+           "AND s.startTime <= :start AND s.endTime >= :end")
+    boolean existsContaining(@Param("offerId") Long offerId, @Param("start") OffsetDateTime start,
+                             @Param("end") OffsetDateTime end);
+}
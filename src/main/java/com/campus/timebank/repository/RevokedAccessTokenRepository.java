@@ -0,0 +1,25 @@
+package com.campus.timebank.repository;
+
+import com.campus.timebank.entity.RevokedAccessToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevokedAccessTokenRepository extends JpaRepository<RevokedAccessToken, String> {
+    
+    @Query("SELECT r.jti FROM RevokedAccessToken r WHERE r.expiresAt > :now")
+    List<String> findUnexpiredJtis(@Param("now") LocalDateTime now);
+    
+    @Query("SELECT r.jti FROM RevokedAccessToken r WHERE r.revokedAt >= :since")
+    List<String> findJtisRevokedSince(@Param("since") LocalDateTime since);
+    
+    @Modifying
+    @Query("DELETE FROM RevokedAccessToken r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -2,8 +2,13 @@ package com.campus.timebank.repository;
 
 import com.campus.timebank.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,4 +19,19 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
     
     Optional<User> findByEmailAndActiveTrue(String email);
+    
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+    
+    @Query("SELECT u.id, u.securityEpoch FROM User u WHERE u.securityEpoch > 0 AND u.updatedAt >= :since")
+    List<Object[]> findSecurityEpochsUpdatedSince(@Param("since") LocalDateTime since);
+    
+    // Validator parts of the user and their wallet; shard updates leave the wallet row alone,
+    // so sharded wallets are versioned by their shard totals, which only ever grow, and held hours
+    @Query("SELECT u.id, u.updatedAt, w.version, w.updatedAt, " +
+           "(SELECT COALESCE(SUM(s.totalEarned + s.totalSpent), 0) FROM WalletShard s WHERE s.walletId = w.id), " +
+           "(SELECT COALESCE(SUM(s.held), 0) FROM WalletShard s WHERE s.walletId = w.id) " +
+           "FROM User u LEFT JOIN u.wallet w WHERE u.id = :id")
+    List<Object[]> findVersionById(@Param("id") Long id);
 }
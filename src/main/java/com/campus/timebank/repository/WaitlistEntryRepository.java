@@ -0,0 +1,53 @@
+package com.campus.timebank.repository;
+
+import com.campus.timebank.entity.WaitlistEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+    
+    @Query("SELECT w FROM WaitlistEntry w WHERE w.offer.id = :offerId AND w.user.id = :userId AND w.status = 'WAITING'")
+    Optional<WaitlistEntry> findWaiting(@Param("offerId") Long offerId, @Param("userId") Long userId);
+    
+    boolean existsByOfferIdAndStatus(Long offerId, WaitlistEntry.WaitlistStatus status);
+    
+    @Query("SELECT w.position FROM WaitlistEntry w WHERE w.offer.id = :offerId AND w.status = 'WAITING' " +
+           "ORDER BY w.position")
+    List<Long> findWaitingPositions(@Param("offerId") Long offerId, Pageable pageable);
+    
+    @Query("SELECT COUNT(w) FROM WaitlistEntry w WHERE w.offer.id = :offerId AND w.status = 'WAITING' " +
+           "AND w.position < :position")
+    long countWaitingAhead(@Param("offerId") Long offerId, @Param("position") Long position);
+    
+    @Query("SELECT COUNT(w) FROM WaitlistEntry w WHERE w.offer.id = :offerId AND w.status = 'WAITING'")
+    long countWaiting(@Param("offerId") Long offerId);
+    
+    // Locks the head of the queue; callers hold the offer's row lock, so promotions never skip past it
+    @Query(value = "SELECT * FROM waitlist_entries WHERE offer_id = :offerId AND status = 'WAITING' " +
+                   "ORDER BY position LIMIT 1 FOR UPDATE", nativeQuery = true)
+    Optional<WaitlistEntry> lockNextWaiting(@Param("offerId") Long offerId);
+    
+    @Query("SELECT DISTINCT w.offer.id FROM WaitlistEntry w JOIN w.offer o " +
+           "WHERE w.status = 'WAITING' AND o.status = 'ACTIVE' AND o.available = true")
+    List<Long> findOfferIdsWithFreeSeatsAndWaiting();
+    
+    // Returns 0 if the user is not waiting, including when a promotion got there first
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = :left, w.updatedAt = :now " +
+           "WHERE w.offer.id = :offerId AND w.user.id = :userId AND w.status = :waiting")
+    int leave(@Param("offerId") Long offerId, @Param("userId") Long userId, @Param("now") LocalDateTime now,
+              @Param("waiting") WaitlistEntry.WaitlistStatus waiting, @Param("left") WaitlistEntry.WaitlistStatus left);
+    
+    default int leave(Long offerId, Long userId, LocalDateTime now) {
+        return leave(offerId, userId, now, WaitlistEntry.WaitlistStatus.WAITING, WaitlistEntry.WaitlistStatus.LEFT);
+    }
+}
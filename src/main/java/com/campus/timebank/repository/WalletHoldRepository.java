@@ -0,0 +1,47 @@
+package com.campus.timebank.repository;
+
+import com.campus.timebank.entity.WalletHold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WalletHoldRepository extends JpaRepository<WalletHold, Long> {
+    
+    @Query("SELECT h FROM WalletHold h WHERE h.booking.id = :bookingId AND h.status = 'ACTIVE'")
+    Optional<WalletHold> findActiveByBookingId(@Param("bookingId") Long bookingId);
+    
+    @Query("SELECT h FROM WalletHold h JOIN FETCH h.booking b JOIN FETCH b.offer JOIN FETCH h.user WHERE h.id = :id")
+    Optional<WalletHold> findByIdWithBooking(@Param("id") Long id);
+    
+    // Returns (hold id, expires at) for active holds created since the given time
+    @Query("SELECT h.id, h.expiresAt FROM WalletHold h WHERE h.status = 'ACTIVE' AND h.updatedAt >= :since")
+    List<Object[]> findActiveDeadlinesUpdatedSince(@Param("since") LocalDateTime since);
+    
+    // Moves an active hold to its final status; returns 0 if it was already resolved
+    @Modifying
+    @Query("UPDATE WalletHold h SET h.status = :resolved, h.resolvedAt = :now, h.updatedAt = :now " +
+           "WHERE h.id = :id AND h.status = :active")
+    int resolve(@Param("id") Long id, @Param("resolved") WalletHold.HoldStatus resolved,
+                @Param("now") LocalDateTime now, @Param("active") WalletHold.HoldStatus active);
+    
+    default int resolve(Long id, WalletHold.HoldStatus resolved, LocalDateTime now) {
+        return resolve(id, resolved, now, WalletHold.HoldStatus.ACTIVE);
+    }
+    
+    @Modifying
+    @Query("UPDATE WalletHold h SET h.status = :expired, h.resolvedAt = :now, h.updatedAt = :now " +
+           "WHERE h.id = :id AND h.status = :active AND h.expiresAt <= :now")
+    int expireIfDue(@Param("id") Long id, @Param("now") LocalDateTime now,
+                    @Param("expired") WalletHold.HoldStatus expired, @Param("active") WalletHold.HoldStatus active);
+    
+    default int expireIfDue(Long id, LocalDateTime now) {
+        return expireIfDue(id, now, WalletHold.HoldStatus.EXPIRED, WalletHold.HoldStatus.ACTIVE);
+    }
+}
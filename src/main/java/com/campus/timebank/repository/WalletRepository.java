@@ -1,13 +1,55 @@
 package com.campus.timebank.repository;
 
 import com.campus.timebank.entity.Wallet;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface WalletRepository extends JpaRepository<Wallet, Long> {
     
     Optional<Wallet> findByUserId(Long userId);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM Wallet w WHERE w.user.id = :userId")
+    Optional<Wallet> findByUserIdForUpdate(@Param("userId") Long userId);
+    
+    @Query("SELECT w.user.id, w.id, w.shardCount FROM Wallet w WHERE w.shardCount > 0")
+    List<Object[]> findShardRoutes();
+    
+    @Query("SELECT w.id, w.shardCount FROM Wallet w WHERE w.user.id = :userId")
+    List<Object[]> findShardRouteByUserId(@Param("userId") Long userId);
+    
+    @Modifying
+    @Query("UPDATE Wallet w SET w.balance = w.balance + :amount, w.totalEarned = w.totalEarned + :amount, " +
+           "w.version = w.version + 1, w.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE w.user.id = :userId AND w.shardCount = 0")
+    int credit(@Param("userId") Long userId, @Param("amount") BigDecimal amount);
+    
+    // Reserves part of the available balance; returns 0 when it is short or the wallet is sharded
+    @Modifying
+    @Query("UPDATE Wallet w SET w.held = w.held + :amount, w.version = w.version + 1, " +
+           "w.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE w.user.id = :userId AND w.shardCount = 0 AND w.balance - w.held >= :amount")
+    int holdIfAvailable(@Param("userId") Long userId, @Param("amount") BigDecimal amount);
+    
+    @Modifying
+    @Query("UPDATE Wallet w SET w.held = w.held - :amount, w.version = w.version + 1, " +
+           "w.updatedAt = CURRENT_TIMESTAMP WHERE w.user.id = :userId AND w.shardCount = 0 AND w.held >= :amount")
+    int releaseHeld(@Param("userId") Long userId, @Param("amount") BigDecimal amount);
+    
+    // Spends held hours: they leave both the held amount and the balance
+    @Modifying
+    @Query("UPDATE Wallet w SET w.held = w.held - :amount, w.balance = w.balance - :amount, " +
+           "w.totalSpent = w.totalSpent + :amount, w.version = w.version + 1, w.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE w.user.id = :userId AND w.shardCount = 0 AND w.held >= :amount AND w.balance >= :amount")
+    int spendHeld(@Param("userId") Long userId, @Param("amount") BigDecimal amount);
 }
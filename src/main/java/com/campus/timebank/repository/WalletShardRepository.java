@@ -0,0 +1,46 @@
+package com.campus.timebank.repository;
+
+import com.campus.timebank.entity.WalletShard;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface WalletShardRepository extends JpaRepository<WalletShard, WalletShard.Key> {
+    
+    @Modifying
+    @Query("UPDATE WalletShard s SET s.held = s.held + :amount " +
+           "WHERE s.walletId = :walletId AND s.shardNo = :shardNo AND s.balance - s.held >= :amount")
+    int holdIfAvailable(@Param("walletId") Long walletId, @Param("shardNo") int shardNo,
+                        @Param("amount") BigDecimal amount);
+    
+    @Modifying
+    @Query("UPDATE WalletShard s SET s.held = s.held - :amount " +
+           "WHERE s.walletId = :walletId AND s.shardNo = :shardNo AND s.held >= :amount")
+    int releaseHeld(@Param("walletId") Long walletId, @Param("shardNo") int shardNo,
+                    @Param("amount") BigDecimal amount);
+    
+    @Modifying
+    @Query("UPDATE WalletShard s SET s.held = s.held - :amount, s.balance = s.balance - :amount, " +
+           "s.totalSpent = s.totalSpent + :amount " +
+           "WHERE s.walletId = :walletId AND s.shardNo = :shardNo AND s.held >= :amount AND s.balance >= :amount")
+    int spendHeld(@Param("walletId") Long walletId, @Param("shardNo") int shardNo,
+                  @Param("amount") BigDecimal amount);
+    
+    @Modifying
+    @Query("UPDATE WalletShard s SET s.balance = s.balance + :amount, s.totalEarned = s.totalEarned + :amount " +
+           "WHERE s.walletId = :walletId AND s.shardNo = :shardNo")
+    int credit(@Param("walletId") Long walletId, @Param("shardNo") int shardNo, @Param("amount") BigDecimal amount);
+    
+    // Shards are always locked in shard order so two draining debits cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM WalletShard s WHERE s.walletId = :walletId ORDER BY s.shardNo")
+    List<WalletShard> findAllForUpdate(@Param("walletId") Long walletId);
+}
@@ -4,14 +4,16 @@ import com.campus.timebank.entity.User;
 import com.campus.timebank.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     
     private final UserRepository userRepository;
     
@@ -31,5 +33,15 @@ public class CustomUserDetailsService implements UserDetailsService {
         
         return UserPrincipal.create(user);
     }
+    
+    // Written in its own transaction so the upgraded hash is kept even if the rest of the login fails
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        UserPrincipal userPrincipal = (UserPrincipal) user;
+        userRepository.updatePassword(userPrincipal.getId(), newPassword);
+        userPrincipal.setPassword(newPassword);
+        
+        return userPrincipal;
+    }
 }
-
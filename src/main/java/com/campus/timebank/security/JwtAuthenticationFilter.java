@@ -1,10 +1,12 @@
 package com.campus.timebank.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -14,6 +16,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
@@ -21,6 +24,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     private final JwtTokenProvider tokenProvider;
     private final CustomUserDetailsService customUserDetailsService;
+    private final SecurityEpochRegistry securityEpochRegistry;
+    private final TokenRevocationList tokenRevocationList;
+    
+    @Value("${app.jwt.stateless-principal:true}")
+    private boolean statelessPrincipal;
     
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
@@ -34,10 +42,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
             
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                Long userId = tokenProvider.getUserIdFromJWT(jwt);
+            Optional<Claims> claims = StringUtils.hasText(jwt) ? tokenProvider.parseToken(jwt) : Optional.empty();
+            
+            // Tokens revoked at logout stay cryptographically valid until they expire
+            claims = claims.filter(c -> !tokenRevocationList.isRevoked(c.getId()));
+            
+            UserDetails userDetails = claims.map(this::resolvePrincipal).orElse(null);
                 
-                UserDetails userDetails = customUserDetailsService.loadUserById(userId);
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -51,6 +63,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    private UserDetails resolvePrincipal(Claims claims) {
+        if (statelessPrincipal) {
+            UserPrincipal principal = tokenProvider.getPrincipal(claims);
+            if (principal != null) {
+                // Deactivation or a role change bumps the epoch and invalidates older tokens
+                return securityEpochRegistry.isCurrent(principal.getId(), principal.getSecurityEpoch())
+                        ? principal
+                        : null;
+            }
+        }
+        
+        return customUserDetailsService.loadUserById(tokenProvider.getUserId(claims));
+    }
+    
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -1,82 +1,157 @@
 package com.campus.timebank.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtTokenProvider {
     
+    private static final String EMAIL_CLAIM = "email";
+    private static final String ROLE_CLAIM = "role";
+    private static final String EPOCH_CLAIM = "epoch";
+    
     @Value("${app.jwt.secret:mySecretKeyForJWTTokenGenerationWhichShouldBeVeryLongAndSecure12345678}")
     private String jwtSecret;
     
-    @Value("${app.jwt.expiration:86400000}") // 24 hours in milliseconds
+    @Value("${app.jwt.expiration:900000}") // 15 minutes in milliseconds
     private long jwtExpiration;
     
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    @Value("${app.jwt.cache.max-size:10000}")
+    private long verifiedTokenCacheSize;
+    
+    private Key signingKey;
+    private JwtParser jwtParser;
+    
+    // Tokens that already passed signature verification, kept until they expire
+    private Cache<String, Claims> verifiedTokens;
+    
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedTokenCacheSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String token, Claims claims, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(remainingLifetime(claims));
+                    }
+                    
+                    @Override
+                    public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                    
+                    @Override
+                    public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
     
     public String generateToken(Authentication authentication) {
-        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        return generateToken((UserPrincipal) authentication.getPrincipal());
+    }
         
+    public String generateToken(UserPrincipal userPrincipal) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpiration);
         
+        // Role and security epoch let the filter build the principal without a users lookup
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(Long.toString(userPrincipal.getId()))
+                .claim(EMAIL_CLAIM, userPrincipal.getEmail())
+                .claim(ROLE_CLAIM, userPrincipal.getRole())
+                .claim(EPOCH_CLAIM, userPrincipal.getSecurityEpoch())
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
     
-    public String generateTokenFromEmail(String email, Long userId) {
-        Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + jwtExpiration);
+    /**
+     * Verifies the token and returns its claims, or empty if the token is not valid.
+     * A token is parsed and HMAC-verified only the first time it is seen; afterwards
+     * its claims are served from a bounded cache until the token expires.
+     */
+    public Optional<Claims> parseToken(String token) {
+        Claims cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
         
-        return Jwts.builder()
-                .setSubject(Long.toString(userId))
-                .setIssuedAt(now)
-                .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
-                .compact();
+        try {
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+            verifiedTokens.put(token, claims);
+            return Optional.of(claims);
+        } catch (JwtException ex) {
+            // Invalid signature, malformed, expired or unsupported JWT token
+        } catch (IllegalArgumentException ex) {
+            // JWT claims string is empty
+        }
+        return Optional.empty();
     }
     
     public Long getUserIdFromJWT(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        Claims claims = parseToken(token)
+                .orElseThrow(() -> new MalformedJwtException("Invalid JWT token"));
         
+        return getUserId(claims);
+    }
+    
+    public Long getUserId(Claims claims) {
         return Long.parseLong(claims.getSubject());
     }
     
+    /**
+     * Builds the principal from token claims, or returns null for tokens issued
+     * without role and epoch claims.
+     */
+    public UserPrincipal getPrincipal(Claims claims) {
+        String role = claims.get(ROLE_CLAIM, String.class);
+        Number epoch = claims.get(EPOCH_CLAIM, Number.class);
+        if (role == null || epoch == null) {
+            return null;
+        }
+        
+        return new UserPrincipal(
+                getUserId(claims),
+                claims.get(EMAIL_CLAIM, String.class),
+                null,
+                UserPrincipal.authoritiesFor(role),
+                epoch.longValue()
+        );
+    }
+    
+    public long getExpirationSeconds() {
+        return jwtExpiration / 1000;
+    }
+    
     public boolean validateToken(String authToken) {
-        try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(authToken);
-            return true;
-        } catch (SecurityException ex) {
-            // Invalid JWT signature
-        } catch (MalformedJwtException ex) {
-            // Invalid JWT token
-        } catch (ExpiredJwtException ex) {
-            // Expired JWT token
-        } catch (UnsupportedJwtException ex) {
-            // Unsupported JWT token
-        } catch (IllegalArgumentException ex) {
-            // JWT claims string is empty
+        return parseToken(authToken).isPresent();
+    }
+    
+    private long remainingLifetime(Claims claims) {
+        if (claims.getExpiration() == null) {
+            return jwtExpiration;
         }
-        return false;
+        return Math.max(claims.getExpiration().getTime() - System.currentTimeMillis(), 0);
     }
 }
-
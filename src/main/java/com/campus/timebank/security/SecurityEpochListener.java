@@ -0,0 +1,105 @@
+package com.campus.timebank.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Applies security epoch bumps committed on other nodes as soon as Postgres delivers
+ * their notification, so a deactivated or demoted user's tokens stop working on every
+ * node right away instead of after the next periodic sync. Holds one pooled connection
+ * for as long as the application runs.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SecurityEpochListener {
+    
+    private static final int POLL_TIMEOUT_MS = 1000;
+    private static final long RECONNECT_DELAY_MS = 5000;
+    
+    private final DataSource dataSource;
+    private final SecurityEpochRegistry securityEpochRegistry;
+    
+    @Value("${app.jwt.epoch-notify:true}")
+    private boolean enabled;
+    
+    private ExecutorService executor;
+    private volatile boolean running;
+    
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        executor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("security-epoch-listener-"));
+        executor.submit(this::listen);
+    }
+    
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+    
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + SecurityEpochRegistry.CHANNEL);
+                }
+                // Bumps committed before LISTEN took effect were never delivered to this node
+                securityEpochRegistry.sync();
+                
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        apply(notification.getParameter());
+                    }
+                }
+            } catch (SQLException | RuntimeException ex) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Security epoch listener lost its connection, reconnecting", ex);
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+    
+    // Payload is "<userId>:<epoch>", as sent by SecurityEpochRegistry.advanceAfterCommit
+    void apply(String payload) {
+        int separator = payload.indexOf(':');
+        if (separator < 0) {
+            log.warn("Ignoring malformed security epoch notification: {}", payload);
+            return;
+        }
+        securityEpochRegistry.advance(Long.parseLong(payload.substring(0, separator)),
+                Long.parseLong(payload.substring(separator + 1)));
+    }
+}
@@ -0,0 +1,80 @@
+package com.campus.timebank.security;
+
+import com.campus.timebank.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory table of per-user security epochs. Only users whose epoch was ever
+ * bumped are present, so the table stays small. Local changes apply as soon as
+ * the bumping transaction commits. Other nodes hear about them through a Postgres
+ * notification sent with that commit (see SecurityEpochListener); the periodic sync
+ * catches up on anything a node missed while it was not listening.
+ */
+@Component
+@RequiredArgsConstructor
+public class SecurityEpochRegistry {
+    
+    // Re-read a window before the last sync to tolerate clock skew between nodes
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(30);
+    
+    static final String CHANNEL = "security_epoch";
+    
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Value("${app.jwt.epoch-notify:true}")
+    private boolean notifyEnabled;
+    
+    private final Map<Long, Long> epochs = new ConcurrentHashMap<>();
+    
+    private volatile LocalDateTime lastSync = LocalDateTime.of(1970, 1, 1, 0, 0);
+    
+    public long currentEpoch(Long userId) {
+        return epochs.getOrDefault(userId, 0L);
+    }
+    
+    public boolean isCurrent(Long userId, long tokenEpoch) {
+        return tokenEpoch >= currentEpoch(userId);
+    }
+    
+    public void advance(Long userId, long epoch) {
+        epochs.merge(userId, epoch, Math::max);
+    }
+    
+    public void advanceAfterCommit(Long userId, long epoch) {
+        if (notifyEnabled && TransactionSynchronizationManager.isActualTransactionActive()) {
+            // Postgres holds the notification back until this transaction commits
+            jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", CHANNEL, userId + ":" + epoch);
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            advance(userId, epoch);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                advance(userId, epoch);
+            }
+        });
+    }
+    
+    @Scheduled(fixedDelayString = "${app.jwt.epoch-sync-interval:5000}")
+    public void sync() {
+        LocalDateTime syncStartedAt = LocalDateTime.now();
+        for (Object[] row : userRepository.findSecurityEpochsUpdatedSince(lastSync.minus(SYNC_OVERLAP))) {
+            advance((Long) row[0], (Long) row[1]);
+        }
+        lastSync = syncStartedAt;
+    }
+}
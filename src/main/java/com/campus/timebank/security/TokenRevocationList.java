@@ -0,0 +1,122 @@
+package com.campus.timebank.security;
+
+import com.campus.timebank.entity.RevokedAccessToken;
+import com.campus.timebank.repository.RevokedAccessTokenRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Revoked access token IDs, held in a Bloom filter in front of the revoked_access_tokens
+ * table. Tokens the filter has never seen are accepted without touching the database;
+ * only filter hits are confirmed with a lookup, and that answer is cached per token.
+ * Revocations made on other nodes are picked up by the periodic sync, and the filter
+ * is rebuilt from the table from time to time so expired entries drop out of it.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationList {
+    
+    // Re-read a window before the last sync to tolerate clock skew between nodes
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(30);
+    
+    private final RevokedAccessTokenRepository revokedAccessTokenRepository;
+    
+    @Value("${app.jwt.revocation.expected-insertions:100000}")
+    private long expectedInsertions;
+    
+    @Value("${app.jwt.revocation.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+    
+    private volatile BloomFilter filter;
+    
+    private final Cache<String, Boolean> confirmedLookups = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(15))
+            .build();
+    
+    private volatile LocalDateTime lastSync = LocalDateTime.of(1970, 1, 1, 0, 0);
+    
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        // Until the first rebuild has loaded the table, every token is checked against it
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(jti)) {
+            return false;
+        }
+        return confirmedLookups.get(jti, revokedAccessTokenRepository::existsById);
+    }
+    
+    @Transactional
+    public void revoke(String jti, Date expiresAt) {
+        // Tokens issued before token IDs were introduced cannot be revoked individually
+        if (jti == null || expiresAt == null || expiresAt.before(new Date())) {
+            return;
+        }
+        
+        revokedAccessTokenRepository.save(RevokedAccessToken.builder()
+                .jti(jti)
+                .expiresAt(LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault()))
+                .build());
+        
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            markRevoked(jti);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                markRevoked(jti);
+            }
+        });
+    }
+    
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.sync-interval:5000}")
+    public void sync() {
+        if (filter == null) {
+            return;
+        }
+        LocalDateTime syncStartedAt = LocalDateTime.now();
+        revokedAccessTokenRepository.findJtisRevokedSince(lastSync.minus(SYNC_OVERLAP))
+                .forEach(this::markRevoked);
+        lastSync = syncStartedAt;
+    }
+    
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.rebuild-interval:3600000}")
+    @Transactional
+    public void rebuild() {
+        LocalDateTime rebuildStartedAt = LocalDateTime.now();
+        revokedAccessTokenRepository.deleteExpired(rebuildStartedAt);
+        
+        List<String> jtis = revokedAccessTokenRepository.findUnexpiredJtis(rebuildStartedAt);
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedInsertions, jtis.size() * 2L), falsePositiveRate);
+        jtis.forEach(rebuilt::put);
+        
+        // Revocations committed while this ran land in the old filter; the next sync re-reads them
+        filter = rebuilt;
+        confirmedLookups.invalidateAll();
+        lastSync = rebuildStartedAt;
+    }
+    
+    private void markRevoked(String jti) {
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(jti);
+        }
+        confirmedLookups.invalidate(jti);
+    }
+}
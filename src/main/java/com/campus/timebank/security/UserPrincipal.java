@@ -14,24 +14,40 @@ import java.util.Collections;
 @AllArgsConstructor
 public class UserPrincipal implements UserDetails {
     
+    private static final String ROLE_PREFIX = "ROLE_";
+    
     private Long id;
     private String email;
     private String password;
     private Collection<? extends GrantedAuthority> authorities;
+    private long securityEpoch;
+    
+    public UserPrincipal(Long id, String email, String password, Collection<? extends GrantedAuthority> authorities) {
+        this(id, email, password, authorities, 0L);
+    }
     
     public static UserPrincipal create(User user) {
-        Collection<GrantedAuthority> authorities = Collections.singletonList(
-                new SimpleGrantedAuthority("ROLE_" + user.getRole().name())
-        );
-        
         return new UserPrincipal(
                 user.getId(),
                 user.getEmail(),
                 user.getPassword(),
-                authorities
+                authoritiesFor(user.getRole().name()),
+                user.getSecurityEpoch()
         );
     }
     
+    public static Collection<GrantedAuthority> authoritiesFor(String role) {
+        return Collections.singletonList(new SimpleGrantedAuthority(ROLE_PREFIX + role));
+    }
+    
+    public String getRole() {
+        if (authorities == null || authorities.isEmpty()) {
+            return null;
+        }
+        String authority = authorities.iterator().next().getAuthority();
+        return authority.startsWith(ROLE_PREFIX) ? authority.substring(ROLE_PREFIX.length()) : authority;
+    }
+    
     @Override
     public String getUsername() {
         return email;
@@ -13,6 +13,7 @@ import com.campus.timebank.repository.TransactionRepository;
 import com.campus.timebank.repository.UserRepository;
 import com.campus.timebank.repository.WalletRepository;
 import com.campus.timebank.security.JwtTokenProvider;
+import com.campus.timebank.security.SecurityEpochRegistry;
 import com.campus.timebank.security.UserPrincipal;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
@@ -37,6 +38,8 @@ public class AdminService {
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider tokenProvider;
+    private final SecurityEpochRegistry securityEpochRegistry;
+    private final RefreshTokenService refreshTokenService;
     
     @Value("${app.wallet.initial-balance:10.00}")
     private BigDecimal initialBalance;
@@ -69,11 +72,12 @@ public class AdminService {
         
         walletRepository.save(wallet);
 
-        String token = tokenProvider.generateTokenFromEmail(savedAdmin.getEmail(), savedAdmin.getId());
+        String token = tokenProvider.generateToken(UserPrincipal.create(savedAdmin));
+        String refreshToken = refreshTokenService.issue(savedAdmin);
 
         UserDto userDto = userMapper.toDto(savedAdmin);
         
-        return new AuthResponse(token, userDto);
+        return new AuthResponse(token, refreshToken, tokenProvider.getExpirationSeconds(), userDto);
     }
     
     @Transactional(readOnly = true)
@@ -113,6 +117,8 @@ public class AdminService {
         }
         
         user.setActive(false);
+        revokeIssuedTokens(user);
+        refreshTokenService.revokeAllForUser(user.getId());
         User savedUser = userRepository.save(user);
         return userMapper.toDto(savedUser);
     }
@@ -141,10 +147,17 @@ public class AdminService {
         }
         
         user.setRole(request.getRole());
+        revokeIssuedTokens(user);
         User savedUser = userRepository.save(user);
         return userMapper.toDto(savedUser);
     }
     
+    private void revokeIssuedTokens(User user) {
+        // Tokens carry the epoch they were issued under; bumping it rejects all of them
+        user.setSecurityEpoch(user.getSecurityEpoch() + 1);
+        securityEpochRegistry.advanceAfterCommit(user.getId(), user.getSecurityEpoch());
+    }
+    
     @Transactional(readOnly = true)
     @PreAuthorize("hasRole('ADMIN')")
     public Page<TransactionDto> getAllTransactions(Pageable pageable) {
@@ -2,6 +2,7 @@ package com.campus.timebank.service;
 
 import com.campus.timebank.dto.AuthResponse;
 import com.campus.timebank.dto.LoginRequest;
+import com.campus.timebank.dto.RefreshTokenRequest;
 import com.campus.timebank.dto.RegisterRequest;
 import com.campus.timebank.dto.UserDto;
 import com.campus.timebank.entity.User;
@@ -10,15 +11,19 @@ import com.campus.timebank.mapper.UserMapper;
 import com.campus.timebank.repository.UserRepository;
 import com.campus.timebank.repository.WalletRepository;
 import com.campus.timebank.security.JwtTokenProvider;
+import com.campus.timebank.security.TokenRevocationList;
+import com.campus.timebank.security.UserPrincipal;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
 
@@ -32,6 +37,8 @@ public class AuthService {
     private final JwtTokenProvider tokenProvider;
     private final AuthenticationManager authenticationManager;
     private final UserMapper userMapper;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationList tokenRevocationList;
     
     @Value("${app.wallet.initial-balance:10.00}")
     private BigDecimal initialBalance;
@@ -68,15 +75,16 @@ public class AuthService {
         walletRepository.save(wallet);
         
         // Generate JWT token
-        String token = tokenProvider.generateTokenFromEmail(savedUser.getEmail(), savedUser.getId());
+        String token = tokenProvider.generateToken(UserPrincipal.create(savedUser));
+        String refreshToken = refreshTokenService.issue(savedUser);
         
         // Convert to DTO
         UserDto userDto = userMapper.toDto(savedUser);
         
-        return new AuthResponse(token, userDto);
+        return new AuthResponse(token, refreshToken, tokenProvider.getExpirationSeconds(), userDto);
     }
     
-    @Transactional(readOnly = true)
+    @Transactional
     public AuthResponse login(LoginRequest request) {
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
@@ -89,9 +97,36 @@ public class AuthService {
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
         
+        String refreshToken = refreshTokenService.issue(user);
+        
         UserDto userDto = userMapper.toDto(user);
         
-        return new AuthResponse(token, userDto);
+        return new AuthResponse(token, refreshToken, tokenProvider.getExpirationSeconds(), userDto);
+    }
+    
+    // A rejected refresh may have revoked the token family, which must be kept
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public AuthResponse refresh(RefreshTokenRequest request) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+        User user = rotation.user();
+        
+        // Built from the current user row, so role changes apply from the next refresh
+        String token = tokenProvider.generateToken(UserPrincipal.create(user));
+        
+        UserDto userDto = userMapper.toDto(user);
+        
+        return new AuthResponse(token, rotation.refreshToken(), tokenProvider.getExpirationSeconds(), userDto);
+    }
+    
+    @Transactional
+    public void logout(String accessToken, String refreshToken) {
+        if (StringUtils.hasText(accessToken)) {
+            tokenProvider.parseToken(accessToken)
+                    .ifPresent(claims -> tokenRevocationList.revoke(claims.getId(), claims.getExpiration()));
+        }
+        if (StringUtils.hasText(refreshToken)) {
+            refreshTokenService.revoke(refreshToken);
+        }
     }
 }
 
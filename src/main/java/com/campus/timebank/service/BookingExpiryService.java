@@ -0,0 +1,162 @@
+package com.campus.timebank.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cancels bookings that stayed pending for longer than the configured age. Each chunk
+ * is one statement in its own transaction: it locks the oldest expired bookings with
+ * SKIP LOCKED, cancels them and frees their offer seats. Like canceling a pending booking
+ * by hand, this writes no ledger rows: nothing is held for a booking until it is confirmed.
+ * Canceled timed bookings are taken out of their owner's in-memory schedule on commit.
+ * Rows locked by a user request or by the job on another node are skipped and picked up
+ * on a later run.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookingExpiryService {
+    
+    private static final String EXPIRE_BATCH_SQL =
+            "WITH expired AS (" +
+            "    SELECT id FROM bookings WHERE status = 'PENDING' AND created_at < ? " +
+            "    ORDER BY created_at LIMIT ? FOR UPDATE SKIP LOCKED" +
+            "), canceled AS (" +
+            "    UPDATE bookings b SET status = 'CANCELED', cancel_reason = ?, canceled_at = ?, updated_at = ?, " +
+            "        version = b.version + 1 " +
+            "    FROM expired WHERE b.id = expired.id " +
+            "    RETURNING b.id, b.offer_id, b.slot_owner_id" +
+            "), released AS (" +
+            "    UPDATE offers o SET seats_taken = GREATEST(o.seats_taken - c.seats, 0), " +
+            "        active_booking_count = GREATEST(o.active_booking_count - c.seats, 0), " +
+            "        available = CASE WHEN o.status = 'ACTIVE' THEN true ELSE o.available END, " +
+            "        version = o.version + 1, updated_at = ? " +
+            "    FROM (SELECT offer_id, count(*) AS seats FROM canceled GROUP BY offer_id) c WHERE o.id = c.offer_id" +
+            ") " +
+            "SELECT id, slot_owner_id FROM canceled";
+    
+    private static final String OLDEST_EXPIRED_SQL =
+            "SELECT min(created_at) FROM bookings WHERE status = 'PENDING' AND created_at < ?";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OwnerScheduleService ownerScheduleService;
+    
+    @Value("${app.booking.expiry.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.booking.expiry.pending-hours:72}")
+    private long pendingHours;
+    
+    @Value("${app.booking.expiry.batch-size:200}")
+    private int batchSize;
+    
+    @Value("${app.booking.expiry.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+    
+    // Seconds the oldest expired booking has been waiting past its deadline
+    private final AtomicLong lagSeconds = new AtomicLong();
+    
+    private Counter expiredCounter;
+    private Counter batchCounter;
+    private Timer runTimer;
+    private TransactionTemplate transactionTemplate;
+    
+    @PostConstruct
+    public void init() {
+        expiredCounter = Counter.builder("booking.expiry.expired")
+                .description("Pending bookings canceled by the expiry job")
+                .register(meterRegistry);
+        batchCounter = Counter.builder("booking.expiry.batches")
+                .description("Chunks processed by the expiry job")
+                .register(meterRegistry);
+        runTimer = Timer.builder("booking.expiry.run")
+                .description("Duration of expiry job runs")
+                .register(meterRegistry);
+        Gauge.builder("booking.expiry.lag.seconds", lagSeconds, AtomicLong::get)
+                .description("How long the oldest expired pending booking has been waiting to be canceled")
+                .register(meterRegistry);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @Scheduled(fixedDelayString = "${app.booking.expiry.interval:300000}",
+               initialDelayString = "${app.booking.expiry.initial-delay:60000}")
+    public void expireStalePendingBookings() {
+        if (!enabled) {
+            return;
+        }
+        
+        try {
+            runTimer.record(this::runBatches);
+        } catch (DataAccessException ex) {
+            log.warn("Booking expiry run failed", ex);
+        }
+    }
+    
+    void runBatches() {
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            LocalDateTime now = LocalDateTime.now();
+            int expired = expireBatch(now.minusHours(pendingHours), now);
+            batchCounter.increment();
+            expiredCounter.increment(expired);
+            total += expired;
+            if (expired < batchSize) {
+                break;
+            }
+        }
+        updateLag();
+        
+        if (total > 0) {
+            // The batches do not report which offers they freed seats on
+            eventPublisher.publishEvent(OfferBookingsChangedEvent.anyOffer());
+            log.info("Expired {} pending bookings older than {} hours", total, pendingHours);
+        }
+    }
+    
+    private int expireBatch(LocalDateTime cutoff, LocalDateTime now) {
+        String reason = "Expired: not confirmed within " + pendingHours + " hours";
+        List<ExpiredBooking> expired = transactionTemplate.execute(status -> {
+            List<ExpiredBooking> canceled = jdbcTemplate.query(EXPIRE_BATCH_SQL,
+                    (rs, rowNum) -> new ExpiredBooking(rs.getLong("id"), rs.getObject("slot_owner_id", Long.class)),
+                    Timestamp.valueOf(cutoff), batchSize,
+                    reason, Timestamp.valueOf(now), Timestamp.valueOf(now), Timestamp.valueOf(now));
+            // Frees their slots in the owners' schedules once the cancellation has committed
+            canceled.stream()
+                    .filter(booking -> booking.slotOwnerId() != null)
+                    .forEach(booking -> ownerScheduleService.bookingRemoved(booking.slotOwnerId(), booking.id()));
+            return canceled;
+        });
+        return expired != null ? expired.size() : 0;
+    }
+    
+    private void updateLag() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(pendingHours);
+        Timestamp oldest = jdbcTemplate.queryForObject(OLDEST_EXPIRED_SQL, Timestamp.class, Timestamp.valueOf(cutoff));
+        lagSeconds.set(oldest == null ? 0 : Duration.between(oldest.toLocalDateTime(), cutoff).toSeconds());
+    }
+    
+    record ExpiredBooking(Long id, Long slotOwnerId) {
+    }
+}
@@ -1,36 +1,58 @@
 package com.campus.timebank.service;
 
+import com.campus.timebank.dto.BookingBatchResult;
 import com.campus.timebank.dto.BookingDto;
+import com.campus.timebank.dto.ConfirmBookingsRequest;
 import com.campus.timebank.dto.CreateBookingRequest;
 import com.campus.timebank.entity.Booking;
 import com.campus.timebank.entity.Offer;
 import com.campus.timebank.entity.Transaction;
 import com.campus.timebank.entity.User;
-import com.campus.timebank.entity.Wallet;
 import com.campus.timebank.mapper.BookingMapper;
 import com.campus.timebank.repository.BookingRepository;
 import com.campus.timebank.repository.OfferRepository;
 import com.campus.timebank.repository.TransactionRepository;
 import com.campus.timebank.repository.UserRepository;
-import com.campus.timebank.repository.WalletRepository;
 import com.campus.timebank.security.UserPrincipal;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Service
 @RequiredArgsConstructor
 public class BookingService {
     
+    private static final String FULLY_BOOKED =
+            "Offer is fully booked, join its waitlist to be booked when a seat frees up";
+    
     private final BookingRepository bookingRepository;
     private final OfferRepository offerRepository;
     private final UserRepository userRepository;
-    private final WalletRepository walletRepository;
+    private final WalletService walletService;
+    private final WalletHoldService walletHoldService;
+    private final WaitlistService waitlistService;
+    private final OfferSlotService offerSlotService;
+    private final OwnerScheduleService ownerScheduleService;
     private final TransactionRepository transactionRepository;
     private final BookingMapper bookingMapper;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Transactional
     public BookingDto createBooking(CreateBookingRequest request) {
@@ -43,7 +65,8 @@ public class BookingService {
         Offer offer = offerRepository.findById(request.getOfferId())
                 .orElseThrow(() -> new IllegalArgumentException("Offer not found"));
         
-        if (!offer.isActive()) {
+        // A full offer is also unavailable, but its requesters should be sent to the waitlist
+        if (offer.getStatus() != Offer.OfferStatus.ACTIVE) {
             throw new IllegalStateException("Offer is not available");
         }
         
@@ -51,14 +74,59 @@ public class BookingService {
             throw new IllegalStateException("Cannot book your own offer");
         }
         
+        boolean timed = request.getStartTime() != null || request.getEndTime() != null;
+        if (timed) {
+            offerSlotService.checkBookable(offer, request.getStartTime(), request.getEndTime());
+        } else if (request.getHours() == null) {
+            throw new IllegalArgumentException("Hours are required unless a time slot is given");
+        }
+        
+        if (!offer.hasFreeSeat()) {
+            throw new IllegalStateException(FULLY_BOOKED);
+        }
+        
+        // Requesters already queued for the offer get its seats first
+        if (waitlistService.hasWaiting(offer.getId())) {
+            throw new IllegalStateException("Offer has a waitlist, join it to be booked in turn");
+        }
+        
+        if (offerRepository.claimSeat(offer.getId(), LocalDateTime.now()) == 0) {
+            throw new IllegalStateException(FULLY_BOOKED);
+        }
+        eventPublisher.publishEvent(OfferBookingsChangedEvent.seatsChanged(offer));
+        
+        BigDecimal hours = request.getHours();
+        if (hours == null && timed) {
+            long minutes = Duration.between(request.getStartTime(), request.getEndTime()).toMinutes();
+            hours = BigDecimal.valueOf(minutes).divide(BigDecimal.valueOf(60), 2, RoundingMode.HALF_UP);
+        }
+        
         Booking booking = Booking.builder()
                 .offer(offer)
                 .requester(requester)
                 .status(Booking.BookingStatus.PENDING)
-                .reservedHours(request.getHours())
+                .reservedHours(hours)
+                .startTime(request.getStartTime())
+                .endTime(request.getEndTime())
+                .slotOwnerId(timed ? offer.getOwner().getId() : null)
                 .build();
         
-        Booking savedBooking = bookingRepository.save(booking);
+        if (!timed) {
+            return bookingMapper.toDto(bookingRepository.save(booking));
+        }
+        
+        // Flushed so a concurrent booking of the same time fails on the exclusion constraint here
+        Booking savedBooking;
+        try {
+            savedBooking = bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException ex) {
+            if (ConstraintViolations.isViolationOf(ex, "23P01", "excl_bookings_owner_slot")) {
+                throw new IllegalStateException("The owner is already booked at that time");
+            }
+            throw ex;
+        }
+        ownerScheduleService.bookingAdded(booking.getSlotOwnerId(), savedBooking.getId(),
+                savedBooking.getStartTime(), savedBooking.getEndTime());
         return bookingMapper.toDto(savedBooking);
     }
     
@@ -67,52 +135,84 @@ public class BookingService {
         UserPrincipal userPrincipal = (UserPrincipal) SecurityContextHolder.getContext()
                 .getAuthentication().getPrincipal();
         
-        Booking booking = bookingRepository.findByIdAndOfferOwnerId(bookingId, userPrincipal.getId())
-                .orElseThrow(() -> new IllegalArgumentException("Booking not found or you don't have permission"));
-        
-        // Get wallets for owner and requester
-        Wallet ownerWallet = walletRepository.findByUserId(booking.getOffer().getOwner().getId())
-                .orElseThrow(() -> new IllegalArgumentException("Wallet not found for owner"));
-        
-        Wallet requesterWallet = walletRepository.findByUserId(booking.getRequester().getId())
-                .orElseThrow(() -> new IllegalArgumentException("Wallet not found for requester"));
-        
-        // Check if owner has sufficient balance (owner pays requester in this system)
-        if (!ownerWallet.hasBalance(booking.getReservedHours())) {
-            throw new IllegalStateException("Insufficient balance to confirm booking");
+        if (bookingRepository.confirmAsOwner(bookingId, userPrincipal.getId(), LocalDateTime.now()) == 0) {
+            throw ownerTransitionFailure(bookingId, userPrincipal.getId(), "Only pending bookings can be confirmed");
         }
         
-        booking.confirm();
+        Booking booking = loadWithParticipants(bookingId);
         
-        // Transfer hours: owner pays, requester receives
-        ownerWallet.deductBalance(booking.getReservedHours());
-        requesterWallet.addBalance(booking.getReservedHours());
+        // The owner pays in this system: their hours are held until the booking completes or is canceled
+        walletHoldService.placeHold(booking);
+        transactionRepository.save(reserveTransaction(booking));
+        
+        return bookingMapper.toDto(booking);
+    }
+    
+    /**
+     * Confirms many pending bookings of the caller's offers in one transaction. The hours of
+     * all confirmed bookings are held on the owner's wallet with one guarded update and the
+     * ledger rows are inserted together.
+     * Bookings that cannot be confirmed are reported as failed and the rest go through,
+     * unless the request asks for all-or-nothing.
+     */
+    @Transactional
+    public List<BookingBatchResult> confirmBookings(ConfirmBookingsRequest request) {
+        UserPrincipal userPrincipal = (UserPrincipal) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
+        Long ownerId = userPrincipal.getId();
         
-        walletRepository.save(ownerWallet);
-        walletRepository.save(requesterWallet);
+        List<Long> bookingIds = new ArrayList<>(new LinkedHashSet<>(request.getBookingIds()));
+        Map<Long, Booking> bookings = bookingRepository.findByIdsAndOfferOwnerIdForUpdate(bookingIds, ownerId).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
         
-        // Create transaction for owner (deduction)
-        Transaction ownerTransaction = Transaction.builder()
-                .user(booking.getOffer().getOwner())
-                .type(Transaction.TransactionType.RESERVE)
-                .amount(booking.getReservedHours())
-                .booking(booking)
-                .description("Reserved hours for booking offer: " + booking.getOffer().getTitle())
-                .build();
-        transactionRepository.save(ownerTransaction);
+        // Take bookings in request order while the owner's available balance covers them
+        BigDecimal available = walletService.getAvailableBalance(ownerId);
+        BigDecimal total = BigDecimal.ZERO;
+        Map<Long, BookingBatchResult> results = new HashMap<>();
+        List<Booking> accepted = new ArrayList<>();
+        for (Long bookingId : bookingIds) {
+            Booking booking = bookings.get(bookingId);
+            String failure = null;
+            if (booking == null) {
+                failure = "Booking not found or you don't have permission";
+            } else if (booking.getStatus() != Booking.BookingStatus.PENDING) {
+                failure = "Only pending bookings can be confirmed";
+            } else if (total.add(booking.getReservedHours()).compareTo(available) > 0) {
+                failure = "Insufficient balance";
+            }
+            
+            if (failure != null) {
+                if (request.isAllOrNothing()) {
+                    throw new IllegalStateException("Booking " + bookingId + ": " + failure);
+                }
+                results.put(bookingId, BookingBatchResult.builder()
+                        .bookingId(bookingId)
+                        .status(BookingBatchResult.Status.FAILED)
+                        .message(failure)
+                        .build());
+                continue;
+            }
+            total = total.add(booking.getReservedHours());
+            accepted.add(booking);
+        }
         
-        // Create transaction for requester (addition)
-        Transaction requesterTransaction = Transaction.builder()
-                .user(booking.getRequester())
-                .type(Transaction.TransactionType.COMMIT)
-                .amount(booking.getReservedHours())
-                .booking(booking)
-                .description("Received hours from booking offer: " + booking.getOffer().getTitle())
-                .build();
-        transactionRepository.save(requesterTransaction);
+        if (!accepted.isEmpty()) {
+            accepted.forEach(Booking::confirm);
+            
+            // A concurrent spend can still beat the balance read above; the guarded hold then fails the batch
+            walletHoldService.placeHolds(ownerId, accepted);
+            transactionRepository.saveAll(accepted.stream().map(this::reserveTransaction).toList());
+            
+            for (Booking booking : accepted) {
+                results.put(booking.getId(), BookingBatchResult.builder()
+                        .bookingId(booking.getId())
+                        .status(BookingBatchResult.Status.CONFIRMED)
+                        .booking(bookingMapper.toDto(booking))
+                        .build());
+            }
+        }
         
-        Booking savedBooking = bookingRepository.save(booking);
-        return bookingMapper.toDto(savedBooking);
+        return bookingIds.stream().map(results::get).toList();
     }
     
     @Transactional
@@ -120,54 +220,68 @@ public class BookingService {
         UserPrincipal userPrincipal = (UserPrincipal) SecurityContextHolder.getContext()
                 .getAuthentication().getPrincipal();
         
-        Booking booking = bookingRepository.findByIdAndOfferOwnerId(bookingId, userPrincipal.getId())
-                .orElseThrow(() -> new IllegalArgumentException("Booking not found or you don't have permission"));
-        
-        if (booking.getStatus() != Booking.BookingStatus.CONFIRMED) {
-            throw new IllegalStateException("Only confirmed bookings can be completed");
+        if (bookingRepository.completeAsOwner(bookingId, userPrincipal.getId(), LocalDateTime.now()) == 0) {
+            throw ownerTransitionFailure(bookingId, userPrincipal.getId(), "Only confirmed bookings can be completed");
         }
         
-        booking.complete();
+        Booking booking = loadWithParticipants(bookingId);
+        offerRepository.recordCompletedBooking(booking.getOffer().getId(), LocalDateTime.now());
+        eventPublisher.publishEvent(OfferBookingsChangedEvent.countsChanged(booking.getOffer()));
         
-        // Balance transfer already happened at confirmation, so we just mark as completed
-        // Create transaction record for completion
-        Transaction transaction = Transaction.builder()
+        BigDecimal hours = booking.getTransferredHours() != null ? booking.getTransferredHours() : booking.getReservedHours();
+        Transaction ownerTransaction = Transaction.builder()
                 .user(booking.getOffer().getOwner())
                 .type(Transaction.TransactionType.COMMIT)
-                .amount(booking.getTransferredHours() != null ? booking.getTransferredHours() : booking.getReservedHours())
+                .amount(hours)
                 .booking(booking)
                 .description("Completed booking: " + booking.getOffer().getTitle())
                 .build();
-        transactionRepository.save(transaction);
         
-        Booking savedBooking = bookingRepository.save(booking);
-        return bookingMapper.toDto(savedBooking);
+        // Pays the held hours out; bookings confirmed before holds existed were paid at confirmation
+        if (!walletHoldService.commitHold(booking)) {
+            transactionRepository.save(ownerTransaction);
+            return bookingMapper.toDto(booking);
+        }
+        
+        Transaction requesterTransaction = Transaction.builder()
+                .user(booking.getRequester())
+                .type(Transaction.TransactionType.EARN)
+                .amount(hours)
+                .booking(booking)
+                .description("Received hours from booking offer: " + booking.getOffer().getTitle())
+                .build();
+        transactionRepository.saveAll(List.of(ownerTransaction, requesterTransaction));
+        
+        return bookingMapper.toDto(booking);
     }
     
     @Transactional
     public BookingDto cancelBooking(Long bookingId, String reason) {
         UserPrincipal userPrincipal = (UserPrincipal) SecurityContextHolder.getContext()
                 .getAuthentication().getPrincipal();
+        Long userId = userPrincipal.getId();
+        LocalDateTime now = LocalDateTime.now();
         
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new IllegalArgumentException("Booking not found"));
-        
-        // Check if user is either requester or offer owner
-        if (!booking.getRequester().getId().equals(userPrincipal.getId()) &&
-            !booking.getOffer().getOwner().getId().equals(userPrincipal.getId())) {
-            throw new IllegalStateException("You don't have permission to cancel this booking");
+        // Pending bookings are canceled as is; confirmed ones additionally release their hours
+        boolean wasConfirmed = false;
+        if (bookingRepository.cancelAsParticipant(bookingId, userId, Booking.BookingStatus.PENDING, reason, now) == 0) {
+            if (bookingRepository.cancelAsParticipant(bookingId, userId, Booking.BookingStatus.CONFIRMED, reason, now) == 0) {
+                throw cancelFailure(bookingId, userId);
+            }
+            wasConfirmed = true;
         }
         
-        if (!booking.canBeCanceled()) {
-            throw new IllegalStateException("This booking cannot be canceled");
+        Booking booking = loadWithParticipants(bookingId);
+        offerRepository.releaseSeat(booking.getOffer().getId(), now);
+        eventPublisher.publishEvent(OfferBookingsChangedEvent.seatsChanged(booking.getOffer()));
+        waitlistService.promoteNext(booking.getOffer().getId());
+        if (booking.getSlotOwnerId() != null) {
+            ownerScheduleService.bookingRemoved(booking.getSlotOwnerId(), booking.getId());
         }
         
-        booking.cancel(reason);
-        
-        // If booking was confirmed, release the reserved hours
-        if (booking.getStatus() == Booking.BookingStatus.CONFIRMED) {
+        if (wasConfirmed && walletHoldService.releaseHold(booking)) {
             Transaction transaction = Transaction.builder()
-                    .user(booking.getRequester())
+                    .user(booking.getOffer().getOwner())
                     .type(Transaction.TransactionType.RELEASE)
                     .amount(booking.getReservedHours())
                     .booking(booking)
@@ -176,8 +290,41 @@ public class BookingService {
             transactionRepository.save(transaction);
         }
         
-        Booking savedBooking = bookingRepository.save(booking);
-        return bookingMapper.toDto(savedBooking);
+        return bookingMapper.toDto(booking);
+    }
+    
+    private Transaction reserveTransaction(Booking booking) {
+        return Transaction.builder()
+                .user(booking.getOffer().getOwner())
+                .type(Transaction.TransactionType.RESERVE)
+                .amount(booking.getReservedHours())
+                .booking(booking)
+                .description("Reserved hours for booking offer: " + booking.getOffer().getTitle())
+                .build();
+    }
+    
+    private Booking loadWithParticipants(Long bookingId) {
+        return bookingRepository.findByIdWithParticipants(bookingId)
+                .orElseThrow(() -> new IllegalArgumentException("Booking not found"));
+    }
+    
+    // Only reached when a transition matched no row; works out which check failed for the error message
+    private RuntimeException ownerTransitionFailure(Long bookingId, Long ownerId, String stateMessage) {
+        return bookingRepository.findByIdAndOfferOwnerId(bookingId, ownerId).isPresent()
+                ? new IllegalStateException(stateMessage)
+                : new IllegalArgumentException("Booking not found or you don't have permission");
+    }
+    
+    private RuntimeException cancelFailure(Long bookingId, Long userId) {
+        Booking booking = bookingRepository.findByIdWithParticipants(bookingId).orElse(null);
+        if (booking == null) {
+            return new IllegalArgumentException("Booking not found");
+        }
+        if (!booking.getRequester().getId().equals(userId) &&
+            !booking.getOffer().getOwner().getId().equals(userId)) {
+            return new IllegalStateException("You don't have permission to cancel this booking");
+        }
+        return new IllegalStateException("This booking cannot be canceled");
     }
     
     @Transactional(readOnly = true)
@@ -188,6 +335,29 @@ public class BookingService {
         return bookingMapper.toDto(booking);
     }
     
+    // Read before the page itself, so a 304 needs no booking to be loaded
+    @Transactional(readOnly = true)
+    public ResourceVersion getMyBookingsAsRequesterVersion() {
+        UserPrincipal userPrincipal = (UserPrincipal) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
+        
+        return bookingRepository.findRequesterBookingsVersion(userPrincipal.getId()).stream()
+                .findFirst()
+                .map(ResourceVersion::of)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+    }
+    
+    @Transactional(readOnly = true)
+    public ResourceVersion getMyBookingsAsOwnerVersion() {
+        UserPrincipal userPrincipal = (UserPrincipal) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
+        
+        return bookingRepository.findOwnerBookingsVersion(userPrincipal.getId()).stream()
+                .findFirst()
+                .map(ResourceVersion::of)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+    }
+    
     @Transactional(readOnly = true)
     public Page<BookingDto> getMyBookingsAsRequester(Pageable pageable) {
         UserPrincipal userPrincipal = (UserPrincipal) SecurityContextHolder.getContext()
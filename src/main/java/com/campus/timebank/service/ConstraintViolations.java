@@ -0,0 +1,28 @@
+package com.campus.timebank.service;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+
+/**
+ * Tells which database constraint an integrity violation came from, so services can turn
+ * the expected ones into client errors and let everything else surface as a server error.
+ */
+final class ConstraintViolations {
+    
+    private ConstraintViolations() {
+    }
+    
+    // Matches on the SQLState or on the constraint name, which Postgres puts in the error message
+    static boolean isViolationOf(DataIntegrityViolationException ex, String sqlState, String constraintName) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && sqlState.equals(sqlException.getSQLState())) {
+                return true;
+            }
+            if (cause.getMessage() != null && cause.getMessage().contains(constraintName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
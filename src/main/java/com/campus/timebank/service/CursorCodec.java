@@ -0,0 +1,68 @@
+package com.campus.timebank.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Encodes the sort key of the last row of a page into an opaque cursor for keyset
+ * pagination, so clients pass it back without depending on its layout.
+ */
+public final class CursorCodec {
+    
+    private static final String SEPARATOR = "|";
+    
+    private CursorCodec() {
+    }
+    
+    public static String encode(Object... parts) {
+        StringBuilder key = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                key.append(SEPARATOR);
+            }
+            key.append(parts[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.toString().getBytes(StandardCharsets.UTF_8));
+    }
+    
+    // Returns the encoded parts; throws IllegalArgumentException if the cursor was not made by encode with that many parts
+    public static String[] decode(String cursor, int expectedParts) {
+        String key;
+        try {
+            key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        String[] parts = key.split("\\|", -1);
+        if (parts.length != expectedParts) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return parts;
+    }
+    
+    public static long decodeLong(String part) {
+        try {
+            return Long.parseLong(part);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+    
+    public static LocalDateTime decodeDateTime(String part) {
+        try {
+            return LocalDateTime.parse(part);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+    
+    public static float decodeFloat(String part) {
+        try {
+            return Float.parseFloat(part);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
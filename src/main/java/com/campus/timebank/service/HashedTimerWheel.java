@@ -0,0 +1,94 @@
+package com.campus.timebank.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timer wheel for id deadlines. Deadlines are rounded up to ticks and hashed into
+ * a fixed ring of buckets by tick number; advancing only visits the buckets of the ticks
+ * that passed, so the cost does not depend on how many deadlines are pending. Deadlines
+ * further out than one rotation share buckets with nearer ones and are skipped until due.
+ * Rescheduling an id replaces its previous deadline.
+ */
+public class HashedTimerWheel {
+    
+    private final long tickMs;
+    private final List<Entry>[] buckets;
+    private final Map<Long, Entry> entries = new HashMap<>();
+    
+    // Last tick whose bucket has been processed
+    private long currentTick;
+    
+    @SuppressWarnings("unchecked")
+    public HashedTimerWheel(long tickMs, int wheelSize, long nowMs) {
+        if (tickMs <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick and wheel size must be positive");
+        }
+        this.tickMs = tickMs;
+        this.buckets = new List[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+        this.currentTick = nowMs / tickMs;
+    }
+    
+    public synchronized void schedule(long id, long deadlineMs) {
+        cancel(id);
+        // Overdue deadlines fire on the next advance
+        long tick = Math.max(ceilDiv(deadlineMs, tickMs), currentTick + 1);
+        Entry entry = new Entry(id, tick);
+        entries.put(id, entry);
+        buckets[bucketOf(tick)].add(entry);
+    }
+    
+    public synchronized boolean cancel(long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return false;
+        }
+        buckets[bucketOf(entry.tick)].remove(entry);
+        return true;
+    }
+    
+    /**
+     * Moves the wheel to the given time and returns the ids whose deadlines have passed,
+     * removing them from the wheel.
+     */
+    public synchronized List<Long> advance(long nowMs) {
+        long nowTick = nowMs / tickMs;
+        List<Long> expired = new ArrayList<>();
+        // After a long pause every bucket is visited once rather than once per missed tick
+        long ticks = Math.min(nowTick - currentTick, buckets.length);
+        for (long i = 1; i <= ticks; i++) {
+            Iterator<Entry> iterator = buckets[bucketOf(currentTick + i)].iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (entry.tick <= nowTick) {
+                    iterator.remove();
+                    entries.remove(entry.id);
+                    expired.add(entry.id);
+                }
+            }
+        }
+        currentTick = Math.max(currentTick, nowTick);
+        return expired;
+    }
+    
+    public synchronized int size() {
+        return entries.size();
+    }
+    
+    private int bucketOf(long tick) {
+        return (int) Math.floorMod(tick, (long) buckets.length);
+    }
+    
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+    
+    private record Entry(long id, long tick) {
+    }
+}
@@ -0,0 +1,125 @@
+package com.campus.timebank.service;
+
+import com.campus.timebank.entity.IdempotencyKey;
+import com.campus.timebank.repository.IdempotencyKeyRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Stores the outcome of requests sent with an Idempotency-Key. The idempotency_keys table
+ * is the source of truth: a key is claimed with one insert, so of two concurrent requests
+ * only one runs and the other waits for its stored response. Completed responses are
+ * also kept in a bounded in-memory cache, so most replays do not touch the database.
+ */
+@Service
+@RequiredArgsConstructor
+public class IdempotencyKeyService {
+    
+    private static final long POLL_INTERVAL_MS = 50;
+    
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    
+    @Value("${app.idempotency.ttl:86400000}")
+    private long ttlMs;
+    
+    // How long a key stays claimed by a request that never completes, e.g. because its node died
+    @Value("${app.idempotency.lease-ms:300000}")
+    private long leaseMs;
+    
+    @Value("${app.idempotency.cache.max-size:10000}")
+    private long cacheSize;
+    
+    @Value("${app.idempotency.wait-timeout-ms:10000}")
+    private long waitTimeoutMs;
+    
+    private Cache<String, IdempotencyKey> completed;
+    
+    @PostConstruct
+    public void init() {
+        completed = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .build();
+    }
+    
+    /**
+     * Returns the completed response stored for the key, or null if there is none yet.
+     */
+    public IdempotencyKey findCompleted(String id) {
+        IdempotencyKey cached = completed.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        return idempotencyKeyRepository.findById(id)
+                .filter(this::isReplayable)
+                .map(this::remember)
+                .orElse(null);
+    }
+    
+    @Transactional
+    public boolean claim(String id, String fingerprint) {
+        LocalDateTime now = LocalDateTime.now();
+        return idempotencyKeyRepository.claim(id, fingerprint, now, now.plus(Duration.ofMillis(leaseMs))) == 1;
+    }
+    
+    @Transactional
+    public void complete(String id, int responseStatus, String contentType, String responseBody) {
+        idempotencyKeyRepository.complete(id, responseStatus, contentType, responseBody,
+                LocalDateTime.now().plus(Duration.ofMillis(ttlMs)));
+    }
+    
+    // Frees the key after a failed attempt so the client can retry with it
+    @Transactional
+    public void release(String id) {
+        idempotencyKeyRepository.release(id);
+    }
+    
+    /**
+     * Waits for a request that holds the key on this or another node to finish. Returns
+     * the key's latest state, which is still in progress if the wait timed out, or null
+     * if the other request failed and released the key or its lease ran out.
+     */
+    public IdempotencyKey awaitCompletion(String id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + waitTimeoutMs;
+        while (true) {
+            IdempotencyKey key = completed.getIfPresent(id);
+            if (key == null) {
+                key = idempotencyKeyRepository.findById(id).orElse(null);
+            }
+            if (key == null || key.getExpiresAt().isBefore(LocalDateTime.now())) {
+                return null;
+            }
+            if (key.isCompleted()) {
+                return remember(key);
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                return key;
+            }
+            Thread.sleep(POLL_INTERVAL_MS);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-interval:3600000}")
+    @Transactional
+    public void deleteExpired() {
+        idempotencyKeyRepository.deleteExpired(LocalDateTime.now());
+    }
+    
+    private boolean isReplayable(IdempotencyKey key) {
+        return key.isCompleted() && key.getExpiresAt().isAfter(LocalDateTime.now());
+    }
+    
+    private IdempotencyKey remember(IdempotencyKey key) {
+        completed.put(key.getId(), key);
+        return key;
+    }
+}
@@ -0,0 +1,167 @@
+package com.campus.timebank.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Interval tree over half-open [start, end) intervals, each tagged with an id. It is a
+ * treap ordered by start, where every node also keeps the largest end in its subtree, so
+ * searches skip subtrees that end before the queried range begins. Inserts, removals and
+ * overlap checks take O(log n) expected time; listing overlaps costs O(log n) plus the
+ * number of intervals returned when the stored intervals do not overlap each other.
+ * Inserting an id again replaces its interval. Not thread-safe.
+ */
+public class IntervalTree {
+    
+    private final Map<Long, Long> startsById = new HashMap<>();
+    private Node root;
+    
+    public void insert(long id, long start, long end) {
+        if (start >= end) {
+            throw new IllegalArgumentException("Interval must end after it starts");
+        }
+        remove(id);
+        Node[] parts = split(root, start, id);
+        root = merge(merge(parts[0], new Node(id, start, end)), parts[1]);
+        startsById.put(id, start);
+    }
+    
+    public boolean remove(long id) {
+        Long start = startsById.remove(id);
+        if (start == null) {
+            return false;
+        }
+        root = remove(root, start, id);
+        return true;
+    }
+    
+    public boolean overlapsAny(long start, long end) {
+        Node node = root;
+        while (node != null) {
+            if (node.start < end && start < node.end) {
+                return true;
+            }
+            // Ordered by start: if the left side reaches past start without overlapping, nothing to the right can
+            if (node.left != null && node.left.maxEnd > start) {
+                node = node.left;
+            } else if (node.start < end) {
+                node = node.right;
+            } else {
+                return false;
+            }
+        }
+        return false;
+    }
+    
+    // Intervals overlapping [start, end), ordered by start
+    public List<Interval> overlapping(long start, long end) {
+        List<Interval> result = new ArrayList<>();
+        collect(root, start, end, result);
+        return result;
+    }
+    
+    public int size() {
+        return startsById.size();
+    }
+    
+    private void collect(Node node, long start, long end, List<Interval> result) {
+        if (node == null || node.maxEnd <= start) {
+            return;
+        }
+        collect(node.left, start, end, result);
+        if (node.start < end) {
+            if (start < node.end) {
+                result.add(new Interval(node.id, node.start, node.end));
+            }
+            collect(node.right, start, end, result);
+        }
+    }
+    
+    // Splits into the nodes ordered before (start, id) and the rest
+    private Node[] split(Node node, long start, long id) {
+        if (node == null) {
+            return new Node[2];
+        }
+        if (compare(start, id, node) > 0) {
+            Node[] parts = split(node.right, start, id);
+            node.right = parts[0];
+            parts[0] = update(node);
+            return parts;
+        }
+        Node[] parts = split(node.left, start, id);
+        node.left = parts[1];
+        parts[1] = update(node);
+        return parts;
+    }
+    
+    private Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return update(left);
+        }
+        right.left = merge(left, right.left);
+        return update(right);
+    }
+    
+    private Node remove(Node node, long start, long id) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, id, node);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = remove(node.left, start, id);
+        } else {
+            node.right = remove(node.right, start, id);
+        }
+        return update(node);
+    }
+    
+    private static int compare(long start, long id, Node node) {
+        int cmp = Long.compare(start, node.start);
+        return cmp != 0 ? cmp : Long.compare(id, node.id);
+    }
+    
+    private static Node update(Node node) {
+        long maxEnd = node.end;
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        node.maxEnd = maxEnd;
+        return node;
+    }
+    
+    public record Interval(long id, long start, long end) {
+    }
+    
+    private static final class Node {
+        private final long id;
+        private final long start;
+        private final long end;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private long maxEnd;
+        private Node left;
+        private Node right;
+        
+        private Node(long id, long start, long end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+    }
+}
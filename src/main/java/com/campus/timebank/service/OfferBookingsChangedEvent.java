@@ -0,0 +1,23 @@
+package com.campus.timebank.service;
+
+import com.campus.timebank.entity.Offer;
+
+/**
+ * Published when bookings change an offer's booking counts or seats. Only offers with a
+ * capacity can become available or unavailable through a booking. A null offerId means
+ * any offer may have changed.
+ */
+public record OfferBookingsChangedEvent(Long offerId, boolean availabilityMayChange) {
+    
+    public static OfferBookingsChangedEvent seatsChanged(Offer offer) {
+        return new OfferBookingsChangedEvent(offer.getId(), offer.getCapacity() != null);
+    }
+    
+    public static OfferBookingsChangedEvent countsChanged(Offer offer) {
+        return new OfferBookingsChangedEvent(offer.getId(), false);
+    }
+    
+    public static OfferBookingsChangedEvent anyOffer() {
+        return new OfferBookingsChangedEvent(null, true);
+    }
+}
@@ -0,0 +1,13 @@
+package com.campus.timebank.service;
+
+import com.campus.timebank.entity.Offer;
+
+// Published by OfferService whenever an offer's searchable fields or status change
+public record OfferChangedEvent(Long offerId, String title, String description, String ownerName, boolean active) {
+    
+    public static OfferChangedEvent of(Offer offer) {
+        return new OfferChangedEvent(offer.getId(), offer.getTitle(), offer.getDescription(),
+                offer.getOwner().getFirstName() + " " + offer.getOwner().getLastName(),
+                offer.getStatus() == Offer.OfferStatus.ACTIVE);
+    }
+}
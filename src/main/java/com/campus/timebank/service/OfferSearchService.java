@@ -0,0 +1,116 @@
+package com.campus.timebank.service;
+
+import com.campus.timebank.dto.CursorPage;
+import com.campus.timebank.dto.OfferSearchResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.List;
+
+/**
+ * Full-text search over active offers using the generated search_vector column and its
+ * GIN index. Results are ranked with ts_rank and paginated by (rank, id) keyset, so deep
+ * pages cost the same as the first. Snippets are built with ts_headline for the returned
+ * page only, since highlighting has to re-parse each description. Descriptions are raw
+ * user text, so ts_headline marks matches with control-character sentinels rather than
+ * tags; the snippet is then HTML-escaped and only the sentinels become <b></b>.
+ */
+@Service
+@RequiredArgsConstructor
+public class OfferSearchService {
+    
+    private static final String SEARCH_SQL =
+            "WITH query AS (SELECT websearch_to_tsquery('english', ?) AS q), " +
+            "page AS (" +
+            "    SELECT m.* FROM (" +
+            "        SELECT o.id, o.owner_id, o.title, o.description, o.hours_rate, o.capacity, o.seats_taken, " +
+            "            o.created_at, ts_rank(o.search_vector, query.q) AS rank " +
+            "        FROM offers o, query " +
+            "        WHERE o.search_vector @@ query.q AND o.status = 'ACTIVE' AND o.available = true" +
+            "    ) m " +
+            "    %s" +
+            "    ORDER BY m.rank DESC, m.id DESC LIMIT ?" +
+            ") " +
+            "SELECT page.id, page.owner_id, u.first_name, u.last_name, page.title, page.hours_rate, page.capacity, " +
+            "    page.seats_taken, page.created_at, page.rank, " +
+            "    ts_headline('english', translate(page.description, chr(2) || chr(3), ''), query.q, " +
+            "        'StartSel=' || chr(2) || ', StopSel=' || chr(3) || ', MaxFragments=2, MinWords=5, MaxWords=20') AS snippet " +
+            "FROM page JOIN users u ON u.id = page.owner_id, query " +
+            "ORDER BY page.rank DESC, page.id DESC";
+    
+    private static final char START_SEL = '\u0002';
+    
+    private static final char STOP_SEL = '\u0003';
+    
+    private static final String FIRST_PAGE_SQL = String.format(SEARCH_SQL, "");
+    
+    private static final String NEXT_PAGE_SQL = String.format(SEARCH_SQL, "WHERE (m.rank, m.id) < (?::real, ?)");
+    
+    private static final RowMapper<OfferSearchResult> ROW_MAPPER = (rs, rowNum) -> OfferSearchResult.builder()
+            .id(rs.getLong("id"))
+            .ownerId(rs.getLong("owner_id"))
+            .ownerName(rs.getString("first_name") + " " + rs.getString("last_name"))
+            .title(rs.getString("title"))
+            .snippet(toSnippet(rs.getString("snippet")))
+            .hoursRate(rs.getBigDecimal("hours_rate"))
+            .capacity(rs.getObject("capacity", Integer.class))
+            .seatsTaken(rs.getInt("seats_taken"))
+            .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+            .rank(rs.getFloat("rank"))
+            .build();
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Value("${app.search.max-query-length:200}")
+    private int maxQueryLength;
+    
+    @Value("${app.search.max-page-size:50}")
+    private int maxPageSize;
+    
+    @Transactional(readOnly = true)
+    public CursorPage<OfferSearchResult> search(String query, String cursor, int size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query cannot be empty");
+        }
+        if (query.length() > maxQueryLength) {
+            throw new IllegalArgumentException("Search query cannot be longer than " + maxQueryLength + " characters");
+        }
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        
+        // One extra row tells whether there is a next page
+        List<OfferSearchResult> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = jdbcTemplate.query(FIRST_PAGE_SQL, ROW_MAPPER, query, pageSize + 1);
+        } else {
+            String[] key = CursorCodec.decode(cursor, 2);
+            rows = jdbcTemplate.query(NEXT_PAGE_SQL, ROW_MAPPER, query,
+                    CursorCodec.decodeFloat(key[0]), CursorCodec.decodeLong(key[1]), pageSize + 1);
+        }
+        
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            OfferSearchResult last = rows.get(pageSize - 1);
+            nextCursor = CursorCodec.encode(last.getRank(), last.getId());
+        }
+        return CursorPage.<OfferSearchResult>builder()
+                .items(rows)
+                .nextCursor(nextCursor)
+                .build();
+    }
+    
+    // Escapes the headline and turns the match sentinels into <b></b>, so only those tags reach the client
+    static String toSnippet(String headline) {
+        if (headline == null) {
+            return null;
+        }
+        return HtmlUtils.htmlEscape(headline)
+                .replace(String.valueOf(START_SEL), "<b>")
+                .replace(String.valueOf(STOP_SEL), "</b>");
+    }
+}
@@ -1,6 +1,7 @@
 package com.campus.timebank.service;
 
 import com.campus.timebank.dto.CreateOfferRequest;
+import com.campus.timebank.dto.CursorPage;
 import com.campus.timebank.dto.OfferDto;
 import com.campus.timebank.entity.Offer;
 import com.campus.timebank.entity.User;
@@ -8,23 +9,78 @@ import com.campus.timebank.mapper.OfferMapper;
 import com.campus.timebank.repository.OfferRepository;
 import com.campus.timebank.repository.UserRepository;
 import com.campus.timebank.security.UserPrincipal;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class OfferService {
     
+    private static final int MAX_FEED_PAGE_SIZE = 100;
+    
     private final OfferRepository offerRepository;
     private final UserRepository userRepository;
     private final OfferMapper offerMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${app.offers.cache.max-offers:10000}")
+    private long cacheMaxOffers;
+    
+    // Offers summed over all cached pages of the active listing
+    @Value("${app.offers.cache.max-listing-weight:20000}")
+    private long cacheMaxListingWeight;
+    
+    @Value("${app.offers.cache.expire-after-ms:60000}")
+    private long cacheExpireAfterMs;
+    
+    // 0 disables; otherwise entries older than this are served while they reload in the background
+    @Value("${app.offers.cache.refresh-after-ms:0}")
+    private long cacheRefreshAfterMs;
+    
+    // Caffeine's W-TinyLFU admission keeps hot offers and pages cached under a burst of one-off reads
+    private LoadingCache<Long, OfferDto> offersById;
+    private LoadingCache<Pageable, Page<OfferDto>> activeOfferPages;
+    private TransactionTemplate readOnlyTransaction;
+    
+    @PostConstruct
+    public void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        offersById = cacheBuilder()
+                .maximumSize(cacheMaxOffers)
+                .build(this::loadOffer);
+        activeOfferPages = cacheBuilder()
+                .maximumWeight(cacheMaxListingWeight)
+                .weigher((Pageable pageable, Page<OfferDto> page) -> Math.max(1, page.getNumberOfElements()))
+                .build(this::loadActiveOffers);
+        CaffeineCacheMetrics.monitor(meterRegistry, offersById, "offers.by-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, activeOfferPages, "offers.active-pages");
+    }
     
     @Transactional
     public OfferDto createOffer(CreateOfferRequest request) {
@@ -40,51 +96,149 @@ public class OfferService {
         offer.setAvailable(true);
         
         Offer savedOffer = offerRepository.save(offer);
+        eventPublisher.publishEvent(OfferChangedEvent.of(savedOffer));
         return offerMapper.toDto(savedOffer);
     }
     
-    @Transactional(readOnly = true)
+    // Served from cache; cache hits do not open a transaction
     public OfferDto getOfferById(Long offerId) {
-        Offer offer = offerRepository.findById(offerId)
-                .orElseThrow(() -> new IllegalArgumentException("Offer not found with id: " + offerId));
-        
-        return offerMapper.toDto(offer);
+        return offersById.get(offerId);
     }
     
-    @Transactional(readOnly = true)
     public Page<OfferDto> getActiveOffers(Pageable pageable) {
-        // Fetch offers with owner loaded (JOIN FETCH) to avoid lazy loading issues
-        Page<Offer> offers = offerRepository.findByStatusAndAvailableTrueWithOwner(Offer.OfferStatus.ACTIVE, pageable);
-        
-        // Convert to DTOs - manually build to avoid any mapper recursion issues
-        return offers.map(offer -> {
-            OfferDto dto = OfferDto.builder()
-                    .id(offer.getId())
-                    .title(offer.getTitle())
-                    .description(offer.getDescription())
-                    .hoursRate(offer.getHoursRate())
-                    .status(offer.getStatus() != null ? offer.getStatus().name() : "UNKNOWN")
-                    .available(offer.getAvailable())
-                    .createdAt(offer.getCreatedAt())
-                    .updatedAt(offer.getUpdatedAt())
-                    .build();
-            
-            // Set owner info if available
-            if (offer.getOwner() != null) {
-                dto.setOwnerId(offer.getOwner().getId());
-                dto.setOwnerName(offer.getOwner().getFirstName() + " " + offer.getOwner().getLastName());
-            } else {
-                dto.setOwnerId(null);
-                dto.setOwnerName("Unknown");
-            }
+        return activeOfferPages.get(pageable);
+    }
+    
+    /**
+     * Cursor-paginated variant of getActiveOffers. Pages seek past the (createdAt, id) of
+     * the previous page's last offer instead of skipping rows, and no total is counted, so
+     * every page costs the same.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<OfferDto> getActiveOffersFeed(String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_FEED_PAGE_SIZE));
+        // One extra row tells whether there is a next page
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        
+        List<Offer> offers;
+        if (cursor == null || cursor.isBlank()) {
+            offers = offerRepository.findActiveFeed(limit);
+        } else {
+            String[] key = CursorCodec.decode(cursor, 2);
+            offers = offerRepository.findActiveFeedAfter(CursorCodec.decodeDateTime(key[0]),
+                    CursorCodec.decodeLong(key[1]), limit);
+        }
+        
+        String nextCursor = null;
+        if (offers.size() > pageSize) {
+            offers = offers.subList(0, pageSize);
+            Offer last = offers.get(pageSize - 1);
+            nextCursor = CursorCodec.encode(last.getCreatedAt(), last.getId());
+        }
+        return CursorPage.<OfferDto>builder()
+                .items(offers.stream().map(this::toListDto).toList())
+                .nextCursor(nextCursor)
+                .build();
+    }
+    
+    private OfferDto toListDto(Offer offer) {
+        OfferDto dto = OfferDto.builder()
+                .id(offer.getId())
+                .title(offer.getTitle())
+                .description(offer.getDescription())
+                .hoursRate(offer.getHoursRate())
+                .status(offer.getStatus() != null ? offer.getStatus().name() : "UNKNOWN")
+                .available(offer.getAvailable())
+                .capacity(offer.getCapacity())
+                .seatsTaken(offer.getSeatsTaken())
+                .bookingCount(offer.getBookingCount())
+                .activeBookingCount(offer.getActiveBookingCount())
+                .createdAt(offer.getCreatedAt())
+                .updatedAt(offer.getUpdatedAt())
+                .build();
+        
+        // Set owner info if available
+        if (offer.getOwner() != null) {
+            dto.setOwnerId(offer.getOwner().getId());
+            dto.setOwnerName(offer.getOwner().getFirstName() + " " + offer.getOwner().getLastName());
+        } else {
+            dto.setOwnerId(null);
+            dto.setOwnerName("Unknown");
+        }
+        
+        return dto;
+    }
+    
+    /**
+     * Owner edits are rare next to reads and may move the offer into or out of the active
+     * listing or reorder it, so they drop every cached listing page.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOfferChanged(OfferChangedEvent event) {
+        offersById.invalidate(event.offerId());
+        activeOfferPages.invalidateAll();
+    }
+    
+    /**
+     * Booking changes only drop the listing pages showing the offer, unless they may have
+     * made it available or unavailable, which shifts every page.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOfferBookingsChanged(OfferBookingsChangedEvent event) {
+        if (event.offerId() == null) {
+            offersById.invalidateAll();
+            activeOfferPages.invalidateAll();
+            return;
+        }
+        offersById.invalidate(event.offerId());
+        if (event.availabilityMayChange()) {
+            activeOfferPages.invalidateAll();
+            return;
+        }
+        activeOfferPages.asMap().values().removeIf(page -> page.getContent().stream()
+                .anyMatch(offer -> event.offerId().equals(offer.getId())));
+    }
+    
+    private OfferDto loadOffer(Long offerId) {
+        return readOnlyTransaction.execute(status -> {
+            Offer offer = offerRepository.findById(offerId)
+                    .orElseThrow(() -> new IllegalArgumentException("Offer not found with id: " + offerId));
             
-            // Set booking count - don't load bookings collection to avoid issues
-            dto.setBookingCount(0); // We'll calculate this separately if needed
+            return offerMapper.toDto(offer);
+        });
+    }
+    
+    private Page<OfferDto> loadActiveOffers(Pageable pageable) {
+        return readOnlyTransaction.execute(status -> {
+            // Fetch offers with owner loaded (JOIN FETCH) to avoid lazy loading issues
+            Page<Offer> offers = offerRepository.findByStatusAndAvailableTrueWithOwner(Offer.OfferStatus.ACTIVE, pageable);
             
-            return dto;
+            // Convert to DTOs - manually build to avoid any mapper recursion issues
+            return offers.map(this::toListDto);
         });
     }
     
+    private Caffeine<Object, Object> cacheBuilder() {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(cacheExpireAfterMs))
+                .recordStats();
+        if (cacheRefreshAfterMs > 0) {
+            builder.refreshAfterWrite(Duration.ofMillis(cacheRefreshAfterMs));
+        }
+        return builder;
+    }
+    
+    // Read before the offers themselves, so a 304 needs no offer to be loaded
+    @Transactional(readOnly = true)
+    public ResourceVersion getOffersByOwnerVersion(Long ownerId) {
+        return offerRepository.findOwnerOffersVersion(ownerId).stream()
+                .findFirst()
+                .map(ResourceVersion::of)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+    }
+    
     @Transactional(readOnly = true)
     public Page<OfferDto> getOffersByOwner(Long ownerId, Pageable pageable) {
         User owner = userRepository.findById(ownerId)
@@ -100,6 +254,14 @@ public class OfferService {
                 .map(offerMapper::toDto);
     }
     
+    @Transactional(readOnly = true)
+    public ResourceVersion getMyOffersVersion() {
+        UserPrincipal userPrincipal = (UserPrincipal) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
+        
+        return getOffersByOwnerVersion(userPrincipal.getId());
+    }
+    
     @Transactional(readOnly = true)
     public List<OfferDto> getMyOffers() {
         UserPrincipal userPrincipal = (UserPrincipal) SecurityContextHolder.getContext()
@@ -123,6 +285,17 @@ public class OfferService {
         offer.setHoursRate(request.getHoursRate());
         
         Offer updatedOffer = offerRepository.save(offer);
+        
+        // Capacity is changed with a guarded update so it cannot drop below seats taken concurrently
+        if (!Objects.equals(request.getCapacity(), offer.getCapacity())) {
+            if (offerRepository.updateCapacity(offerId, request.getCapacity(), LocalDateTime.now()) == 0) {
+                throw new IllegalStateException("Capacity cannot be lower than the number of seats already taken");
+            }
+            updatedOffer = offerRepository.findById(offerId)
+                    .orElseThrow(() -> new IllegalArgumentException("Offer not found with id: " + offerId));
+        }
+        
+        eventPublisher.publishEvent(OfferChangedEvent.of(updatedOffer));
         return offerMapper.toDto(updatedOffer);
     }
     
@@ -136,6 +309,7 @@ public class OfferService {
         
         offer.deactivate();
         offerRepository.save(offer);
+        eventPublisher.publishEvent(OfferChangedEvent.of(offer));
     }
     
     @Transactional
@@ -148,5 +322,6 @@ public class OfferService {
         
         offer.activate();
         offerRepository.save(offer);
+        eventPublisher.publishEvent(OfferChangedEvent.of(offer));
     }
 }
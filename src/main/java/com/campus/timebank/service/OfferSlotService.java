@@ -0,0 +1,181 @@
+package com.campus.timebank.service;
+
+import com.campus.timebank.dto.CreateOfferSlotRequest;
+import com.campus.timebank.dto.OfferSlotDto;
+import com.campus.timebank.dto.TimeRangeDto;
+import com.campus.timebank.entity.Offer;
+import com.campus.timebank.entity.OfferSlot;
+import com.campus.timebank.mapper.OfferSlotMapper;
+import com.campus.timebank.repository.OfferRepository;
+import com.campus.timebank.repository.OfferSlotRepository;
+import com.campus.timebank.security.UserPrincipal;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class OfferSlotService {
+    
+    private static final Duration DEFAULT_WINDOW = Duration.ofDays(7);
+    private static final Duration MAX_WINDOW = Duration.ofDays(31);
+    
+    private final OfferSlotRepository offerSlotRepository;
+    private final OfferRepository offerRepository;
+    private final OwnerScheduleService ownerScheduleService;
+    private final OfferSlotMapper offerSlotMapper;
+    
+    @Transactional
+    public OfferSlotDto addSlot(Long offerId, CreateOfferSlotRequest request) {
+        UserPrincipal userPrincipal = (UserPrincipal) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
+        
+        Offer offer = offerRepository.findByIdAndOwnerId(offerId, userPrincipal.getId())
+                .orElseThrow(() -> new IllegalArgumentException("Offer not found or you don't have permission"));
+        
+        if (!request.getStartTime().isBefore(request.getEndTime())) {
+            throw new IllegalArgumentException("Slot must end after it starts");
+        }
+        if (!request.getEndTime().isAfter(OffsetDateTime.now())) {
+            throw new IllegalArgumentException("Slot must end in the future");
+        }
+        // The exclusion constraint on offer_slots rejects overlaps that race past this check
+        if (!offerSlotRepository.findOverlapping(offerId, request.getStartTime(), request.getEndTime()).isEmpty()) {
+            throw new IllegalStateException("Slot overlaps another slot of this offer");
+        }
+        
+        OfferSlot slot = offerSlotRepository.save(OfferSlot.builder()
+                .offer(offer)
+                .startTime(request.getStartTime())
+                .endTime(request.getEndTime())
+                .build());
+        return offerSlotMapper.toDto(slot);
+    }
+    
+    @Transactional
+    public void deleteSlot(Long offerId, Long slotId) {
+        UserPrincipal userPrincipal = (UserPrincipal) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
+        
+        offerRepository.findByIdAndOwnerId(offerId, userPrincipal.getId())
+                .orElseThrow(() -> new IllegalArgumentException("Offer not found or you don't have permission"));
+        
+        OfferSlot slot = offerSlotRepository.findByIdAndOfferId(slotId, offerId)
+                .orElseThrow(() -> new IllegalArgumentException("Slot not found"));
+        offerSlotRepository.delete(slot);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<OfferSlotDto> getSlots(Long offerId, OffsetDateTime from, OffsetDateTime to) {
+        OffsetDateTime windowStart = from != null ? from : OffsetDateTime.now();
+        OffsetDateTime windowEnd = windowEnd(windowStart, to);
+        
+        return offerSlotRepository.findOverlapping(offerId, windowStart, windowEnd).stream()
+                .map(offerSlotMapper::toDto)
+                .toList();
+    }
+    
+    /**
+     * Returns the parts of the offer's availability in [from, to) that the owner has not
+     * been booked for, ordered by start. Offers without slots are available all the time.
+     * The window defaults to the coming week. Each slot costs one interval tree lookup,
+     * so the owner's other bookings are never scanned.
+     */
+    @Transactional(readOnly = true)
+    public List<TimeRangeDto> getFreeSlots(Long offerId, OffsetDateTime from, OffsetDateTime to) {
+        Offer offer = offerRepository.findById(offerId)
+                .orElseThrow(() -> new IllegalArgumentException("Offer not found"));
+        
+        OffsetDateTime now = OffsetDateTime.now();
+        OffsetDateTime windowStart = from != null && from.isAfter(now) ? from : now;
+        OffsetDateTime windowEnd = windowEnd(windowStart, to);
+        ZoneOffset offset = from != null ? from.getOffset() : now.getOffset();
+        
+        List<long[]> windows = new ArrayList<>();
+        if (offerSlotRepository.existsByOfferId(offerId)) {
+            for (OfferSlot slot : offerSlotRepository.findOverlapping(offerId, windowStart, windowEnd)) {
+                windows.add(new long[]{
+                        Math.max(toMillis(slot.getStartTime()), toMillis(windowStart)),
+                        Math.min(toMillis(slot.getEndTime()), toMillis(windowEnd))});
+            }
+        } else {
+            windows.add(new long[]{toMillis(windowStart), toMillis(windowEnd)});
+        }
+        
+        Long ownerId = offer.getOwner().getId();
+        List<TimeRangeDto> free = new ArrayList<>();
+        for (long[] window : windows) {
+            long cursor = window[0];
+            for (IntervalTree.Interval busy : ownerScheduleService.busyBetween(ownerId,
+                    toTime(window[0], offset), toTime(window[1], offset))) {
+                if (busy.start() > cursor) {
+                    free.add(range(cursor, busy.start(), offset));
+                }
+                cursor = Math.max(cursor, busy.end());
+            }
+            if (cursor < window[1]) {
+                free.add(range(cursor, window[1], offset));
+            }
+        }
+        return free;
+    }
+    
+    /**
+     * Checks that a timed booking of the offer fits its availability and that the owner is
+     * not booked at that time. Runs against the owner's cached calendar; the exclusion
+     * constraint on bookings catches bookings made concurrently.
+     */
+    @Transactional(readOnly = true)
+    public void checkBookable(Offer offer, OffsetDateTime start, OffsetDateTime end) {
+        if (start == null || end == null) {
+            throw new IllegalArgumentException("Both start and end time are required for a timed booking");
+        }
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("Booking must end after it starts");
+        }
+        if (!start.isAfter(OffsetDateTime.now())) {
+            throw new IllegalArgumentException("Booking must start in the future");
+        }
+        if (offerSlotRepository.existsByOfferId(offer.getId())
+                && !offerSlotRepository.existsContaining(offer.getId(), start, end)) {
+            throw new IllegalStateException("Requested time is outside the offer's availability");
+        }
+        if (ownerScheduleService.isBusy(offer.getOwner().getId(), start, end)) {
+            throw new IllegalStateException("The owner is already booked at that time");
+        }
+    }
+    
+    private static OffsetDateTime windowEnd(OffsetDateTime windowStart, OffsetDateTime to) {
+        OffsetDateTime windowEnd = to != null ? to : windowStart.plus(DEFAULT_WINDOW);
+        if (!windowEnd.isAfter(windowStart)) {
+            throw new IllegalArgumentException("The end of the range must be after its start");
+        }
+        if (Duration.between(windowStart, windowEnd).compareTo(MAX_WINDOW) > 0) {
+            throw new IllegalArgumentException("The range cannot be longer than " + MAX_WINDOW.toDays() + " days");
+        }
+        return windowEnd;
+    }
+    
+    private static long toMillis(OffsetDateTime time) {
+        return time.toInstant().toEpochMilli();
+    }
+    
+    private static OffsetDateTime toTime(long millis, ZoneOffset offset) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochMilli(millis), offset);
+    }
+    
+    private static TimeRangeDto range(long start, long end, ZoneOffset offset) {
+        return TimeRangeDto.builder()
+                .startTime(toTime(start, offset))
+                .endTime(toTime(end, offset))
+                .build();
+    }
+}
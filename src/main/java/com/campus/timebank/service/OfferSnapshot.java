@@ -0,0 +1,14 @@
+package com.campus.timebank.service;
+
+/**
+ * A response body encoded once and served as is: the JSON bytes, their gzip encoding and
+ * a strong validator derived from the JSON. Listing snapshots are only valid for the
+ * listing generation they were built from.
+ */
+public record OfferSnapshot(byte[] identity, byte[] gzip, String hash, long generation) {
+    
+    // Strong ETags identify one representation, so the gzip body gets its own
+    public String etag(boolean gzipped) {
+        return "\"" + hash + (gzipped ? "-gz" : "") + "\"";
+    }
+}
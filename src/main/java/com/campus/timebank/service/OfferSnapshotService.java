@@ -0,0 +1,185 @@
+package com.campus.timebank.service;
+
+import com.campus.timebank.dto.OfferDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pre-encoded response bodies for the hottest public offer reads: the first pages of the
+ * active listing at the default page size, and the most viewed offers (Caffeine's
+ * frequency-based admission decides which). Serving one is a byte copy with no database
+ * or Jackson work. Offer changes on this node bump the listing generation, so stale
+ * pages stop being served at once, and pages are rebuilt on a background thread; they
+ * are also rebuilt periodically to pick up changes made on other nodes.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OfferSnapshotService {
+    
+    private final OfferService offerService;
+    private final ObjectMapper objectMapper;
+    
+    @Value("${app.offers.snapshot.pages:3}")
+    private int snapshotPages;
+    
+    // Only requests with this page size and no explicit sort are served from snapshots
+    @Value("${app.offers.snapshot.page-size:20}")
+    private int pageSize;
+    
+    @Value("${app.offers.snapshot.max-offers:1000}")
+    private long maxOffers;
+    
+    @Value("${app.offers.snapshot.offer-ttl-ms:60000}")
+    private long offerTtlMs;
+    
+    private final AtomicLong listingGeneration = new AtomicLong();
+    private final AtomicBoolean regenerationQueued = new AtomicBoolean();
+    private AtomicReferenceArray<OfferSnapshot> pages;
+    private Cache<Long, OfferSnapshot> offers;
+    private ExecutorService regenerationExecutor;
+    
+    @PostConstruct
+    public void init() {
+        pages = new AtomicReferenceArray<>(snapshotPages);
+        offers = Caffeine.newBuilder()
+                .maximumSize(maxOffers)
+                .expireAfterWrite(Duration.ofMillis(offerTtlMs))
+                .build();
+        regenerationExecutor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("offer-snapshot-"));
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        regenerationExecutor.shutdownNow();
+    }
+    
+    // Returns null when the page is not snapshotted or its snapshot is being rebuilt
+    public OfferSnapshot getActiveOffersPage(Pageable pageable) {
+        if (pageable.isUnpaged() || pageable.getPageNumber() >= snapshotPages
+                || pageable.getPageSize() != pageSize || pageable.getSort().isSorted()) {
+            return null;
+        }
+        OfferSnapshot snapshot = pages.get(pageable.getPageNumber());
+        return snapshot != null && snapshot.generation() == listingGeneration.get() ? snapshot : null;
+    }
+    
+    public OfferSnapshot getOffer(Long offerId) {
+        return offers.get(offerId, id -> encode(offerService.getOfferById(id), 0));
+    }
+    
+    // Runs after OfferService has dropped its cached copies, so snapshots are rebuilt from fresh data
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOfferChanged(OfferChangedEvent event) {
+        offerChanged(event.offerId());
+    }
+    
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOfferBookingsChanged(OfferBookingsChangedEvent event) {
+        offerChanged(event.offerId());
+    }
+    
+    // The first run happens at startup
+    @Scheduled(fixedDelayString = "${app.offers.snapshot.refresh-interval:30000}")
+    public void refreshPages() {
+        queuePageRegeneration();
+    }
+    
+    void regeneratePages() {
+        long generation = listingGeneration.get();
+        for (int page = 0; page < snapshotPages; page++) {
+            Page<OfferDto> offerPage = offerService.getActiveOffers(PageRequest.of(page, pageSize));
+            pages.set(page, encode(offerPage, generation));
+        }
+    }
+    
+    private void offerChanged(Long offerId) {
+        listingGeneration.incrementAndGet();
+        queuePageRegeneration();
+        
+        List<Long> offerIds = offerId != null ? List.of(offerId) : new ArrayList<>(offers.asMap().keySet());
+        for (Long id : offerIds) {
+            if (offers.asMap().remove(id) != null) {
+                // Still among the most viewed, so it is rebuilt before the next view asks for it
+                regenerationExecutor.execute(() -> regenerateOffer(id));
+            }
+        }
+    }
+    
+    private void queuePageRegeneration() {
+        if (!regenerationQueued.compareAndSet(false, true)) {
+            return;
+        }
+        regenerationExecutor.execute(() -> {
+            regenerationQueued.set(false);
+            try {
+                regeneratePages();
+            } catch (RuntimeException ex) {
+                log.warn("Could not rebuild the active offer page snapshots", ex);
+            }
+        });
+    }
+    
+    private void regenerateOffer(Long offerId) {
+        try {
+            getOffer(offerId);
+        } catch (IllegalArgumentException ex) {
+            log.debug("Offer {} is gone, not rebuilding its snapshot", offerId);
+        } catch (RuntimeException ex) {
+            log.warn("Could not rebuild the snapshot of offer {}", offerId, ex);
+        }
+    }
+    
+    private OfferSnapshot encode(Object body, long generation) {
+        try {
+            byte[] identity = objectMapper.writeValueAsBytes(body);
+            ByteArrayOutputStream gzip = new ByteArrayOutputStream(identity.length / 4 + 64);
+            try (GZIPOutputStream out = new GZIPOutputStream(gzip)) {
+                out.write(identity);
+            }
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(identity);
+            String hash = Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22);
+            return new OfferSnapshot(identity, gzip.toByteArray(), hash, generation);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize offer snapshot", ex);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
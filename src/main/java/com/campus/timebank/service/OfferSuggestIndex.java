@@ -0,0 +1,248 @@
+package com.campus.timebank.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index for type-ahead over offers. Terms live in a prefix trie whose
+ * nodes keep their children in sorted char arrays, and every term's postings are a sorted
+ * long[] of offer ids. A query matches offers containing all of its complete words plus a
+ * word starting with its last, unfinished one; completions are tried shortest first and
+ * newest offers first within a term, and the search stops once enough offers are found.
+ * Removed terms leave empty trie nodes behind until the index is rebuilt.
+ * Safe for concurrent use: readers share a lock that writers take exclusively.
+ */
+public class OfferSuggestIndex {
+    
+    private static final long[] EMPTY = new long[0];
+    
+    // Bounds the work of a short prefix that completes to many terms
+    private static final int MAX_EXPANDED_TERMS = 256;
+    
+    private final Node root = new Node();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    public void put(long offerId, String title, String description, String ownerName) {
+        Set<String> terms = new LinkedHashSet<>();
+        terms.addAll(tokenize(title));
+        terms.addAll(tokenize(description));
+        terms.addAll(tokenize(ownerName));
+        
+        lock.writeLock().lock();
+        try {
+            removeLocked(offerId);
+            for (String term : terms) {
+                Node node = root.descend(term, true);
+                node.postings = insert(node.postings != null ? node.postings : EMPTY, offerId);
+            }
+            documents.put(offerId, new Document(title, ownerName, terms.toArray(String[]::new)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(long offerId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(offerId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public List<Suggestion> suggest(String query, int limit) {
+        List<String> words = tokenize(query);
+        if (words.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        // Without trailing whitespace the last word may still be being typed
+        boolean lastIsPrefix = !Character.isWhitespace(query.charAt(query.length() - 1));
+        List<String> exact = lastIsPrefix ? words.subList(0, words.size() - 1) : words;
+        
+        lock.readLock().lock();
+        try {
+            long[] candidates = null;
+            for (String word : exact) {
+                Node node = root.descend(word, false);
+                long[] postings = node != null && node.postings != null ? node.postings : EMPTY;
+                candidates = candidates == null ? postings : intersect(candidates, postings);
+                if (candidates.length == 0) {
+                    return List.of();
+                }
+            }
+            
+            Set<Long> matches = new LinkedHashSet<>();
+            if (lastIsPrefix) {
+                Node prefixNode = root.descend(words.get(words.size() - 1), false);
+                if (prefixNode != null) {
+                    collectCompletions(prefixNode, candidates, limit, matches);
+                }
+            } else {
+                for (int i = candidates.length - 1; i >= 0 && matches.size() < limit; i--) {
+                    matches.add(candidates[i]);
+                }
+            }
+            
+            List<Suggestion> suggestions = new ArrayList<>(matches.size());
+            for (Long offerId : matches) {
+                Document document = documents.get(offerId);
+                suggestions.add(new Suggestion(offerId, document.title(), document.ownerName()));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+    
+    // Breadth-first, so shorter completions of the prefix come before longer ones
+    private void collectCompletions(Node prefixNode, long[] candidates, int limit, Set<Long> matches) {
+        ArrayDeque<Node> queue = new ArrayDeque<>();
+        queue.add(prefixNode);
+        int expanded = 0;
+        while (!queue.isEmpty() && matches.size() < limit && expanded < MAX_EXPANDED_TERMS) {
+            Node node = queue.poll();
+            if (node.postings != null && node.postings.length > 0) {
+                expanded++;
+                for (int i = node.postings.length - 1; i >= 0 && matches.size() < limit; i--) {
+                    long offerId = node.postings[i];
+                    if (candidates == null || Arrays.binarySearch(candidates, offerId) >= 0) {
+                        matches.add(offerId);
+                    }
+                }
+            }
+            queue.addAll(Arrays.asList(node.children));
+        }
+    }
+    
+    private void removeLocked(long offerId) {
+        Document document = documents.remove(offerId);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms()) {
+            Node node = root.descend(term, false);
+            if (node != null && node.postings != null) {
+                long[] postings = delete(node.postings, offerId);
+                node.postings = postings.length > 0 ? postings : null;
+            }
+        }
+    }
+    
+    private static long[] insert(long[] postings, long offerId) {
+        int index = Arrays.binarySearch(postings, offerId);
+        if (index >= 0) {
+            return postings;
+        }
+        int at = -index - 1;
+        long[] result = new long[postings.length + 1];
+        System.arraycopy(postings, 0, result, 0, at);
+        result[at] = offerId;
+        System.arraycopy(postings, at, result, at + 1, postings.length - at);
+        return result;
+    }
+    
+    private static long[] delete(long[] postings, long offerId) {
+        int index = Arrays.binarySearch(postings, offerId);
+        if (index < 0) {
+            return postings;
+        }
+        long[] result = new long[postings.length - 1];
+        System.arraycopy(postings, 0, result, 0, index);
+        System.arraycopy(postings, index + 1, result, index, postings.length - index - 1);
+        return result;
+    }
+    
+    private static long[] intersect(long[] left, long[] right) {
+        long[] result = new long[Math.min(left.length, right.length)];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[size++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+    
+    public record Suggestion(long offerId, String title, String ownerName) {
+    }
+    
+    private record Document(String title, String ownerName, String[] terms) {
+    }
+    
+    private static final class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        // Sorted offer ids of the term ending here; null if no term ends here
+        private long[] postings;
+        
+        private Node descend(String term, boolean create) {
+            Node node = this;
+            for (int i = 0; i < term.length() && node != null; i++) {
+                node = node.child(term.charAt(i), create);
+            }
+            return node;
+        }
+        
+        private Node child(char key, boolean create) {
+            int index = Arrays.binarySearch(keys, key);
+            if (index >= 0) {
+                return children[index];
+            }
+            if (!create) {
+                return null;
+            }
+            int at = -index - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            newKeys[at] = key;
+            newChildren[at] = new Node();
+            System.arraycopy(keys, at, newKeys, at + 1, keys.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            keys = newKeys;
+            children = newChildren;
+            return newChildren[at];
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.campus.timebank.service;
+
+import com.campus.timebank.dto.OfferSuggestionDto;
+import com.campus.timebank.entity.Offer;
+import com.campus.timebank.repository.OfferRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Type-ahead over offers with ACTIVE status, answered from an in-memory OfferSuggestIndex
+ * without touching the database. Offer changes made on this node are applied to the index
+ * once they commit; the index is rebuilt at startup and then periodically to pick up
+ * changes made on other nodes.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OfferSuggestService {
+    
+    private final OfferRepository offerRepository;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${app.suggest.max-results:10}")
+    private int maxResults;
+    
+    private volatile OfferSuggestIndex index = new OfferSuggestIndex();
+    private Timer suggestTimer;
+    
+    // Changes committed while a rebuild runs, replayed onto the new index before it is swapped in
+    private final Object rebuildLock = new Object();
+    private List<OfferChangedEvent> changesDuringRebuild;
+    
+    @PostConstruct
+    public void init() {
+        suggestTimer = Timer.builder("offers.suggest")
+                .description("Time to answer a type-ahead query from the in-memory index")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        meterRegistry.gauge("offers.suggest.indexed", this, service -> service.index.size());
+    }
+    
+    public List<OfferSuggestionDto> suggest(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        int size = Math.max(1, Math.min(limit, maxResults));
+        return suggestTimer.record(() -> index.suggest(query, size).stream()
+                .map(suggestion -> OfferSuggestionDto.builder()
+                        .id(suggestion.offerId())
+                        .title(suggestion.title())
+                        .ownerName(suggestion.ownerName())
+                        .build())
+                .toList());
+    }
+    
+    // The first run happens at startup
+    @Scheduled(fixedDelayString = "${app.suggest.rebuild-interval:300000}")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            changesDuringRebuild = new ArrayList<>();
+        }
+        try {
+            OfferSuggestIndex rebuilt = new OfferSuggestIndex();
+            for (Offer offer : offerRepository.findAllByStatusWithOwner(Offer.OfferStatus.ACTIVE)) {
+                apply(rebuilt, OfferChangedEvent.of(offer));
+            }
+            // The read above may have missed them; replaying one it did see is harmless
+            synchronized (rebuildLock) {
+                changesDuringRebuild.forEach(event -> apply(rebuilt, event));
+                index = rebuilt;
+            }
+            log.debug("Rebuilt the offer suggest index with {} offers", rebuilt.size());
+        } finally {
+            synchronized (rebuildLock) {
+                changesDuringRebuild = null;
+            }
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOfferChanged(OfferChangedEvent event) {
+        synchronized (rebuildLock) {
+            apply(index, event);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(event);
+            }
+        }
+    }
+
+    private void apply(OfferSuggestIndex target, OfferChangedEvent event) {
+        if (event.active()) {
+            target.put(event.offerId(), event.title(), event.description(), event.ownerName());
+        } else {
+            target.remove(event.offerId());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.campus.timebank.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Re-runs a transactional call when it loses an optimistic-locking race. Each retry
+ * starts a fresh transaction and re-reads the rows, waiting a random delay first so
+ * conflicting writers spread out. Must be called outside of any transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class OptimisticLockRetry {
+    
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${app.retry.optimistic.max-attempts:4}")
+    private int maxAttempts;
+    
+    @Value("${app.retry.optimistic.initial-backoff-ms:20}")
+    private long initialBackoffMs;
+    
+    @Value("${app.retry.optimistic.max-backoff-ms:500}")
+    private long maxBackoffMs;
+    
+    public <T> T execute(String operation, Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException | OptimisticLockException ex) {
+                counter("optimistic.lock.conflicts", operation).increment();
+                if (attempt >= maxAttempts) {
+                    counter("optimistic.lock.exhausted", operation).increment();
+                    throw ex;
+                }
+                counter("optimistic.lock.retries", operation).increment();
+                backoff(attempt);
+            }
+        }
+    }
+    
+    private void backoff(int attempt) {
+        // Full jitter: sleep anywhere up to an exponentially growing cap
+        long cap = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        long delay = ThreadLocalRandom.current().nextLong(cap + 1);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry", ex);
+        }
+    }
+    
+    private Counter counter(String name, String operation) {
+        return Counter.builder(name)
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
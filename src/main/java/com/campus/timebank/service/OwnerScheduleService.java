@@ -0,0 +1,120 @@
+package com.campus.timebank.service;
+
+import com.campus.timebank.repository.BookingRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * In-memory calendars of offer owners' timed bookings, one interval tree per owner, so
+ * conflict checks and free-slot queries do not scan all of an owner's bookings. A tree
+ * holds the owner's bookings that are not canceled and had not ended when it was loaded.
+ * Local bookings, cancellations and expiries update a cached tree on commit, and trees
+ * expire after a short TTL to pick up changes made on other nodes. The exclusion
+ * constraint on the bookings table stays the authority on overlaps: a booking the tree
+ * has missed only lets a conflicting request reach the database, where it is rejected,
+ * and a conflict the tree reports is confirmed against the database before a request is
+ * turned away, since the booking may have been canceled elsewhere. Free-slot listings
+ * are answered from the tree alone and may hide such a slot until the tree expires.
+ */
+@Service
+@RequiredArgsConstructor
+public class OwnerScheduleService {
+    
+    private final BookingRepository bookingRepository;
+    
+    @Value("${app.schedule.cache.max-owners:10000}")
+    private long maxOwners;
+    
+    @Value("${app.schedule.cache.ttl-ms:30000}")
+    private long ttlMs;
+    
+    private Cache<Long, IntervalTree> schedules;
+    
+    @PostConstruct
+    public void init() {
+        schedules = Caffeine.newBuilder()
+                .maximumSize(maxOwners)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .build();
+    }
+    
+    public boolean isBusy(Long ownerId, OffsetDateTime start, OffsetDateTime end) {
+        IntervalTree tree = schedules.get(ownerId, this::load);
+        synchronized (tree) {
+            if (!tree.overlapsAny(toMillis(start), toMillis(end))) {
+                return false;
+            }
+        }
+        if (bookingRepository.existsOverlappingSlot(ownerId, start, end)) {
+            return true;
+        }
+        // Stale: the conflicting booking was canceled without this node's tree being updated
+        schedules.invalidate(ownerId);
+        return false;
+    }
+    
+    // The owner's bookings overlapping [from, to), ordered by start, as epoch millis
+    public List<IntervalTree.Interval> busyBetween(Long ownerId, OffsetDateTime from, OffsetDateTime to) {
+        IntervalTree tree = schedules.get(ownerId, this::load);
+        synchronized (tree) {
+            return tree.overlapping(toMillis(from), toMillis(to));
+        }
+    }
+    
+    public void bookingAdded(Long ownerId, Long bookingId, OffsetDateTime start, OffsetDateTime end) {
+        afterCommit(() -> {
+            IntervalTree tree = schedules.getIfPresent(ownerId);
+            if (tree != null) {
+                synchronized (tree) {
+                    tree.insert(bookingId, toMillis(start), toMillis(end));
+                }
+            }
+        });
+    }
+    
+    public void bookingRemoved(Long ownerId, Long bookingId) {
+        afterCommit(() -> {
+            IntervalTree tree = schedules.getIfPresent(ownerId);
+            if (tree != null) {
+                synchronized (tree) {
+                    tree.remove(bookingId);
+                }
+            }
+        });
+    }
+    
+    private IntervalTree load(Long ownerId) {
+        IntervalTree tree = new IntervalTree();
+        for (Object[] row : bookingRepository.findTimedSlotsByOwnerEndingAfter(ownerId, OffsetDateTime.now())) {
+            tree.insert((Long) row[0], toMillis((OffsetDateTime) row[1]), toMillis((OffsetDateTime) row[2]));
+        }
+        return tree;
+    }
+    
+    private static long toMillis(OffsetDateTime time) {
+        return time.toInstant().toEpochMilli();
+    }
+    
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,111 @@
+package com.campus.timebank.service;
+
+import com.campus.timebank.entity.RefreshToken;
+import com.campus.timebank.entity.User;
+import com.campus.timebank.repository.RefreshTokenRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenService {
+    
+    private static final SecureRandom RANDOM = new SecureRandom();
+    
+    private final RefreshTokenRepository refreshTokenRepository;
+    
+    @Value("${app.jwt.refresh-expiration:1209600000}") // 14 days in milliseconds
+    private long refreshExpiration;
+    
+    public record Rotation(User user, String refreshToken) {
+    }
+    
+    @Transactional
+    public String issue(User user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+    
+    /**
+     * Exchanges a refresh token for a new one in the same family. Every refresh token
+     * can be used once; presenting a used one again revokes the whole family, since
+     * either the client or an attacker is holding a stolen copy.
+     */
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public Rotation rotate(String rawToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+        
+        LocalDateTime now = LocalDateTime.now();
+        if (current.getExpiresAt().isBefore(now)) {
+            throw new BadCredentialsException("Refresh token has expired");
+        }
+        
+        if (current.getRevokedAt() != null || refreshTokenRepository.markUsed(current.getId(), now) == 0) {
+            refreshTokenRepository.revokeFamily(current.getFamilyId(), now);
+            throw new BadCredentialsException("Refresh token has been revoked");
+        }
+        
+        User user = current.getUser();
+        if (!Boolean.TRUE.equals(user.getActive())) {
+            throw new BadCredentialsException("User account is deactivated");
+        }
+        
+        return new Rotation(user, issue(user, current.getFamilyId()));
+    }
+    
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId(), LocalDateTime.now()));
+    }
+    
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        refreshTokenRepository.revokeAllForUser(userId, LocalDateTime.now());
+    }
+    
+    @Scheduled(fixedDelayString = "${app.jwt.refresh-cleanup-interval:3600000}")
+    @Transactional
+    public void deleteExpired() {
+        refreshTokenRepository.deleteExpired(LocalDateTime.now());
+    }
+    
+    private String issue(User user, String familyId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        
+        // Only the hash is stored, so a database leak does not hand out usable tokens
+        refreshTokenRepository.save(RefreshToken.builder()
+                .user(user)
+                .tokenHash(hash(rawToken))
+                .familyId(familyId)
+                .expiresAt(LocalDateTime.now().plus(Duration.ofMillis(refreshExpiration)))
+                .build());
+        
+        return rawToken;
+    }
+    
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.campus.timebank.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.StringJoiner;
+
+/**
+ * Validator for a conditional GET, built from row versions, counts and update timestamps
+ * read with a lightweight query instead of from the response body. Any change to a row
+ * the response is built from changes the tag; lastModified is the newest timestamp.
+ */
+public record ResourceVersion(String tag, LocalDateTime lastModified) {
+    
+    // Timestamps go into the tag at microsecond precision and also count towards lastModified
+    public static ResourceVersion of(Object... parts) {
+        StringJoiner tag = new StringJoiner("-");
+        LocalDateTime lastModified = null;
+        for (Object part : parts) {
+            if (part instanceof LocalDateTime time) {
+                tag.add(Long.toString(toEpochMicros(time), Character.MAX_RADIX));
+                if (lastModified == null || time.isAfter(lastModified)) {
+                    lastModified = time;
+                }
+            } else {
+                tag.add(part == null ? "0" : part.toString());
+            }
+        }
+        return new ResourceVersion(tag.toString(), lastModified);
+    }
+    
+    // Weak: the tag names the data, while the same data may be sent compressed or not
+    public String etag() {
+        return "W/\"" + tag + "\"";
+    }
+    
+    // -1 when there is nothing to date, which leaves validation to the ETag alone
+    public long lastModifiedMillis() {
+        return lastModified == null ? -1 : lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    private static long toEpochMicros(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toEpochSecond() * 1_000_000 + time.getNano() / 1_000;
+    }
+}
@@ -0,0 +1,101 @@
+package com.campus.timebank.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical concurrent reads: while a call for an operation and key is in
+ * flight, further callers wait for it and get its result or exception instead of
+ * running their own query. Nothing is kept once the call returns, so this only merges
+ * bursts and never serves stale data. Callers share the result object and must not
+ * modify it. Must be called outside of any transaction, so waiting callers hold no
+ * connection and the shared result was read in a transaction of its own. Like
+ * OptimisticLockRetry it wraps calls explicitly rather than through an annotation, which
+ * would need an aspect and spring-boot-starter-aop on the classpath.
+ */
+@Component
+@RequiredArgsConstructor
+public class SingleFlight {
+    
+    private final MeterRegistry meterRegistry;
+    
+    // Callers beyond this many distinct in-flight keys run on their own
+    @Value("${app.single-flight.max-keys:10000}")
+    private int maxKeys;
+    
+    private final ConcurrentHashMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    public void init() {
+        Gauge.builder("single.flight.keys", inFlight, ConcurrentHashMap::size)
+                .description("Distinct reads currently in flight")
+                .register(meterRegistry);
+    }
+    
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, Object key, Supplier<T> action) {
+        Key flightKey = new Key(operation, key);
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.get(flightKey);
+        if (existing == null) {
+            // Checked before inserting, so concurrent misses can overshoot the bound slightly
+            if (inFlight.size() >= maxKeys) {
+                counter(operation, "bypassed").increment();
+                return action.get();
+            }
+            existing = inFlight.putIfAbsent(flightKey, call);
+        }
+        if (existing != null) {
+            counter(operation, "coalesced").increment();
+            return (T) await(existing);
+        }
+        
+        counter(operation, "executed").increment();
+        try {
+            T result = action.get();
+            call.complete(result);
+            return result;
+        } catch (RuntimeException | Error ex) {
+            call.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(flightKey, call);
+        }
+    }
+    
+    // Rethrows the leader's exception as is, so waiting callers fail the same way
+    private Object await(CompletableFuture<Object> call) {
+        try {
+            return call.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+    
+    // coalesced / (executed + coalesced + bypassed) is the share of reads that were saved
+    private Counter counter(String operation, String outcome) {
+        return Counter.builder("single.flight.calls")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+    
+    private record Key(String operation, Object key) {
+    }
+}
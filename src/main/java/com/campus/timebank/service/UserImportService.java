@@ -0,0 +1,350 @@
+package com.campus.timebank.service;
+
+import com.campus.timebank.dto.RegisterRequest;
+import com.campus.timebank.dto.UserImportResult;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk onboarding of students from a CSV or NDJSON stream. Rows are read and validated
+ * one at a time, their passwords are hashed on a dedicated pool while the rest of the
+ * chunk is still being read, and each chunk is written in its own transaction with one
+ * multi-row users insert and a JDBC batch of wallet inserts. A result line is written
+ * for every input row as soon as its chunk is done.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserImportService {
+    
+    // Existing emails are skipped instead of failing the chunk; RETURNING reports the rows actually inserted
+    private static final String INSERT_USERS_SQL =
+            "INSERT INTO users (email, password, first_name, last_name, faculty, student_id, role, active) " +
+            "SELECT t.email, t.password, t.first_name, t.last_name, t.faculty, t.student_id, 'STUDENT', true " +
+            "FROM unnest(?::varchar[], ?::varchar[], ?::varchar[], ?::varchar[], ?::varchar[], ?::varchar[]) " +
+            "AS t(email, password, first_name, last_name, faculty, student_id) " +
+            "ON CONFLICT (email) DO NOTHING " +
+            "RETURNING id, email";
+    
+    private static final String INSERT_WALLETS_SQL =
+            "INSERT INTO wallets (user_id, balance, total_earned, total_spent) VALUES (?, ?, ?, 0)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    
+    @Value("${app.security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+    
+    @Value("${app.import.hash-threads:2}")
+    private int hashThreads;
+    
+    @Value("${app.import.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${app.wallet.initial-balance:10.00}")
+    private BigDecimal initialBalance;
+    
+    private BCryptPasswordEncoder passwordEncoder;
+    private ExecutorService hashExecutor;
+    private TransactionTemplate transactionTemplate;
+    
+    public enum Format {
+        CSV, NDJSON;
+        
+        public static Format fromContentType(String contentType) {
+            if (contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("text/csv")) {
+                return CSV;
+            }
+            return NDJSON;
+        }
+    }
+    
+    @PostConstruct
+    public void init() {
+        // Same cost as regular logins; the small pool bounds how many cores an import takes
+        // on top of the login hashing pool
+        passwordEncoder = new BCryptPasswordEncoder(bcryptStrength);
+        hashExecutor = Executors.newFixedThreadPool(Math.max(1, hashThreads),
+                new CustomizableThreadFactory("user-import-hash-"));
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        hashExecutor.shutdownNow();
+    }
+    
+    public void importUsers(InputStream input, Format format, OutputStream output) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        
+        Set<String> seenEmails = new HashSet<>();
+        Map<String, Integer> columns = null;
+        List<PendingRow> chunk = new ArrayList<>(batchSize);
+        int lineNumber = 0;
+        String line;
+        
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && columns == null) {
+                columns = parseHeader(line);
+                continue;
+            }
+            
+            chunk.add(readRow(lineNumber, line, format, columns, seenEmails));
+            if (chunk.size() >= batchSize) {
+                writeChunk(chunk, writer);
+                chunk = new ArrayList<>(batchSize);
+            }
+        }
+        
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, writer);
+        }
+        writer.flush();
+    }
+    
+    private PendingRow readRow(int lineNumber, String line, Format format, Map<String, Integer> columns,
+                               Set<String> seenEmails) {
+        PendingRow row = new PendingRow(lineNumber);
+        try {
+            row.request = format == Format.CSV
+                    ? fromCsv(parseCsvLine(line), columns)
+                    : objectMapper.readValue(line, RegisterRequest.class);
+        } catch (JsonProcessingException ex) {
+            return row.reject(UserImportResult.Status.INVALID, "Malformed JSON");
+        }
+        if (row.request == null) {
+            return row.reject(UserImportResult.Status.INVALID, "Empty row");
+        }
+        
+        Set<ConstraintViolation<RegisterRequest>> violations = validator.validate(row.request);
+        if (!violations.isEmpty()) {
+            return row.reject(UserImportResult.Status.INVALID, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        
+        if (!seenEmails.add(row.request.getEmail())) {
+            return row.reject(UserImportResult.Status.DUPLICATE, "Email appears earlier in this import");
+        }
+        
+        String rawPassword = row.request.getPassword();
+        row.passwordHash = hashExecutor.submit(() -> passwordEncoder.encode(rawPassword));
+        return row;
+    }
+    
+    private void writeChunk(List<PendingRow> chunk, Writer writer) throws IOException {
+        List<PendingRow> accepted = new ArrayList<>(chunk.size());
+        for (PendingRow row : chunk) {
+            if (row.status == null) {
+                awaitHash(row);
+            }
+            if (row.status == null) {
+                accepted.add(row);
+            }
+        }
+        
+        if (!accepted.isEmpty()) {
+            try {
+                Map<String, Long> createdIds = transactionTemplate.execute(status -> insertChunk(accepted));
+                for (PendingRow row : accepted) {
+                    Long userId = createdIds.get(row.request.getEmail());
+                    if (userId != null) {
+                        row.status = UserImportResult.Status.CREATED;
+                        row.userId = userId;
+                    } else {
+                        row.reject(UserImportResult.Status.DUPLICATE, "Email already registered");
+                    }
+                }
+            } catch (DataAccessException ex) {
+                log.warn("User import chunk starting at line {} failed", accepted.get(0).lineNumber, ex);
+                accepted.forEach(row -> row.reject(UserImportResult.Status.FAILED, "Could not store user"));
+            }
+        }
+        
+        for (PendingRow row : chunk) {
+            writer.write(objectMapper.writeValueAsString(row.toResult()));
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+    
+    private Map<String, Long> insertChunk(List<PendingRow> rows) {
+        Map<String, Long> createdIds = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_USERS_SQL);
+            statement.setArray(1, column(connection, rows, row -> row.request.getEmail()));
+            statement.setArray(2, column(connection, rows, row -> row.hash));
+            statement.setArray(3, column(connection, rows, row -> row.request.getFirstName()));
+            statement.setArray(4, column(connection, rows, row -> row.request.getLastName()));
+            statement.setArray(5, column(connection, rows, row -> row.request.getFaculty()));
+            statement.setArray(6, column(connection, rows, row -> row.request.getStudentId()));
+            return statement;
+        }, resultSet -> {
+            createdIds.put(resultSet.getString("email"), resultSet.getLong("id"));
+        });
+        
+        List<Long> userIds = new ArrayList<>(createdIds.values());
+        jdbcTemplate.batchUpdate(INSERT_WALLETS_SQL, userIds, batchSize, (statement, userId) -> {
+            statement.setLong(1, userId);
+            statement.setBigDecimal(2, initialBalance);
+            statement.setBigDecimal(3, initialBalance);
+        });
+        
+        return createdIds;
+    }
+    
+    private Array column(Connection connection, List<PendingRow> rows,
+                         Function<PendingRow, String> getter) throws SQLException {
+        return connection.createArrayOf("varchar", rows.stream().map(getter).toArray());
+    }
+    
+    private void awaitHash(PendingRow row) {
+        try {
+            row.hash = row.passwordHash.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            row.reject(UserImportResult.Status.FAILED, "Import interrupted");
+        } catch (ExecutionException ex) {
+            row.reject(UserImportResult.Status.FAILED, "Could not hash password");
+        }
+    }
+    
+    private Map<String, Integer> parseHeader(String line) {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = parseCsvLine(line);
+        for (int i = 0; i < names.size(); i++) {
+            // Accept firstName, first_name and "First Name" alike
+            columns.put(names.get(i).replaceAll("[\\s_-]", "").toLowerCase(Locale.ROOT), i);
+        }
+        return columns;
+    }
+    
+    private RegisterRequest fromCsv(List<String> values, Map<String, Integer> columns) {
+        return RegisterRequest.builder()
+                .email(csvValue(values, columns, "email"))
+                .password(csvValue(values, columns, "password"))
+                .firstName(csvValue(values, columns, "firstname"))
+                .lastName(csvValue(values, columns, "lastname"))
+                .faculty(csvValue(values, columns, "faculty"))
+                .studentId(csvValue(values, columns, "studentid"))
+                .build();
+    }
+    
+    private String csvValue(List<String> values, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+    
+    // RFC 4180 fields on a single line: commas inside quotes and doubled quotes are supported
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+    
+    private static final class PendingRow {
+        private final int lineNumber;
+        private RegisterRequest request;
+        private Future<String> passwordHash;
+        private String hash;
+        private UserImportResult.Status status;
+        private Long userId;
+        private String message;
+        
+        private PendingRow(int lineNumber) {
+            this.lineNumber = lineNumber;
+        }
+        
+        private PendingRow reject(UserImportResult.Status status, String message) {
+            this.status = status;
+            this.message = message;
+            return this;
+        }
+        
+        private UserImportResult toResult() {
+            return UserImportResult.builder()
+                    .line(lineNumber)
+                    .email(request != null ? request.getEmail() : null)
+                    .status(status)
+                    .userId(userId)
+                    .message(message)
+                    .build();
+        }
+    }
+}
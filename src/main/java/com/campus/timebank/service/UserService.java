@@ -28,6 +28,18 @@ public class UserService {
         return userMapper.toDto(user);
     }
     
+    // Covers the user and their wallet; read before the user itself, so a 304 loads neither
+    @Transactional(readOnly = true)
+    public ResourceVersion getCurrentUserVersion() {
+        UserPrincipal userPrincipal = (UserPrincipal) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
+        
+        return userRepository.findVersionById(userPrincipal.getId()).stream()
+                .findFirst()
+                .map(ResourceVersion::of)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+    }
+    
     @Transactional(readOnly = true)
     public UserDto getUserById(Long id) {
         User user = userRepository.findById(id)
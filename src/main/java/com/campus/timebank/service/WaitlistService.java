@@ -0,0 +1,269 @@
+package com.campus.timebank.service;
+
+import com.campus.timebank.dto.CreateBookingRequest;
+import com.campus.timebank.dto.WaitlistEntryDto;
+import com.campus.timebank.dto.WaitlistPositionDto;
+import com.campus.timebank.entity.Booking;
+import com.campus.timebank.entity.Offer;
+import com.campus.timebank.entity.User;
+import com.campus.timebank.entity.WaitlistEntry;
+import com.campus.timebank.mapper.WaitlistEntryMapper;
+import com.campus.timebank.repository.BookingRepository;
+import com.campus.timebank.repository.OfferRepository;
+import com.campus.timebank.repository.UserRepository;
+import com.campus.timebank.repository.WaitlistEntryRepository;
+import com.campus.timebank.security.UserPrincipal;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * FIFO waitlists for full offers. The queue is the waitlist_entries table, ordered by a
+ * position taken from a database sequence, so every node sees the same queue. A seat
+ * freed by a cancellation goes to the head of the queue in the cancelling transaction.
+ * Promotions of one offer take its row lock before locking the head, so they run one at
+ * a time in queue order and lock in the same order as the seat updates.
+ * Queue positions are answered from a bounded in-memory mirror of each offer's sorted
+ * waiting positions. Local changes drop an offer's mirror on commit, and mirrors expire
+ * after a short TTL to pick up changes made on other nodes.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WaitlistService {
+    
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final OfferRepository offerRepository;
+    private final UserRepository userRepository;
+    private final BookingRepository bookingRepository;
+    private final WaitlistEntryMapper waitlistEntryMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${app.waitlist.mirror.max-offers:10000}")
+    private long mirrorMaxOffers;
+    
+    // Requesters further back than this are counted in the database
+    @Value("${app.waitlist.mirror.max-positions:5000}")
+    private int mirrorMaxPositions;
+    
+    @Value("${app.waitlist.mirror.ttl-ms:5000}")
+    private long mirrorTtlMs;
+    
+    private Cache<Long, long[]> waitingPositions;
+    private Counter promotedCounter;
+    private TransactionTemplate transactionTemplate;
+    
+    @PostConstruct
+    public void init() {
+        waitingPositions = Caffeine.newBuilder()
+                .maximumSize(mirrorMaxOffers)
+                .expireAfterWrite(Duration.ofMillis(mirrorTtlMs))
+                .build();
+        promotedCounter = Counter.builder("waitlist.promotions")
+                .description("Waitlisted requesters turned into pending bookings")
+                .register(meterRegistry);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    /**
+     * Queues the caller for the offer. The entry is promoted right away if the offer has a
+     * free seat and nobody is ahead of the caller.
+     */
+    @Transactional
+    public WaitlistEntryDto join(CreateBookingRequest request) {
+        UserPrincipal userPrincipal = (UserPrincipal) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
+        
+        // Promotion makes untimed bookings; a taken time slot is not a full offer, so there is nothing to wait for
+        if (request.getStartTime() != null || request.getEndTime() != null) {
+            throw new IllegalArgumentException("Timed bookings cannot join a waitlist, book a free slot instead");
+        }
+        // The booking made on promotion has no slot to take its length from
+        if (request.getHours() == null) {
+            throw new IllegalArgumentException("Hours are required to join a waitlist");
+        }
+        
+        User user = userRepository.findById(userPrincipal.getId())
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        
+        Offer offer = offerRepository.findById(request.getOfferId())
+                .orElseThrow(() -> new IllegalArgumentException("Offer not found"));
+        
+        if (offer.getStatus() != Offer.OfferStatus.ACTIVE) {
+            throw new IllegalStateException("Offer is not available");
+        }
+        
+        if (offer.getOwner().getId().equals(user.getId())) {
+            throw new IllegalStateException("Cannot join the waitlist of your own offer");
+        }
+        
+        if (waitlistEntryRepository.findWaiting(offer.getId(), user.getId()).isPresent()) {
+            throw new IllegalStateException("You are already on this offer's waitlist");
+        }
+        
+        // Flushed so the entry has its position and is visible to the queue lock below
+        WaitlistEntry entry;
+        try {
+            entry = waitlistEntryRepository.saveAndFlush(WaitlistEntry.builder()
+                    .offer(offer)
+                    .user(user)
+                    .hours(request.getHours())
+                    .build());
+        } catch (DataIntegrityViolationException ex) {
+            // A concurrent join by the same user got past the check above first
+            if (ConstraintViolations.isViolationOf(ex, "23505", "uq_waitlist_entries_waiting_user")) {
+                throw new IllegalStateException("You are already on this offer's waitlist");
+            }
+            throw ex;
+        }
+        promoteNext(offer.getId());
+        invalidateAfterCommit(offer.getId());
+        
+        return waitlistEntryMapper.toDto(entry);
+    }
+    
+    @Transactional
+    public void leave(Long offerId) {
+        UserPrincipal userPrincipal = (UserPrincipal) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
+        
+        if (waitlistEntryRepository.leave(offerId, userPrincipal.getId(), LocalDateTime.now()) == 0) {
+            throw new IllegalArgumentException("You are not on this offer's waitlist");
+        }
+        invalidateAfterCommit(offerId);
+    }
+    
+    /**
+     * Returns the caller's place in the offer's queue with a binary search over the
+     * mirrored positions.
+     */
+    @Transactional(readOnly = true)
+    public WaitlistPositionDto getPosition(Long offerId) {
+        UserPrincipal userPrincipal = (UserPrincipal) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
+        
+        WaitlistEntry entry = waitlistEntryRepository.findWaiting(offerId, userPrincipal.getId())
+                .orElseThrow(() -> new IllegalArgumentException("You are not on this offer's waitlist"));
+        
+        long[] positions = waitingPositions.get(offerId, this::loadWaitingPositions);
+        int index = Arrays.binarySearch(positions, entry.getPosition());
+        if (index < 0 && !isBeyondMirror(positions, entry.getPosition())) {
+            // Joined after the mirror was filled, possibly on another node
+            waitingPositions.invalidate(offerId);
+            positions = waitingPositions.get(offerId, this::loadWaitingPositions);
+            index = Arrays.binarySearch(positions, entry.getPosition());
+        }
+        
+        boolean truncated = positions.length == mirrorMaxPositions;
+        long queueLength = truncated ? waitlistEntryRepository.countWaiting(offerId) : positions.length;
+        long position = index >= 0
+                ? index + 1
+                : waitlistEntryRepository.countWaitingAhead(offerId, entry.getPosition()) + 1;
+        
+        return WaitlistPositionDto.builder()
+                .offerId(offerId)
+                .position(position)
+                .queueLength(Math.max(queueLength, position))
+                .build();
+    }
+    
+    @Transactional(readOnly = true)
+    public boolean hasWaiting(Long offerId) {
+        return waitlistEntryRepository.existsByOfferIdAndStatus(offerId, WaitlistEntry.WaitlistStatus.WAITING);
+    }
+    
+    /**
+     * Turns the head of the offer's queue into a pending booking if the offer has a free
+     * seat. Runs in the caller's transaction, so a seat freed by a cancellation is taken
+     * before other requesters can see it. Returns false when nobody was promoted.
+     */
+    @Transactional
+    public boolean promoteNext(Long offerId) {
+        // Cancellations already hold this lock from releasing the seat; joins take it here
+        offerRepository.lockById(offerId);
+        WaitlistEntry entry = waitlistEntryRepository.lockNextWaiting(offerId).orElse(null);
+        if (entry == null) {
+            return false;
+        }
+        // Full again or deactivated: the entry keeps its place at the head
+        if (offerRepository.claimSeat(offerId, LocalDateTime.now()) == 0) {
+            return false;
+        }
+        eventPublisher.publishEvent(OfferBookingsChangedEvent.seatsChanged(entry.getOffer()));
+        
+        Booking booking = bookingRepository.save(Booking.builder()
+                .offer(entry.getOffer())
+                .requester(entry.getUser())
+                .status(Booking.BookingStatus.PENDING)
+                .reservedHours(entry.getHours())
+                .build());
+        entry.setStatus(WaitlistEntry.WaitlistStatus.PROMOTED);
+        entry.setBooking(booking);
+        waitlistEntryRepository.save(entry);
+        
+        promotedCounter.increment();
+        invalidateAfterCommit(offerId);
+        return true;
+    }
+    
+    // Hands out seats freed without a cancellation, e.g. by the expiry jobs or a capacity increase
+    @Scheduled(fixedDelayString = "${app.waitlist.promotion-interval:60000}")
+    public void promoteWaiting() {
+        for (Long offerId : waitlistEntryRepository.findOfferIdsWithFreeSeatsAndWaiting()) {
+            try {
+                boolean promoted;
+                do {
+                    promoted = Boolean.TRUE.equals(transactionTemplate.execute(status -> promoteNext(offerId)));
+                } while (promoted);
+            } catch (RuntimeException ex) {
+                log.warn("Could not promote the waitlist of offer {}", offerId, ex);
+            }
+        }
+    }
+    
+    private long[] loadWaitingPositions(Long offerId) {
+        List<Long> positions = waitlistEntryRepository.findWaitingPositions(offerId,
+                PageRequest.of(0, mirrorMaxPositions));
+        return positions.stream().mapToLong(Long::longValue).toArray();
+    }
+    
+    private boolean isBeyondMirror(long[] positions, long position) {
+        return positions.length == mirrorMaxPositions && position > positions[positions.length - 1];
+    }
+    
+    private void invalidateAfterCommit(Long offerId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            waitingPositions.invalidate(offerId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                waitingPositions.invalidate(offerId);
+            }
+        });
+    }
+}
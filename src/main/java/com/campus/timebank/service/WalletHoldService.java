@@ -0,0 +1,249 @@
+package com.campus.timebank.service;
+
+import com.campus.timebank.entity.Booking;
+import com.campus.timebank.entity.Transaction;
+import com.campus.timebank.entity.WalletHold;
+import com.campus.timebank.repository.BookingRepository;
+import com.campus.timebank.repository.OfferRepository;
+import com.campus.timebank.repository.TransactionRepository;
+import com.campus.timebank.repository.WalletHoldRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Escrow holds for confirmed bookings. Confirming a booking holds its hours on the
+ * owner's wallet, completing it pays the held hours to the requester and canceling it
+ * releases them. A hold that is still open at its deadline expires: the hours are
+ * released and the booking is canceled. Deadlines are tracked in an in-memory timer
+ * wheel, filled from the table at startup and kept in step with holds placed on other
+ * nodes by a periodic sync, so expiry never scans the holds table.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WalletHoldService {
+    
+    // Re-read a window before the last sync to tolerate clock skew between nodes
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(30);
+    private static final Duration RETRY_DELAY = Duration.ofMinutes(1);
+    
+    private final WalletHoldRepository walletHoldRepository;
+    private final WalletService walletService;
+    private final BookingRepository bookingRepository;
+    private final OfferRepository offerRepository;
+    private final WaitlistService waitlistService;
+    private final OwnerScheduleService ownerScheduleService;
+    private final TransactionRepository transactionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${app.wallet.holds.ttl-hours:168}")
+    private long ttlHours;
+    
+    // Time after a timed booking's session to mark it completed before its hold expires
+    @Value("${app.wallet.holds.slot-grace-hours:48}")
+    private long slotGraceHours;
+    
+    @Value("${app.wallet.holds.tick-ms:1000}")
+    private long tickMs;
+    
+    @Value("${app.wallet.holds.wheel-size:4096}")
+    private int wheelSize;
+    
+    private HashedTimerWheel deadlines;
+    private Counter expiredCounter;
+    private TransactionTemplate transactionTemplate;
+    
+    private volatile LocalDateTime lastSync = LocalDateTime.of(1970, 1, 1, 0, 0);
+    
+    @PostConstruct
+    public void init() {
+        deadlines = new HashedTimerWheel(tickMs, wheelSize, System.currentTimeMillis());
+        expiredCounter = Counter.builder("wallet.holds.expired")
+                .description("Holds released because their booking was not completed in time")
+                .register(meterRegistry);
+        Gauge.builder("wallet.holds.scheduled", this, service -> service.deadlines.size())
+                .description("Hold deadlines tracked by this node")
+                .register(meterRegistry);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    // Holds the booking's hours on the owner's wallet; fails when the available balance is short
+    @Transactional
+    public WalletHold placeHold(Booking booking) {
+        return placeHolds(booking.getOffer().getOwner().getId(), List.of(booking)).get(0);
+    }
+    
+    /**
+     * Holds the hours of several bookings paid by the same user with one guarded wallet
+     * update for their total.
+     */
+    @Transactional
+    public List<WalletHold> placeHolds(Long payerId, List<Booking> bookings) {
+        BigDecimal total = bookings.stream().map(Booking::getReservedHours).reduce(BigDecimal.ZERO, BigDecimal::add);
+        walletService.hold(payerId, total);
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<WalletHold> holds = walletHoldRepository.saveAll(bookings.stream()
+                .map(booking -> WalletHold.builder()
+                        .user(booking.getOffer().getOwner())
+                        .booking(booking)
+                        .amount(booking.getReservedHours())
+                        .expiresAt(deadlineFor(booking, now))
+                        .build())
+                .toList());
+        
+        afterCommit(() -> holds.forEach(hold -> deadlines.schedule(hold.getId(), toEpochMilli(hold.getExpiresAt()))));
+        return holds;
+    }
+    
+    // A timed booking cannot be completed before its session, so its hold lasts at least until then
+    private LocalDateTime deadlineFor(Booking booking, LocalDateTime now) {
+        LocalDateTime deadline = now.plusHours(ttlHours);
+        if (booking.getEndTime() == null) {
+            return deadline;
+        }
+        LocalDateTime sessionDeadline = booking.getEndTime()
+                .atZoneSameInstant(ZoneId.systemDefault())
+                .toLocalDateTime()
+                .plusHours(slotGraceHours);
+        return sessionDeadline.isAfter(deadline) ? sessionDeadline : deadline;
+    }
+    
+    /**
+     * Pays the booking's held hours to the requester. Returns false for bookings confirmed
+     * before holds existed, whose hours moved at confirmation.
+     */
+    @Transactional
+    public boolean commitHold(Booking booking) {
+        WalletHold hold = walletHoldRepository.findActiveByBookingId(booking.getId()).orElse(null);
+        if (hold == null) {
+            return false;
+        }
+        resolve(hold, WalletHold.HoldStatus.COMMITTED);
+        walletService.settleHold(hold.getUser().getId(), booking.getRequester().getId(), hold.getAmount());
+        return true;
+    }
+    
+    // Returns the booking's held hours to the owner; false if the booking had no open hold
+    @Transactional
+    public boolean releaseHold(Booking booking) {
+        WalletHold hold = walletHoldRepository.findActiveByBookingId(booking.getId()).orElse(null);
+        if (hold == null) {
+            return false;
+        }
+        resolve(hold, WalletHold.HoldStatus.RELEASED);
+        walletService.releaseHold(hold.getUser().getId(), hold.getAmount());
+        return true;
+    }
+    
+    @Scheduled(fixedRateString = "${app.wallet.holds.tick-ms:1000}")
+    public void expireDueHolds() {
+        for (Long holdId : deadlines.advance(System.currentTimeMillis())) {
+            try {
+                LocalDateTime pending = transactionTemplate.execute(status -> expire(holdId));
+                if (pending != null) {
+                    deadlines.schedule(holdId, toEpochMilli(pending));
+                }
+            } catch (RuntimeException ex) {
+                log.warn("Could not expire wallet hold {}, retrying later", holdId, ex);
+                deadlines.schedule(holdId, System.currentTimeMillis() + RETRY_DELAY.toMillis());
+            }
+        }
+    }
+    
+    // The first run loads every active hold, which rebuilds the wheel after a restart
+    @Scheduled(fixedDelayString = "${app.wallet.holds.sync-interval:30000}")
+    public void sync() {
+        LocalDateTime syncStartedAt = LocalDateTime.now();
+        for (Object[] row : walletHoldRepository.findActiveDeadlinesUpdatedSince(lastSync.minus(SYNC_OVERLAP))) {
+            deadlines.schedule((Long) row[0], toEpochMilli((LocalDateTime) row[1]));
+        }
+        lastSync = syncStartedAt;
+    }
+    
+    /**
+     * Expires the hold if it is still open and due. Returns its deadline when it is not
+     * due yet, so the caller can schedule it again, and null otherwise.
+     */
+    private LocalDateTime expire(Long holdId) {
+        WalletHold hold = walletHoldRepository.findByIdWithBooking(holdId).orElse(null);
+        if (hold == null || hold.getStatus() != WalletHold.HoldStatus.ACTIVE) {
+            return null;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (hold.getExpiresAt().isAfter(now)) {
+            return hold.getExpiresAt();
+        }
+        // The booking moves before the hold, in the same order as completion and cancellation
+        Long payerId = hold.getUser().getId();
+        if (bookingRepository.cancelAsParticipant(hold.getBooking().getId(), payerId, Booking.BookingStatus.CONFIRMED,
+                "Expired: not completed by " + hold.getExpiresAt(), now) == 0) {
+            // Completed or canceled meanwhile; that transition settles the hold
+            return null;
+        }
+        if (walletHoldRepository.expireIfDue(holdId, now) == 0) {
+            throw new IllegalStateException("Wallet hold " + holdId + " was settled concurrently");
+        }
+        if (hold.getBooking().getSlotOwnerId() != null) {
+            ownerScheduleService.bookingRemoved(hold.getBooking().getSlotOwnerId(), hold.getBooking().getId());
+        }
+        offerRepository.releaseSeat(hold.getBooking().getOffer().getId(), now);
+        eventPublisher.publishEvent(OfferBookingsChangedEvent.seatsChanged(hold.getBooking().getOffer()));
+        waitlistService.promoteNext(hold.getBooking().getOffer().getId());
+        walletService.releaseHold(payerId, hold.getAmount());
+        transactionRepository.save(Transaction.builder()
+                .user(hold.getUser())
+                .type(Transaction.TransactionType.RELEASE)
+                .amount(hold.getAmount())
+                .booking(hold.getBooking())
+                .description("Released hours from expired booking: " + hold.getBooking().getOffer().getTitle())
+                .build());
+        expiredCounter.increment();
+        return null;
+    }
+    
+    private void resolve(WalletHold hold, WalletHold.HoldStatus status) {
+        if (walletHoldRepository.resolve(hold.getId(), status, LocalDateTime.now()) == 0) {
+            throw new IllegalStateException("The booking's held hours were already settled");
+        }
+        afterCommit(() -> deadlines.cancel(hold.getId()));
+    }
+    
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+    
+    private static long toEpochMilli(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -8,12 +8,17 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
 @Service
 @RequiredArgsConstructor
 public class WalletService {
     
     private final WalletRepository walletRepository;
     private final WalletMapper walletMapper;
+    private final WalletShardManager walletShardManager;
     
     @Transactional(readOnly = true)
     public WalletDto getWalletByUserId(Long userId) {
@@ -22,4 +27,102 @@ public class WalletService {
         
         return walletMapper.toDto(wallet);
     }
+    
+    @Transactional(readOnly = true)
+    public BigDecimal getAvailableBalance(Long userId) {
+        return walletRepository.findByUserId(userId)
+                .map(Wallet::availableBalance)
+                .orElseThrow(() -> new IllegalArgumentException("Wallet not found for user: " + userId));
+    }
+    
+    // Reserves hours on the wallet without moving them; fails when the available balance is short
+    @Transactional
+    public void hold(Long userId, BigDecimal amount) {
+        requirePositive(amount);
+        WalletShardManager.ShardRoute route = updateRowUnlessSharded(userId,
+                () -> walletRepository.holdIfAvailable(userId, amount),
+                () -> new IllegalStateException("Insufficient balance"));
+        if (route != null && !walletShardManager.hold(route, amount)) {
+            throw new IllegalStateException("Insufficient balance");
+        }
+    }
+    
+    @Transactional
+    public void releaseHold(Long userId, BigDecimal amount) {
+        requirePositive(amount);
+        WalletShardManager.ShardRoute route = updateRowUnlessSharded(userId,
+                () -> walletRepository.releaseHeld(userId, amount),
+                () -> new IllegalStateException("No held hours to release"));
+        if (route != null && !walletShardManager.releaseHold(route, amount)) {
+            throw new IllegalStateException("No held hours to release");
+        }
+    }
+    
+    /**
+     * Pays held hours out: they leave the payer's held amount and balance and are credited
+     * to the payee. Rows are always updated in ascending user id order, which keeps
+     * concurrent settlements from deadlocking.
+     */
+    @Transactional
+    public void settleHold(Long fromUserId, Long toUserId, BigDecimal amount) {
+        requirePositive(amount);
+        
+        if (fromUserId < toUserId) {
+            spendHeld(fromUserId, amount);
+            credit(toUserId, amount);
+        } else {
+            // A failed spend rolls the credit back with the transaction
+            credit(toUserId, amount);
+            spendHeld(fromUserId, amount);
+        }
+    }
+    
+    private void requirePositive(BigDecimal amount) {
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+    }
+    
+    private void spendHeld(Long userId, BigDecimal amount) {
+        WalletShardManager.ShardRoute route = updateRowUnlessSharded(userId,
+                () -> walletRepository.spendHeld(userId, amount),
+                () -> new IllegalStateException("No held hours to settle"));
+        if (route != null && !walletShardManager.spendHeld(route, amount)) {
+            throw new IllegalStateException("No held hours to settle");
+        }
+    }
+        
+    private void credit(Long userId, BigDecimal amount) {
+        WalletShardManager.ShardRoute route = updateRowUnlessSharded(userId,
+                () -> walletRepository.credit(userId, amount),
+                () -> new IllegalArgumentException("Wallet not found for user: " + userId));
+        if (route != null) {
+            walletShardManager.credit(route, amount);
+        }
+    }
+
+    /**
+     * Applies the guarded row update to an unsharded wallet and returns null, timing it so
+     * contended wallets get sharded. Returns the shard route instead when the wallet is
+     * sharded, which may only show up as a missed row update when another node sharded it.
+     */
+    private WalletShardManager.ShardRoute updateRowUnlessSharded(Long userId, IntSupplier rowUpdate,
+                                                                 Supplier<RuntimeException> failure) {
+        WalletShardManager.ShardRoute route = walletShardManager.routeFor(userId);
+        if (route != null) {
+            return route;
+        }
+        long start = System.nanoTime();
+        int updated = rowUpdate.getAsInt();
+        walletShardManager.recordUpdate(userId, System.nanoTime() - start);
+        if (updated == 1) {
+            return null;
+        }
+        // Either the guard failed or another node has sharded the wallet meanwhile
+        route = walletShardManager.refreshRoute(userId);
+        if (route == null) {
+            throw failure.get();
+        }
+        return route;
+    }
 }
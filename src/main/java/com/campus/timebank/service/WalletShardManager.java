@@ -0,0 +1,258 @@
+package com.campus.timebank.service;
+
+import com.campus.timebank.entity.Wallet;
+import com.campus.timebank.entity.WalletShard;
+import com.campus.timebank.repository.WalletRepository;
+import com.campus.timebank.repository.WalletShardRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Sharded balances for hot wallets. Once a wallet sees too many slow (lock-waiting)
+ * updates within an evaluation window, its balance and held hours are split across
+ * several wallet_shards rows: credits go to a random shard, while holds, releases and
+ * spends try shards one at a time with a guarded update and only lock all of them when
+ * no single shard can cover the amount. The wallet row is then no longer written on
+ * those paths. The user id to shard route table is kept in memory.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WalletShardManager {
+    
+    private final WalletRepository walletRepository;
+    private final WalletShardRepository walletShardRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${app.wallet.sharding.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.wallet.sharding.shard-count:8}")
+    private int shardCount;
+    
+    @Value("${app.wallet.sharding.slow-update-ms:50}")
+    private long slowUpdateMs;
+    
+    @Value("${app.wallet.sharding.promotion-threshold:20}")
+    private int promotionThreshold;
+    
+    private final Map<Long, ShardRoute> routes = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> slowUpdates = new ConcurrentHashMap<>();
+    
+    private Counter contendedCounter;
+    private Counter promotionCounter;
+    private TransactionTemplate transactionTemplate;
+    
+    public record ShardRoute(Long walletId, int shardCount) {
+    }
+    
+    @PostConstruct
+    public void init() {
+        contendedCounter = Counter.builder("wallet.update.contended")
+                .description("Wallet row updates slower than the contention threshold")
+                .register(meterRegistry);
+        promotionCounter = Counter.builder("wallet.shard.promotions")
+                .description("Wallets switched to sharded balances")
+                .register(meterRegistry);
+        Gauge.builder("wallet.shard.wallets", routes, Map::size)
+                .description("Wallets currently using sharded balances")
+                .register(meterRegistry);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    public ShardRoute routeFor(Long userId) {
+        return routes.get(userId);
+    }
+    
+    // Used when a row update missed because the wallet was sharded by another node
+    public ShardRoute refreshRoute(Long userId) {
+        List<Object[]> rows = walletRepository.findShardRouteByUserId(userId);
+        if (rows.isEmpty() || (Integer) rows.get(0)[1] == 0) {
+            return null;
+        }
+        ShardRoute route = new ShardRoute((Long) rows.get(0)[0], (Integer) rows.get(0)[1]);
+        routes.put(userId, route);
+        return route;
+    }
+    
+    public void recordUpdate(Long userId, long elapsedNanos) {
+        if (!enabled || elapsedNanos < TimeUnit.MILLISECONDS.toNanos(slowUpdateMs)) {
+            return;
+        }
+        contendedCounter.increment();
+        slowUpdates.computeIfAbsent(userId, id -> new LongAdder()).increment();
+    }
+    
+    public void credit(ShardRoute route, BigDecimal amount) {
+        int shardNo = ThreadLocalRandom.current().nextInt(route.shardCount());
+        walletShardRepository.credit(route.walletId(), shardNo, amount);
+    }
+    
+    public boolean hold(ShardRoute route, BigDecimal amount) {
+        if (tryEachShard(route, shardNo -> walletShardRepository.holdIfAvailable(route.walletId(), shardNo, amount))) {
+            return true;
+        }
+        // No single shard has enough unheld balance: lock all of them and spread the hold
+        return drain(walletShardRepository.findAllForUpdate(route.walletId()), amount,
+                shard -> shard.getBalance().subtract(shard.getHeld()),
+                (shard, taken) -> shard.setHeld(shard.getHeld().add(taken)));
+    }
+        
+    public boolean releaseHold(ShardRoute route, BigDecimal amount) {
+        if (tryEachShard(route, shardNo -> walletShardRepository.releaseHeld(route.walletId(), shardNo, amount))) {
+            return true;
+        }
+        return drain(walletShardRepository.findAllForUpdate(route.walletId()), amount, WalletShard::getHeld,
+                (shard, taken) -> shard.setHeld(shard.getHeld().subtract(taken)));
+    }
+    
+    public boolean spendHeld(ShardRoute route, BigDecimal amount) {
+        if (tryEachShard(route, shardNo -> walletShardRepository.spendHeld(route.walletId(), shardNo, amount))) {
+            return true;
+        }
+        
+        // A hold spread over several shards, or held hours on a shard whose balance went elsewhere
+        List<WalletShard> shards = walletShardRepository.findAllForUpdate(route.walletId());
+        BigDecimal balance = shards.stream().map(WalletShard::getBalance).reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (balance.compareTo(amount) < 0) {
+            return false;
+        }
+        if (!drain(shards, amount, WalletShard::getHeld,
+                (shard, taken) -> shard.setHeld(shard.getHeld().subtract(taken)))) {
+            return false;
+        }
+        return drain(shards, amount, WalletShard::getBalance, (shard, taken) -> {
+            shard.setBalance(shard.getBalance().subtract(taken));
+            shard.setTotalSpent(shard.getTotalSpent().add(taken));
+        });
+    }
+    
+    @Scheduled(fixedDelayString = "${app.wallet.sharding.evaluation-interval:60000}")
+    public void promoteContendedWallets() {
+        for (Long userId : List.copyOf(slowUpdates.keySet())) {
+            LongAdder count = slowUpdates.remove(userId);
+            if (count == null || count.sum() < promotionThreshold || routes.containsKey(userId)) {
+                continue;
+            }
+            try {
+                ShardRoute route = transactionTemplate.execute(status -> promote(userId));
+                if (route != null) {
+                    routes.put(userId, route);
+                }
+            } catch (DataAccessException ex) {
+                log.warn("Could not shard wallet of user {}", userId, ex);
+            }
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${app.wallet.sharding.route-sync-interval:30000}")
+    public void syncRoutes() {
+        for (Object[] row : walletRepository.findShardRoutes()) {
+            routes.put((Long) row[0], new ShardRoute((Long) row[1], (Integer) row[2]));
+        }
+    }
+    
+    private ShardRoute promote(Long userId) {
+        // The row lock waits out in-flight updates, so the balance cannot change while it is split
+        Wallet wallet = walletRepository.findByUserIdForUpdate(userId).orElse(null);
+        if (wallet == null) {
+            return null;
+        }
+        if (wallet.isSharded()) {
+            return new ShardRoute(wallet.getId(), wallet.getShardCount());
+        }
+        
+        walletShardRepository.saveAll(split(wallet));
+        wallet.setBalance(BigDecimal.ZERO);
+        wallet.setTotalEarned(BigDecimal.ZERO);
+        wallet.setTotalSpent(BigDecimal.ZERO);
+        wallet.setHeld(BigDecimal.ZERO);
+        wallet.setShardCount(shardCount);
+        walletRepository.save(wallet);
+        
+        promotionCounter.increment();
+        return new ShardRoute(wallet.getId(), shardCount);
+    }
+    
+    // Tries one guarded shard update at a time, starting at a random shard to spread the locks
+    private boolean tryEachShard(ShardRoute route, IntUnaryOperator update) {
+        int start = ThreadLocalRandom.current().nextInt(route.shardCount());
+        for (int i = 0; i < route.shardCount(); i++) {
+            if (update.applyAsInt((start + i) % route.shardCount()) == 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    // Takes the amount from the locked shards in order; changes nothing when together they cannot cover it
+    private static boolean drain(List<WalletShard> shards, BigDecimal amount,
+                                 Function<WalletShard, BigDecimal> capacity,
+                                 BiConsumer<WalletShard, BigDecimal> take) {
+        BigDecimal available = shards.stream()
+                .map(capacity)
+                .filter(value -> value.signum() > 0)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (available.compareTo(amount) < 0) {
+            return false;
+        }
+        
+        BigDecimal remaining = amount;
+        for (WalletShard shard : shards) {
+            BigDecimal taken = capacity.apply(shard).min(remaining);
+            if (taken.signum() > 0) {
+                take.accept(shard, taken);
+                remaining = remaining.subtract(taken);
+            }
+            if (remaining.signum() == 0) {
+                break;
+            }
+        }
+        return true;
+    }
+    
+    private List<WalletShard> split(Wallet wallet) {
+        // The available balance is spread; held hours stay on shard 0 together with the balance they reserve
+        BigDecimal available = wallet.getBalance().subtract(wallet.getHeld());
+        BigDecimal perShard = available.divide(BigDecimal.valueOf(shardCount), 2, RoundingMode.DOWN);
+        BigDecimal first = wallet.getBalance().subtract(perShard.multiply(BigDecimal.valueOf(shardCount - 1)));
+        
+        // Totals only ever grow and are summed on read, so they move to shard 0 unchanged
+        List<WalletShard> shards = new ArrayList<>(shardCount);
+        for (int shardNo = 0; shardNo < shardCount; shardNo++) {
+            shards.add(WalletShard.builder()
+                    .walletId(wallet.getId())
+                    .shardNo(shardNo)
+                    .balance(shardNo == 0 ? first : perShard)
+                    .totalEarned(shardNo == 0 ? wallet.getTotalEarned() : BigDecimal.ZERO)
+                    .totalSpent(shardNo == 0 ? wallet.getTotalSpent() : BigDecimal.ZERO)
+                    .held(shardNo == 0 ? wallet.getHeld() : BigDecimal.ZERO)
+                    .build());
+        }
+        return shards;
+    }
+}
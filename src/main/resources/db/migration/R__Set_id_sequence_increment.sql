@@ -0,0 +1,13 @@
+-- Entity ids come from these sequences through Hibernate's pooled optimizer: one nextval
+-- hands out a block of ${id_allocation_size} ids, so inserts no longer need RETURNING and can be batched.
+-- Hibernate adopts this increment at startup (increment_size_mismatch_strategy: FIX), and this
+-- migration re-runs whenever spring.flyway.placeholders.id_allocation_size changes.
+ALTER SEQUENCE users_id_seq INCREMENT BY ${id_allocation_size};
+ALTER SEQUENCE wallets_id_seq INCREMENT BY ${id_allocation_size};
+ALTER SEQUENCE offers_id_seq INCREMENT BY ${id_allocation_size};
+ALTER SEQUENCE bookings_id_seq INCREMENT BY ${id_allocation_size};
+ALTER SEQUENCE transactions_id_seq INCREMENT BY ${id_allocation_size};
+ALTER SEQUENCE refresh_tokens_id_seq INCREMENT BY ${id_allocation_size};
+ALTER SEQUENCE wallet_holds_id_seq INCREMENT BY ${id_allocation_size};
+ALTER SEQUENCE waitlist_entries_id_seq INCREMENT BY ${id_allocation_size};
+ALTER SEQUENCE offer_slots_id_seq INCREMENT BY ${id_allocation_size};
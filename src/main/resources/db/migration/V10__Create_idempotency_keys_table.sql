@@ -0,0 +1,14 @@
+-- Responses of mutating requests sent with an Idempotency-Key header, replayed when the key is reused.
+-- The id is the user id and the client key; rows are kept until expires_at and then cleaned up
+CREATE TABLE idempotency_keys (
+    id VARCHAR(300) PRIMARY KEY,
+    fingerprint VARCHAR(600) NOT NULL,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('IN_PROGRESS', 'COMPLETED')),
+    response_status INT,
+    content_type VARCHAR(255),
+    response_body TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys(expires_at);
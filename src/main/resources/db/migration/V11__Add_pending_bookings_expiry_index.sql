@@ -0,0 +1,2 @@
+-- Lets the expiry job find the oldest pending bookings without scanning the other statuses
+CREATE INDEX idx_bookings_pending_created_at ON bookings(created_at) WHERE status = 'PENDING';
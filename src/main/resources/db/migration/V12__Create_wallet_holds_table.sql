@@ -0,0 +1,24 @@
+-- Hours reserved for confirmed bookings stay in the payer's balance but count as held until the
+-- booking completes (the hold is committed) or is canceled or times out (the hold is released).
+-- Available balance = balance - held.
+ALTER TABLE wallets ADD COLUMN held NUMERIC(10, 2) NOT NULL DEFAULT 0.00;
+
+CREATE TABLE wallet_holds (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    booking_id BIGINT NOT NULL,
+    amount NUMERIC(10, 2) NOT NULL CHECK (amount > 0),
+    status VARCHAR(20) NOT NULL CHECK (status IN ('ACTIVE', 'COMMITTED', 'RELEASED', 'EXPIRED')),
+    expires_at TIMESTAMP NOT NULL,
+    resolved_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_wallet_hold_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT fk_wallet_hold_booking FOREIGN KEY (booking_id) REFERENCES bookings(id) ON DELETE CASCADE
+);
+
+-- A booking has at most one hold that is still open
+CREATE UNIQUE INDEX uq_wallet_holds_active_booking ON wallet_holds(booking_id) WHERE status = 'ACTIVE';
+CREATE INDEX idx_wallet_holds_booking_id ON wallet_holds(booking_id);
+-- Deadline sync reads active holds created since its last run
+CREATE INDEX idx_wallet_holds_active_updated_at ON wallet_holds(updated_at) WHERE status = 'ACTIVE';
@@ -0,0 +1,12 @@
+-- Optional seat limit per offer. seats_taken counts the offer's bookings that are not canceled
+-- and is kept in step by guarded single-row updates; a NULL capacity means unlimited.
+ALTER TABLE offers ADD COLUMN capacity INTEGER;
+ALTER TABLE offers ADD COLUMN seats_taken INTEGER NOT NULL DEFAULT 0;
+
+UPDATE offers o SET seats_taken = (
+    SELECT count(*) FROM bookings b WHERE b.offer_id = o.id AND b.status <> 'CANCELED'
+);
+
+ALTER TABLE offers ADD CONSTRAINT chk_offers_capacity CHECK (capacity IS NULL OR capacity > 0);
+ALTER TABLE offers ADD CONSTRAINT chk_offers_seats_taken
+    CHECK (seats_taken >= 0 AND (capacity IS NULL OR seats_taken <= capacity));
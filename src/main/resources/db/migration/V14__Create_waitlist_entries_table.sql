@@ -0,0 +1,23 @@
+-- Requesters queued for full offers. Queue order is the position column, taken from its own
+-- sequence at insert time: entity ids are handed out in per-node blocks and are not in join order.
+CREATE SEQUENCE waitlist_position_seq;
+
+CREATE TABLE waitlist_entries (
+    id BIGSERIAL PRIMARY KEY,
+    offer_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    hours NUMERIC(10, 2) NOT NULL CHECK (hours > 0),
+    position BIGINT NOT NULL DEFAULT nextval('waitlist_position_seq'),
+    status VARCHAR(20) NOT NULL CHECK (status IN ('WAITING', 'PROMOTED', 'LEFT')),
+    booking_id BIGINT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_waitlist_offer FOREIGN KEY (offer_id) REFERENCES offers(id) ON DELETE CASCADE,
+    CONSTRAINT fk_waitlist_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT fk_waitlist_booking FOREIGN KEY (booking_id) REFERENCES bookings(id) ON DELETE SET NULL
+);
+
+-- A user waits at most once per offer
+CREATE UNIQUE INDEX uq_waitlist_entries_waiting_user ON waitlist_entries(offer_id, user_id) WHERE status = 'WAITING';
+-- Head of the queue, positions ahead of a user and the promotion sweep
+CREATE INDEX idx_waitlist_entries_waiting_position ON waitlist_entries(offer_id, position) WHERE status = 'WAITING';
@@ -0,0 +1,38 @@
+-- Timed bookings and offer availability. Overlaps are rejected by exclusion constraints on
+-- time ranges; btree_gist lets a constraint pair the range with a plain equality column.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE bookings ADD COLUMN start_time TIMESTAMPTZ;
+ALTER TABLE bookings ADD COLUMN end_time TIMESTAMPTZ;
+-- Copy of the offer owner's id, so the overlap constraint can be declared on bookings alone
+ALTER TABLE bookings ADD COLUMN slot_owner_id BIGINT;
+
+ALTER TABLE bookings ADD CONSTRAINT chk_bookings_slot CHECK (
+    (start_time IS NULL AND end_time IS NULL AND slot_owner_id IS NULL)
+    OR (start_time < end_time AND slot_owner_id IS NOT NULL)
+);
+
+-- An owner cannot be booked twice at the same time; canceling a booking frees its slot
+ALTER TABLE bookings ADD CONSTRAINT excl_bookings_owner_slot EXCLUDE USING gist (
+    slot_owner_id WITH =,
+    tstzrange(start_time, end_time, '[)') WITH &&
+) WHERE (slot_owner_id IS NOT NULL AND status <> 'CANCELED');
+
+-- Loads an owner's upcoming timed bookings into the in-memory schedule
+CREATE INDEX idx_bookings_slot_owner_end_time ON bookings(slot_owner_id, end_time) WHERE slot_owner_id IS NOT NULL;
+
+CREATE TABLE offer_slots (
+    id BIGSERIAL PRIMARY KEY,
+    offer_id BIGINT NOT NULL,
+    start_time TIMESTAMPTZ NOT NULL,
+    end_time TIMESTAMPTZ NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT chk_offer_slots_range CHECK (start_time < end_time),
+    CONSTRAINT fk_offer_slot_offer FOREIGN KEY (offer_id) REFERENCES offers(id) ON DELETE CASCADE,
+    CONSTRAINT excl_offer_slots_overlap EXCLUDE USING gist (
+        offer_id WITH =,
+        tstzrange(start_time, end_time, '[)') WITH &&
+    )
+);
+
+CREATE INDEX idx_offer_slots_offer_start_time ON offer_slots(offer_id, start_time);
@@ -0,0 +1,10 @@
+-- Full-text search over offers. The vector is generated by the database, so it can never
+-- drift from the title and description; titles weigh more than descriptions in the ranking.
+ALTER TABLE offers ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('english', coalesce(description, '')), 'B')
+) STORED;
+
+-- Matches are found through the index, so search cost follows the number of matching
+-- offers rather than the size of the table
+CREATE INDEX idx_offers_search_vector ON offers USING gin (search_vector);
@@ -0,0 +1,3 @@
+-- Serves the keyset-paginated active offers feed: each page is one index range scan that
+-- seeks past the (created_at, id) of the previous page, with no rows skipped or counted
+CREATE INDEX idx_offers_active_feed ON offers(created_at DESC, id DESC) WHERE status = 'ACTIVE' AND available = true;
@@ -0,0 +1,14 @@
+-- Booking counts kept on the offer so listing offers never loads their bookings.
+-- booking_count counts every booking made; active_booking_count counts those still pending
+-- or confirmed. Both change in the same guarded updates that take and free seats.
+ALTER TABLE offers ADD COLUMN booking_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE offers ADD COLUMN active_booking_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE offers o SET
+    booking_count = (SELECT count(*) FROM bookings b WHERE b.offer_id = o.id),
+    active_booking_count = (
+        SELECT count(*) FROM bookings b WHERE b.offer_id = o.id AND b.status IN ('PENDING', 'CONFIRMED')
+    );
+
+ALTER TABLE offers ADD CONSTRAINT chk_offers_booking_counts
+    CHECK (active_booking_count >= 0 AND booking_count >= active_booking_count);
@@ -0,0 +1,9 @@
+-- Sharded wallets keep their held hours on the shards, so holds do not lock the wallet row
+ALTER TABLE wallet_shards ADD COLUMN held NUMERIC(10, 2) NOT NULL DEFAULT 0.00;
+
+-- Wallets sharded before this kept them on the row; they move to shard 0
+UPDATE wallet_shards s SET held = w.held
+FROM wallets w
+WHERE s.wallet_id = w.id AND s.shard_no = 0 AND w.shard_count > 0;
+
+UPDATE wallets SET held = 0.00 WHERE shard_count > 0;
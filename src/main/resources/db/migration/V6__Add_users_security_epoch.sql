@@ -0,0 +1,5 @@
+-- Bumped whenever a user's access must be re-evaluated (deactivation, role change).
+-- Tokens carry the epoch they were issued under and are rejected once it is stale.
+ALTER TABLE users ADD COLUMN security_epoch BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX idx_users_security_epoch_updated ON users(updated_at) WHERE security_epoch > 0;
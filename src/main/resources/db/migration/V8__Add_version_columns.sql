@@ -0,0 +1,4 @@
+-- Optimistic locking: every ORM update checks and bumps the version it read
+ALTER TABLE bookings ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE wallets ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE offers ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,15 @@
+-- Hot wallets can be split into shards: the wallet row then keeps zero balances and the
+-- real balance and totals are the sums over its shards. shard_count = 0 means unsharded.
+ALTER TABLE wallets ADD COLUMN shard_count INT NOT NULL DEFAULT 0;
+
+CREATE TABLE wallet_shards (
+    wallet_id BIGINT NOT NULL,
+    shard_no INT NOT NULL,
+    balance NUMERIC(10, 2) NOT NULL DEFAULT 0.00,
+    total_earned NUMERIC(10, 2) NOT NULL DEFAULT 0.00,
+    total_spent NUMERIC(10, 2) NOT NULL DEFAULT 0.00,
+    PRIMARY KEY (wallet_id, shard_no),
+    CONSTRAINT fk_wallet_shard_wallet FOREIGN KEY (wallet_id) REFERENCES wallets(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_wallets_sharded ON wallets(user_id) WHERE shard_count > 0;
@@ -0,0 +1,268 @@
+package com.campus.timebank.config;
+
+import com.campus.timebank.entity.IdempotencyKey;
+import com.campus.timebank.security.UserPrincipal;
+import com.campus.timebank.service.IdempotencyKeyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyFilterTest {
+    
+    private static final String KEY_ID = "1:retry-123";
+    private static final String FINGERPRINT =
+            IdempotencyFilter.fingerprint("PUT", "/api/bookings/7/confirm", null, new byte[0]);
+    
+    @Mock
+    private IdempotencyKeyService idempotencyKeyService;
+    
+    @Mock
+    private FilterChain filterChain;
+    
+    private IdempotencyFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    
+    @BeforeEach
+    void setUp() {
+        filter = new IdempotencyFilter(idempotencyKeyService, new ObjectMapper());
+        ReflectionTestUtils.setField(filter, "maxBodyBytes", 64);
+        
+        UserPrincipal principal = new UserPrincipal(1L, "user@example.com", "password", null);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        
+        request = new MockHttpServletRequest("PUT", "/api/bookings/7/confirm");
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "retry-123");
+        response = new MockHttpServletResponse();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+    
+    @Test
+    void doFilter_ShouldRunHandlerAndStoreResponse_WhenKeyIsNew() throws Exception {
+        // Arrange
+        when(idempotencyKeyService.findCompleted(KEY_ID)).thenReturn(null);
+        when(idempotencyKeyService.claim(KEY_ID, FINGERPRINT)).thenReturn(true);
+        doAnswer(invocation -> {
+            HttpServletResponse handlerResponse = invocation.getArgument(1);
+            handlerResponse.setStatus(200);
+            handlerResponse.setContentType("application/json");
+            handlerResponse.getWriter().write("{\"id\":7}");
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+        
+        // Act
+        filter.doFilter(request, response, filterChain);
+        
+        // Assert
+        assertEquals("{\"id\":7}", response.getContentAsString());
+        verify(idempotencyKeyService, times(1)).complete(eq(KEY_ID), eq(200), eq("application/json"), eq("{\"id\":7}"));
+        verify(idempotencyKeyService, never()).release(anyString());
+    }
+    
+    @Test
+    void doFilter_ShouldReplayStoredResponse_WhenKeyWasCompleted() throws Exception {
+        // Arrange
+        when(idempotencyKeyService.findCompleted(KEY_ID)).thenReturn(completedKey(FINGERPRINT));
+        
+        // Act
+        filter.doFilter(request, response, filterChain);
+        
+        // Assert
+        assertEquals(201, response.getStatus());
+        assertEquals("{\"id\":7}", response.getContentAsString());
+        assertEquals("true", response.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        verifyNoInteractions(filterChain);
+        verify(idempotencyKeyService, never()).claim(anyString(), anyString());
+    }
+    
+    @Test
+    void doFilter_ShouldWaitForConcurrentRequest_WhenKeyIsClaimedElsewhere() throws Exception {
+        // Arrange
+        when(idempotencyKeyService.findCompleted(KEY_ID)).thenReturn(null);
+        when(idempotencyKeyService.claim(KEY_ID, FINGERPRINT)).thenReturn(false);
+        when(idempotencyKeyService.awaitCompletion(KEY_ID)).thenReturn(completedKey(FINGERPRINT));
+        
+        // Act
+        filter.doFilter(request, response, filterChain);
+        
+        // Assert
+        assertEquals(201, response.getStatus());
+        verifyNoInteractions(filterChain);
+    }
+    
+    @Test
+    void doFilter_ShouldReturnConflict_WhenConcurrentRequestIsStillRunning() throws Exception {
+        // Arrange
+        when(idempotencyKeyService.findCompleted(KEY_ID)).thenReturn(null);
+        when(idempotencyKeyService.claim(KEY_ID, FINGERPRINT)).thenReturn(false);
+        when(idempotencyKeyService.awaitCompletion(KEY_ID)).thenReturn(IdempotencyKey.builder()
+                .id(KEY_ID)
+                .fingerprint(FINGERPRINT)
+                .status(IdempotencyKey.Status.IN_PROGRESS)
+                .build());
+        
+        // Act
+        filter.doFilter(request, response, filterChain);
+        
+        // Assert
+        assertEquals(409, response.getStatus());
+        verifyNoInteractions(filterChain);
+    }
+    
+    @Test
+    void doFilter_ShouldRejectReuse_WhenKeyBelongsToDifferentRequest() throws Exception {
+        // Arrange
+        when(idempotencyKeyService.findCompleted(KEY_ID)).thenReturn(completedKey("POST /api/bookings"));
+        
+        // Act
+        filter.doFilter(request, response, filterChain);
+        
+        // Assert
+        assertEquals(422, response.getStatus());
+        verifyNoInteractions(filterChain);
+    }
+    
+    @Test
+    void doFilter_ShouldRejectReuse_WhenBodyDiffers() throws Exception {
+        // Arrange
+        String firstFingerprint = IdempotencyFilter.fingerprint("POST", "/api/bookings", null,
+                "{\"offerId\":1,\"hours\":2}".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletRequest retry = new MockHttpServletRequest("POST", "/api/bookings");
+        retry.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "retry-123");
+        retry.setContent("{\"offerId\":2,\"hours\":2}".getBytes(StandardCharsets.UTF_8));
+        when(idempotencyKeyService.findCompleted(KEY_ID)).thenReturn(completedKey(firstFingerprint));
+        
+        // Act
+        filter.doFilter(retry, response, filterChain);
+        
+        // Assert
+        assertEquals(422, response.getStatus());
+        verifyNoInteractions(filterChain);
+    }
+    
+    @Test
+    void doFilter_ShouldPassBufferedBodyToHandler_WhenKeyIsNew() throws Exception {
+        // Arrange
+        byte[] body = "{\"offerId\":1,\"hours\":2}".getBytes(StandardCharsets.UTF_8);
+        request.setContent(body);
+        String fingerprint = IdempotencyFilter.fingerprint("PUT", "/api/bookings/7/confirm", null, body);
+        when(idempotencyKeyService.findCompleted(KEY_ID)).thenReturn(null);
+        when(idempotencyKeyService.claim(KEY_ID, fingerprint)).thenReturn(true);
+        doAnswer(invocation -> {
+            HttpServletRequest handlerRequest = invocation.getArgument(0);
+            assertArrayEquals(body, handlerRequest.getInputStream().readAllBytes());
+            ((HttpServletResponse) invocation.getArgument(1)).setStatus(200);
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+        
+        // Act
+        filter.doFilter(request, response, filterChain);
+        
+        // Assert
+        assertEquals(64, fingerprint.length());
+        verify(filterChain, times(1)).doFilter(any(), any());
+    }
+    
+    @Test
+    void doFilter_ShouldRejectRequest_WhenBodyExceedsLimit() throws Exception {
+        // Arrange
+        request.setContent(new byte[65]);
+        
+        // Act
+        filter.doFilter(request, response, filterChain);
+        
+        // Assert
+        assertEquals(413, response.getStatus());
+        verifyNoInteractions(idempotencyKeyService, filterChain);
+    }
+    
+    @Test
+    void doFilter_ShouldNotifyReadListener_WhenHandlerReadsAsynchronously() throws Exception {
+        // Arrange
+        when(idempotencyKeyService.findCompleted(KEY_ID)).thenReturn(null);
+        when(idempotencyKeyService.claim(KEY_ID, FINGERPRINT)).thenReturn(true);
+        ReadListener readListener = mock(ReadListener.class);
+        doAnswer(invocation -> {
+            HttpServletRequest handlerRequest = invocation.getArgument(0);
+            handlerRequest.getInputStream().setReadListener(readListener);
+            ((HttpServletResponse) invocation.getArgument(1)).setStatus(200);
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+        
+        // Act
+        filter.doFilter(request, response, filterChain);
+        
+        // Assert
+        verify(readListener).onDataAvailable();
+        verify(readListener).onAllDataRead();
+    }
+    
+    @Test
+    void doFilter_ShouldReleaseKey_WhenHandlerFailsWithServerError() throws Exception {
+        // Arrange
+        when(idempotencyKeyService.findCompleted(KEY_ID)).thenReturn(null);
+        when(idempotencyKeyService.claim(KEY_ID, FINGERPRINT)).thenReturn(true);
+        doAnswer(invocation -> {
+            ((HttpServletResponse) invocation.getArgument(1)).setStatus(500);
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+        
+        // Act
+        filter.doFilter(request, response, filterChain);
+        
+        // Assert
+        verify(idempotencyKeyService, times(1)).release(KEY_ID);
+        verify(idempotencyKeyService, never()).complete(anyString(), anyInt(), any(), any());
+    }
+    
+    @Test
+    void doFilter_ShouldPassThrough_WhenHeaderIsMissing() throws Exception {
+        // Arrange
+        MockHttpServletRequest plainRequest = new MockHttpServletRequest("POST", "/api/bookings");
+        
+        // Act
+        filter.doFilter(plainRequest, response, filterChain);
+        
+        // Assert
+        verify(filterChain, times(1)).doFilter(plainRequest, response);
+        verifyNoInteractions(idempotencyKeyService);
+    }
+    
+    private IdempotencyKey completedKey(String fingerprint) {
+        return IdempotencyKey.builder()
+                .id(KEY_ID)
+                .fingerprint(fingerprint)
+                .status(IdempotencyKey.Status.COMPLETED)
+                .responseStatus(201)
+                .contentType("application/json")
+                .responseBody("{\"id\":7}")
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build();
+    }
+}
@@ -70,7 +70,7 @@ class AdminControllerIntegrationTest {
         studentUser = userRepository.save(studentUser);
         
         // Generate admin token
-        adminToken = tokenProvider.generateTokenFromEmail(adminUser.getEmail(), adminUser.getId());
+        adminToken = tokenProvider.generateToken(UserPrincipal.create(adminUser));
     }
     
     @Test
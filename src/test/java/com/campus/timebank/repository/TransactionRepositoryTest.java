@@ -0,0 +1,81 @@
+package com.campus.timebank.repository;
+
+import com.campus.timebank.entity.Transaction;
+import com.campus.timebank.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true"
+})
+class TransactionRepositoryTest {
+    
+    private static final int ROWS = 200;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    // Checks insert batching for one saveAll on H2; it does not measure the round trips of
+    // the confirm/complete or bulk confirmation paths against PostgreSQL
+    @Test
+    void saveAll_ShouldBatchInserts_WhenIdsComeFromPooledSequence() {
+        // Arrange
+        User user = User.builder()
+                .email("ledger@example.com")
+                .password("password")
+                .firstName("Ledger")
+                .lastName("User")
+                .role(User.UserRole.STUDENT)
+                .active(true)
+                .build();
+        entityManager.persistAndFlush(user);
+        
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            transactions.add(Transaction.builder()
+                    .user(user)
+                    .type(Transaction.TransactionType.EARN)
+                    .amount(BigDecimal.ONE)
+                    .description("Entry " + i)
+                    .build());
+        }
+        
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        
+        // Act
+        transactionRepository.saveAll(transactions);
+        entityManager.flush();
+        
+        // Assert
+        assertEquals(ROWS, statistics.getEntityInsertCount());
+        // With IDENTITY every row is its own statement; here ids come 50 per sequence call
+        // and rows go out in batches of 50, so 200 rows need about 4 + 4 statements
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= 10, "Expected batched inserts but prepared " + statements + " statements");
+        assertTrue(transactions.stream().allMatch(t -> t.getId() != null));
+    }
+}
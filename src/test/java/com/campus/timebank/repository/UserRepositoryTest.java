@@ -1,11 +1,15 @@
 package com.campus.timebank.repository;
 
 import com.campus.timebank.entity.User;
+import com.campus.timebank.entity.Wallet;
+import com.campus.timebank.service.ResourceVersion;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 
+import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -95,5 +99,46 @@ class UserRepositoryTest {
         assertTrue(found.isPresent());
         assertTrue(found.get().getActive());
     }
-}
+    
+    @Test
+    void findVersionById_ShouldChange_WhenWalletIsUpdated() {
+        // Arrange
+        User user = User.builder()
+                .email("wallet@example.com")
+                .password("password")
+                .firstName("Wallet")
+                .lastName("Owner")
+                .faculty("Engineering")
+                .role(User.UserRole.STUDENT)
+                .active(true)
+                .build();
+        entityManager.persist(user);
+        Wallet wallet = Wallet.builder()
+                .user(user)
+                .balance(BigDecimal.TEN)
+                .totalEarned(BigDecimal.TEN)
+                .totalSpent(BigDecimal.ZERO)
+                .build();
+        entityManager.persist(wallet);
+        entityManager.flush();
+        Object[] before = userRepository.findVersionById(user.getId()).get(0);
+        
+        // Act
+        wallet.setBalance(new BigDecimal("12.00"));
+        entityManager.flush();
+        Object[] after = userRepository.findVersionById(user.getId()).get(0);
+        
+        // Assert
+        assertEquals(user.getId(), before[0]);
+        assertNotEquals(ResourceVersion.of(before).tag(), ResourceVersion.of(after).tag());
+    }
 
+    @Test
+    void findVersionById_ShouldReturnNothing_WhenUserDoesNotExist() {
+        // Act
+        List<Object[]> version = userRepository.findVersionById(-1L);
+
+        // Assert
+        assertTrue(version.isEmpty());
+    }
+}
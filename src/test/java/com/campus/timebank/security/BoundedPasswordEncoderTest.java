@@ -0,0 +1,49 @@
+package com.campus.timebank.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+    
+    private SimpleMeterRegistry meterRegistry;
+    private BoundedPasswordEncoder passwordEncoder;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        passwordEncoder = new BoundedPasswordEncoder(5, 2, 8, meterRegistry);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        passwordEncoder.shutdown();
+    }
+    
+    @Test
+    void matches_ShouldVerifyEncodedPassword_AndRecordHashTime() {
+        // Arrange
+        String encoded = passwordEncoder.encode("password123");
+        
+        // Act & Assert
+        assertTrue(passwordEncoder.matches("password123", encoded));
+        assertFalse(passwordEncoder.matches("wrong", encoded));
+        assertEquals(3, meterRegistry.get("auth.password.hash").timer().count());
+    }
+    
+    @Test
+    void upgradeEncoding_ShouldBeTrue_WhenStoredCostDiffers() {
+        // Arrange
+        String weaker = new BCryptPasswordEncoder(4).encode("password123");
+        String current = new BCryptPasswordEncoder(5).encode("password123");
+        
+        // Act & Assert
+        assertTrue(passwordEncoder.upgradeEncoding(weaker));
+        assertFalse(passwordEncoder.upgradeEncoding(current));
+        assertFalse(passwordEncoder.upgradeEncoding("not-a-bcrypt-hash"));
+    }
+}
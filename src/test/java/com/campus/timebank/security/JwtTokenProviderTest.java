@@ -0,0 +1,91 @@
+package com.campus.timebank.security;
+
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenProviderTest {
+
+    private JwtTokenProvider tokenProvider;
+    private UserPrincipal principal;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret",
+                "testSecretKeyForJWTTokenGenerationWhichShouldBeVeryLongAndSecure12345678");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpiration", 3600000L);
+        ReflectionTestUtils.setField(tokenProvider, "verifiedTokenCacheSize", 100L);
+        tokenProvider.init();
+        
+        principal = new UserPrincipal(42L, "test@example.com", null, UserPrincipal.authoritiesFor("STUDENT"), 3L);
+    }
+
+    @Test
+    void parseToken_ShouldReturnClaims_WhenTokenIsValid() {
+        // Arrange
+        String token = tokenProvider.generateToken(principal);
+
+        // Act
+        Optional<Claims> claims = tokenProvider.parseToken(token);
+
+        // Assert
+        assertTrue(claims.isPresent());
+        assertEquals(42L, tokenProvider.getUserId(claims.get()));
+    }
+
+    @Test
+    void parseToken_ShouldReturnCachedClaims_WhenTokenSeenBefore() {
+        // Arrange
+        String token = tokenProvider.generateToken(principal);
+
+        // Act
+        Claims first = tokenProvider.parseToken(token).orElseThrow();
+        Claims second = tokenProvider.parseToken(token).orElseThrow();
+
+        // Assert
+        assertSame(first, second);
+    }
+
+    @Test
+    void getPrincipal_ShouldRestoreRoleAndEpochFromClaims() {
+        // Arrange
+        Claims claims = tokenProvider.parseToken(tokenProvider.generateToken(principal)).orElseThrow();
+        
+        // Act
+        UserPrincipal restored = tokenProvider.getPrincipal(claims);
+        
+        // Assert
+        assertNotNull(restored);
+        assertEquals(42L, restored.getId());
+        assertEquals("test@example.com", restored.getEmail());
+        assertEquals("STUDENT", restored.getRole());
+        assertEquals(3L, restored.getSecurityEpoch());
+    }
+    
+    @Test
+    void parseToken_ShouldReturnEmpty_WhenSignatureIsTampered() {
+        // Arrange
+        String token = tokenProvider.generateToken(principal);
+        String tampered = token.substring(0, token.length() - 2) + "xx";
+
+        // Act & Assert
+        assertTrue(tokenProvider.parseToken(tampered).isEmpty());
+        assertFalse(tokenProvider.validateToken(tampered));
+    }
+
+    @Test
+    void parseToken_ShouldReturnEmpty_WhenTokenIsExpired() {
+        // Arrange
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpiration", -1000L);
+        String token = tokenProvider.generateToken(principal);
+
+        // Act & Assert
+        assertTrue(tokenProvider.parseToken(token).isEmpty());
+    }
+}
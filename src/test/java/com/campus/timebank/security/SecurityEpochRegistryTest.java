@@ -0,0 +1,72 @@
+package com.campus.timebank.security;
+
+import com.campus.timebank.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SecurityEpochRegistryTest {
+    
+    @Mock
+    private UserRepository userRepository;
+    
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    
+    private SecurityEpochRegistry registry;
+    
+    @BeforeEach
+    void setUp() {
+        registry = new SecurityEpochRegistry(userRepository, jdbcTemplate);
+        ReflectionTestUtils.setField(registry, "notifyEnabled", true);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+    
+    @Test
+    void advanceAfterCommit_ShouldNotifyOtherNodesAndApplyLocallyOnCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        
+        // Act
+        registry.advanceAfterCommit(7L, 3L);
+        
+        // Assert
+        verify(jdbcTemplate).queryForList("SELECT pg_notify(?, ?)", SecurityEpochRegistry.CHANNEL, "7:3");
+        assertEquals(0L, registry.currentEpoch(7L));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(3L, registry.currentEpoch(7L));
+    }
+    
+    @Test
+    void apply_ShouldAdvanceEpoch_WhenNotificationArrivesFromAnotherNode() {
+        // Arrange
+        SecurityEpochListener listener = new SecurityEpochListener(null, registry);
+        
+        // Act
+        listener.apply("7:3");
+        listener.apply("7:2");
+        
+        // Assert
+        assertFalse(registry.isCurrent(7L, 2L));
+        assertTrue(registry.isCurrent(7L, 3L));
+    }
+}
@@ -13,6 +13,7 @@ import com.campus.timebank.repository.TransactionRepository;
 import com.campus.timebank.repository.UserRepository;
 import com.campus.timebank.repository.WalletRepository;
 import com.campus.timebank.security.JwtTokenProvider;
+import com.campus.timebank.security.SecurityEpochRegistry;
 import com.campus.timebank.security.UserPrincipal;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -60,6 +61,12 @@ class AdminServiceTest {
     @Mock
     private JwtTokenProvider tokenProvider;
     
+    @Mock
+    private SecurityEpochRegistry securityEpochRegistry;
+    
+    @Mock
+    private RefreshTokenService refreshTokenService;
+    
     @InjectMocks
     private AdminService adminService;
     
@@ -119,7 +126,7 @@ class AdminServiceTest {
         when(passwordEncoder.encode(createAdminRequest.getPassword())).thenReturn("encodedPassword");
         when(userRepository.save(any(User.class))).thenReturn(adminUser);
         when(walletRepository.save(any(Wallet.class))).thenReturn(new Wallet());
-        when(tokenProvider.generateTokenFromEmail(anyString(), anyLong())).thenReturn("jwt-token");
+        when(tokenProvider.generateToken(any(UserPrincipal.class))).thenReturn("jwt-token");
         when(userMapper.toDto(any(User.class))).thenReturn(UserDto.builder().build());
         
         // Act
@@ -193,7 +200,9 @@ class AdminServiceTest {
         assertNotNull(result);
         assertFalse(result.getActive());
         assertFalse(testUser.getActive());
+        assertEquals(1L, testUser.getSecurityEpoch());
         verify(userRepository, times(1)).save(testUser);
+        verify(securityEpochRegistry).advanceAfterCommit(1L, 1L);
     }
     
     @Test
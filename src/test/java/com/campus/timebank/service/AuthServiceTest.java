@@ -2,6 +2,7 @@ package com.campus.timebank.service;
 
 import com.campus.timebank.dto.AuthResponse;
 import com.campus.timebank.dto.LoginRequest;
+import com.campus.timebank.dto.RefreshTokenRequest;
 import com.campus.timebank.dto.RegisterRequest;
 import com.campus.timebank.entity.User;
 import com.campus.timebank.entity.Wallet;
@@ -9,6 +10,8 @@ import com.campus.timebank.mapper.UserMapper;
 import com.campus.timebank.repository.UserRepository;
 import com.campus.timebank.repository.WalletRepository;
 import com.campus.timebank.security.JwtTokenProvider;
+import com.campus.timebank.security.TokenRevocationList;
+import com.campus.timebank.security.UserPrincipal;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,6 +19,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -49,6 +53,12 @@ class AuthServiceTest {
     @Mock
     private UserMapper userMapper;
     
+    @Mock
+    private RefreshTokenService refreshTokenService;
+    
+    @Mock
+    private TokenRevocationList tokenRevocationList;
+    
     @InjectMocks
     private AuthService authService;
     
@@ -93,7 +103,7 @@ class AuthServiceTest {
         when(passwordEncoder.encode(registerRequest.getPassword())).thenReturn("encodedPassword");
         when(userRepository.save(any(User.class))).thenReturn(testUser);
         when(walletRepository.save(any(Wallet.class))).thenReturn(new Wallet());
-        when(tokenProvider.generateTokenFromEmail(anyString(), anyLong())).thenReturn("jwt-token");
+        when(tokenProvider.generateToken(any(UserPrincipal.class))).thenReturn("jwt-token");
         when(userMapper.toDto(any(User.class))).thenReturn(null);
         
         // Act
@@ -126,6 +136,7 @@ class AuthServiceTest {
                 .thenReturn(authentication);
         when(tokenProvider.generateToken(authentication)).thenReturn("jwt-token");
         when(userRepository.findByEmail(loginRequest.getEmail())).thenReturn(Optional.of(testUser));
+        when(refreshTokenService.issue(testUser)).thenReturn("refresh-token");
         when(userMapper.toDto(testUser)).thenReturn(null);
         
         // Act
@@ -134,7 +145,37 @@ class AuthServiceTest {
         // Assert
         assertNotNull(response);
         assertEquals("jwt-token", response.getToken());
+        assertEquals("refresh-token", response.getRefreshToken());
         verify(authenticationManager, times(1)).authenticate(any());
     }
+    
+    @Test
+    void refresh_ShouldIssueNewTokenPair_WhenRefreshTokenIsValid() {
+        // Arrange
+        when(refreshTokenService.rotate("old-refresh-token"))
+                .thenReturn(new RefreshTokenService.Rotation(testUser, "new-refresh-token"));
+        when(tokenProvider.generateToken(any(UserPrincipal.class))).thenReturn("jwt-token");
+        when(userMapper.toDto(testUser)).thenReturn(null);
+        
+        // Act
+        AuthResponse response = authService.refresh(new RefreshTokenRequest("old-refresh-token"));
+        
+        // Assert
+        assertEquals("jwt-token", response.getToken());
+        assertEquals("new-refresh-token", response.getRefreshToken());
+        verify(authenticationManager, never()).authenticate(any());
+    }
+    
+    @Test
+    void refresh_ShouldThrowException_WhenRefreshTokenIsRejected() {
+        // Arrange
+        when(refreshTokenService.rotate("reused-token"))
+                .thenThrow(new BadCredentialsException("Refresh token has been revoked"));
+        
+        // Act & Assert
+        assertThrows(BadCredentialsException.class,
+                () -> authService.refresh(new RefreshTokenRequest("reused-token")));
+        verify(tokenProvider, never()).generateToken(any(UserPrincipal.class));
+    }
 }
 
@@ -0,0 +1,136 @@
+package com.campus.timebank.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingExpiryServiceTest {
+    
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Mock
+    private OwnerScheduleService ownerScheduleService;
+    
+    private SimpleMeterRegistry meterRegistry;
+    private BookingExpiryService bookingExpiryService;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        bookingExpiryService = new BookingExpiryService(jdbcTemplate, transactionManager, meterRegistry, eventPublisher,
+                ownerScheduleService);
+        ReflectionTestUtils.setField(bookingExpiryService, "enabled", true);
+        ReflectionTestUtils.setField(bookingExpiryService, "pendingHours", 72L);
+        ReflectionTestUtils.setField(bookingExpiryService, "batchSize", 200);
+        ReflectionTestUtils.setField(bookingExpiryService, "maxBatchesPerRun", 5);
+        bookingExpiryService.init();
+    }
+    
+    @Test
+    void expireStalePendingBookings_ShouldProcessChunksUntilOneIsNotFull() {
+        // Arrange
+        when(jdbcTemplate.query(startsWith("WITH"), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(expired(200), expired(200), expired(37));
+        
+        // Act
+        bookingExpiryService.expireStalePendingBookings();
+        
+        // Assert
+        verify(jdbcTemplate, times(3)).query(startsWith("WITH"), any(RowMapper.class), any(Object[].class));
+        assertEquals(437, meterRegistry.get("booking.expiry.expired").counter().count());
+        assertEquals(3, meterRegistry.get("booking.expiry.batches").counter().count());
+        assertEquals(0, meterRegistry.get("booking.expiry.lag.seconds").gauge().value());
+    }
+    
+    @Test
+    void expireStalePendingBookings_ShouldStopAtBatchLimitAndReportLag() {
+        // Arrange
+        when(jdbcTemplate.query(startsWith("WITH"), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(expired(200));
+        when(jdbcTemplate.queryForObject(startsWith("SELECT min"), eq(Timestamp.class), any(Object[].class)))
+                .thenReturn(Timestamp.valueOf(LocalDateTime.now().minusHours(73)));
+        
+        // Act
+        bookingExpiryService.expireStalePendingBookings();
+        
+        // Assert
+        verify(jdbcTemplate, times(5)).query(startsWith("WITH"), any(RowMapper.class), any(Object[].class));
+        assertTrue(meterRegistry.get("booking.expiry.lag.seconds").gauge().value() >= 3500);
+    }
+    
+    @Test
+    void expireStalePendingBookings_ShouldWriteNoLedgerRows_LikeCancelingPendingBooking() {
+        // Arrange
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        when(jdbcTemplate.query(startsWith("WITH"), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(expired(3));
+        
+        // Act
+        bookingExpiryService.expireStalePendingBookings();
+        
+        // Assert
+        // Pending bookings hold no hours, so there is nothing to release and no RELEASE row
+        verify(jdbcTemplate).query(sql.capture(), any(RowMapper.class), args.capture());
+        assertFalse(sql.getValue().contains("transactions"));
+        assertFalse(sql.getValue().contains("RELEASE"));
+        assertEquals(6, args.getValue().length);
+    }
+    
+    @Test
+    void expireStalePendingBookings_ShouldFreeOwnerSchedule_WhenTimedBookingExpires() {
+        // Arrange
+        when(jdbcTemplate.query(startsWith("WITH"), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(List.of(new BookingExpiryService.ExpiredBooking(5L, 2L),
+                        new BookingExpiryService.ExpiredBooking(6L, null)));
+        
+        // Act
+        bookingExpiryService.expireStalePendingBookings();
+        
+        // Assert
+        verify(ownerScheduleService, times(1)).bookingRemoved(2L, 5L);
+        verifyNoMoreInteractions(ownerScheduleService);
+    }
+    
+    @Test
+    void expireStalePendingBookings_ShouldDoNothing_WhenDisabled() {
+        // Arrange
+        ReflectionTestUtils.setField(bookingExpiryService, "enabled", false);
+        
+        // Act
+        bookingExpiryService.expireStalePendingBookings();
+        
+        // Assert
+        verifyNoInteractions(jdbcTemplate);
+    }
+    
+    private static List<BookingExpiryService.ExpiredBooking> expired(int count) {
+        return Collections.nCopies(count, new BookingExpiryService.ExpiredBooking(1L, null));
+    }
+}
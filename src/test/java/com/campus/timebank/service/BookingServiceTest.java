@@ -1,6 +1,8 @@
 package com.campus.timebank.service;
 
+import com.campus.timebank.dto.BookingBatchResult;
 import com.campus.timebank.dto.BookingDto;
+import com.campus.timebank.dto.ConfirmBookingsRequest;
 import com.campus.timebank.dto.CreateBookingRequest;
 import com.campus.timebank.entity.*;
 import com.campus.timebank.mapper.BookingMapper;
@@ -12,6 +14,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -20,6 +24,8 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -41,7 +47,19 @@ class BookingServiceTest {
     private UserRepository userRepository;
     
     @Mock
-    private WalletRepository walletRepository;
+    private WalletService walletService;
+    
+    @Mock
+    private WalletHoldService walletHoldService;
+    
+    @Mock
+    private WaitlistService waitlistService;
+    
+    @Mock
+    private OfferSlotService offerSlotService;
+    
+    @Mock
+    private OwnerScheduleService ownerScheduleService;
     
     @Mock
     private TransactionRepository transactionRepository;
@@ -49,6 +67,9 @@ class BookingServiceTest {
     @Mock
     private BookingMapper bookingMapper;
     
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
     @Mock
     private SecurityContext securityContext;
     
@@ -150,6 +171,7 @@ class BookingServiceTest {
         when(authentication.getPrincipal()).thenReturn(requesterPrincipal);
         when(userRepository.findById(1L)).thenReturn(Optional.of(requester));
         when(offerRepository.findById(1L)).thenReturn(Optional.of(offer));
+        when(offerRepository.claimSeat(eq(1L), any(LocalDateTime.class))).thenReturn(1);
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
         when(bookingMapper.toDto(booking)).thenReturn(bookingDto);
         
@@ -162,6 +184,139 @@ class BookingServiceTest {
         verify(bookingRepository, times(1)).save(any(Booking.class));
     }
     
+    @Test
+    void createBooking_ShouldDeriveHoursAndRecordSlot_WhenBookingIsTimed() {
+        // Arrange
+        OffsetDateTime start = OffsetDateTime.now().plusDays(1);
+        createBookingRequest.setHours(null);
+        createBookingRequest.setStartTime(start);
+        createBookingRequest.setEndTime(start.plusMinutes(90));
+        SecurityContextHolder.setContext(securityContext);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(requesterPrincipal);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(requester));
+        when(offerRepository.findById(1L)).thenReturn(Optional.of(offer));
+        when(offerRepository.claimSeat(eq(1L), any(LocalDateTime.class))).thenReturn(1);
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // Act
+        bookingService.createBooking(createBookingRequest);
+        
+        // Assert
+        verify(offerSlotService).checkBookable(offer, start, start.plusMinutes(90));
+        verify(bookingRepository).saveAndFlush(argThat((Booking saved) ->
+                new BigDecimal("1.50").equals(saved.getReservedHours()) && Long.valueOf(2L).equals(saved.getSlotOwnerId())));
+        verify(ownerScheduleService).bookingAdded(eq(2L), any(), eq(start), eq(start.plusMinutes(90)));
+    }
+    
+    @Test
+    void createBooking_ShouldThrowException_WhenOwnerWasBookedConcurrently() {
+        // Arrange
+        OffsetDateTime start = OffsetDateTime.now().plusDays(1);
+        createBookingRequest.setStartTime(start);
+        createBookingRequest.setEndTime(start.plusHours(2));
+        SecurityContextHolder.setContext(securityContext);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(requesterPrincipal);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(requester));
+        when(offerRepository.findById(1L)).thenReturn(Optional.of(offer));
+        when(offerRepository.claimSeat(eq(1L), any(LocalDateTime.class))).thenReturn(1);
+        when(bookingRepository.saveAndFlush(any(Booking.class)))
+                .thenThrow(new DataIntegrityViolationException("excl_bookings_owner_slot"));
+        
+        // Act & Assert
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> bookingService.createBooking(createBookingRequest));
+        assertEquals("The owner is already booked at that time", exception.getMessage());
+        verify(ownerScheduleService, never()).bookingAdded(any(), any(), any(), any());
+    }
+    
+    @Test
+    void createBooking_ShouldRethrow_WhenOtherConstraintIsViolated() {
+        // Arrange
+        OffsetDateTime start = OffsetDateTime.now().plusDays(1);
+        createBookingRequest.setStartTime(start);
+        createBookingRequest.setEndTime(start.plusHours(2));
+        SecurityContextHolder.setContext(securityContext);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(requesterPrincipal);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(requester));
+        when(offerRepository.findById(1L)).thenReturn(Optional.of(offer));
+        when(offerRepository.claimSeat(eq(1L), any(LocalDateTime.class))).thenReturn(1);
+        when(bookingRepository.saveAndFlush(any(Booking.class)))
+                .thenThrow(new DataIntegrityViolationException("chk_bookings_slot"));
+        
+        // Act & Assert
+        assertThrows(DataIntegrityViolationException.class, () -> bookingService.createBooking(createBookingRequest));
+    }
+    
+    @Test
+    void createBooking_ShouldPointToWaitlist_WhenOfferIsKnownToBeFull() {
+        // Arrange
+        offer.setCapacity(2);
+        offer.setSeatsTaken(2);
+        offer.setAvailable(false);
+        SecurityContextHolder.setContext(securityContext);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(requesterPrincipal);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(requester));
+        when(offerRepository.findById(1L)).thenReturn(Optional.of(offer));
+        
+        // Act & Assert
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> bookingService.createBooking(createBookingRequest));
+        assertTrue(exception.getMessage().startsWith("Offer is fully booked"));
+        verify(offerRepository, never()).claimSeat(anyLong(), any());
+    }
+    
+    @Test
+    void createBooking_ShouldThrowException_WhenOfferIsDeactivated() {
+        // Arrange
+        offer.deactivate();
+        SecurityContextHolder.setContext(securityContext);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(requesterPrincipal);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(requester));
+        when(offerRepository.findById(1L)).thenReturn(Optional.of(offer));
+        
+        // Act & Assert
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> bookingService.createBooking(createBookingRequest));
+        assertEquals("Offer is not available", exception.getMessage());
+    }
+    
+    @Test
+    void createBooking_ShouldThrowException_WhenOfferIsFullyBooked() {
+        // Arrange
+        SecurityContextHolder.setContext(securityContext);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(requesterPrincipal);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(requester));
+        when(offerRepository.findById(1L)).thenReturn(Optional.of(offer));
+        when(offerRepository.claimSeat(eq(1L), any(LocalDateTime.class))).thenReturn(0);
+        
+        // Act & Assert
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> bookingService.createBooking(createBookingRequest));
+        assertTrue(exception.getMessage().startsWith("Offer is fully booked"));
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+    
+    @Test
+    void createBooking_ShouldThrowException_WhenOfferHasWaitlist() {
+        // Arrange
+        SecurityContextHolder.setContext(securityContext);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(requesterPrincipal);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(requester));
+        when(offerRepository.findById(1L)).thenReturn(Optional.of(offer));
+        when(waitlistService.hasWaiting(1L)).thenReturn(true);
+        
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> bookingService.createBooking(createBookingRequest));
+        verify(offerRepository, never()).claimSeat(anyLong(), any(LocalDateTime.class));
+    }
+    
     @Test
     void createBooking_ShouldThrowException_WhenOfferInactive() {
         // Arrange
@@ -198,40 +353,43 @@ class BookingServiceTest {
         when(securityContext.getAuthentication()).thenReturn(authentication);
         when(authentication.getPrincipal()).thenReturn(ownerPrincipal);
         
-        when(bookingRepository.findByIdAndOfferOwnerId(1L, 2L)).thenReturn(Optional.of(booking));
-        when(walletRepository.findByUserId(1L)).thenReturn(Optional.of(requesterWallet));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        when(bookingRepository.confirmAsOwner(eq(1L), eq(2L), any(LocalDateTime.class))).thenReturn(1);
+        when(bookingRepository.findByIdWithParticipants(1L)).thenReturn(Optional.of(booking));
         when(bookingMapper.toDto(booking)).thenReturn(bookingDto);
-        when(transactionRepository.save(any(Transaction.class))).thenReturn(new Transaction());
         
         // Act
         BookingDto result = bookingService.confirmBooking(1L);
         
         // Assert
         assertNotNull(result);
-        verify(bookingRepository, times(1)).findByIdAndOfferOwnerId(1L, 2L);
-        verify(transactionRepository, times(1)).save(any(Transaction.class));
+        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(walletHoldService, times(1)).placeHold(booking);
+        verifyNoInteractions(walletService);
+        verify(transactionRepository, times(1)).save(argThat(transaction ->
+                transaction.getType() == Transaction.TransactionType.RESERVE));
     }
     
     @Test
     void confirmBooking_ShouldThrowException_WhenInsufficientBalance() {
         // Arrange
         UserPrincipal ownerPrincipal = new UserPrincipal(2L, "owner@example.com", "password", null);
-        requesterWallet.setBalance(new BigDecimal("1.00")); // Insufficient
         
         SecurityContextHolder.setContext(securityContext);
         when(securityContext.getAuthentication()).thenReturn(authentication);
         when(authentication.getPrincipal()).thenReturn(ownerPrincipal);
         
-        when(bookingRepository.findByIdAndOfferOwnerId(1L, 2L)).thenReturn(Optional.of(booking));
-        when(walletRepository.findByUserId(1L)).thenReturn(Optional.of(requesterWallet));
+        when(bookingRepository.confirmAsOwner(eq(1L), eq(2L), any(LocalDateTime.class))).thenReturn(1);
+        when(bookingRepository.findByIdWithParticipants(1L)).thenReturn(Optional.of(booking));
+        doThrow(new IllegalStateException("Insufficient balance"))
+                .when(walletHoldService).placeHold(booking);
         
         // Act & Assert
         assertThrows(IllegalStateException.class, () -> bookingService.confirmBooking(1L));
+        verifyNoInteractions(transactionRepository);
     }
     
     @Test
-    void completeBooking_ShouldCompleteAndTransferHours_WhenConfirmed() {
+    void confirmBooking_ShouldThrowException_WhenAlreadyConfirmedConcurrently() {
         // Arrange
         booking.setStatus(Booking.BookingStatus.CONFIRMED);
         UserPrincipal ownerPrincipal = new UserPrincipal(2L, "owner@example.com", "password", null);
@@ -240,21 +398,129 @@ class BookingServiceTest {
         when(securityContext.getAuthentication()).thenReturn(authentication);
         when(authentication.getPrincipal()).thenReturn(ownerPrincipal);
         
+        when(bookingRepository.confirmAsOwner(eq(1L), eq(2L), any(LocalDateTime.class))).thenReturn(0);
         when(bookingRepository.findByIdAndOfferOwnerId(1L, 2L)).thenReturn(Optional.of(booking));
-        when(walletRepository.findByUserId(1L)).thenReturn(Optional.of(requesterWallet));
-        when(walletRepository.findByUserId(2L)).thenReturn(Optional.of(ownerWallet));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> bookingService.confirmBooking(1L));
+        verifyNoInteractions(walletHoldService);
+        verifyNoInteractions(transactionRepository);
+    }
+    
+    @Test
+    void confirmBooking_ShouldThrowException_WhenCallerIsNotOwner() {
+        // Arrange
+        SecurityContextHolder.setContext(securityContext);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(requesterPrincipal);
+        
+        when(bookingRepository.confirmAsOwner(eq(1L), eq(1L), any(LocalDateTime.class))).thenReturn(0);
+        when(bookingRepository.findByIdAndOfferOwnerId(1L, 1L)).thenReturn(Optional.empty());
+        
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> bookingService.confirmBooking(1L));
+        verifyNoInteractions(walletHoldService);
+    }
+    
+    @Test
+    void confirmBookings_ShouldConfirmEligibleAndReportFailures_WhenPartialAllowed() {
+        // Arrange
+        UserPrincipal ownerPrincipal = new UserPrincipal(2L, "owner@example.com", "password", null);
+        SecurityContextHolder.setContext(securityContext);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(ownerPrincipal);
+        
+        when(bookingRepository.findByIdsAndOfferOwnerIdForUpdate(List.of(1L, 5L), 2L)).thenReturn(List.of(booking));
+        when(walletService.getAvailableBalance(2L)).thenReturn(new BigDecimal("10.00"));
         when(bookingMapper.toDto(booking)).thenReturn(bookingDto);
-        when(transactionRepository.save(any(Transaction.class))).thenReturn(new Transaction());
-        when(walletRepository.save(any(Wallet.class))).thenReturn(requesterWallet);
+        ConfirmBookingsRequest request = ConfirmBookingsRequest.builder()
+                .bookingIds(List.of(1L, 5L, 1L))
+                .build();
+        
+        // Act
+        List<BookingBatchResult> results = bookingService.confirmBookings(request);
+        
+        // Assert
+        assertEquals(2, results.size());
+        assertEquals(BookingBatchResult.Status.CONFIRMED, results.get(0).getStatus());
+        assertEquals(BookingBatchResult.Status.FAILED, results.get(1).getStatus());
+        assertEquals(Booking.BookingStatus.CONFIRMED, booking.getStatus());
+        verify(walletHoldService, times(1)).placeHolds(2L, List.of(booking));
+        verify(transactionRepository, times(1)).saveAll(argThat((List<Transaction> transactions) -> transactions.size() == 1));
+    }
+    
+    @Test
+    void confirmBookings_ShouldThrowException_WhenAllOrNothingAndBalanceIsShort() {
+        // Arrange
+        UserPrincipal ownerPrincipal = new UserPrincipal(2L, "owner@example.com", "password", null);
+        SecurityContextHolder.setContext(securityContext);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(ownerPrincipal);
+        
+        when(bookingRepository.findByIdsAndOfferOwnerIdForUpdate(List.of(1L), 2L)).thenReturn(List.of(booking));
+        when(walletService.getAvailableBalance(2L)).thenReturn(new BigDecimal("1.00"));
+        ConfirmBookingsRequest request = ConfirmBookingsRequest.builder()
+                .bookingIds(List.of(1L))
+                .allOrNothing(true)
+                .build();
+        
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> bookingService.confirmBookings(request));
+        assertEquals(Booking.BookingStatus.PENDING, booking.getStatus());
+        verify(walletHoldService, never()).placeHolds(anyLong(), anyList());
+        verifyNoInteractions(transactionRepository);
+    }
+    
+    @Test
+    void completeBooking_ShouldCompleteAndTransferHours_WhenConfirmed() {
+        // Arrange
+        booking.setStatus(Booking.BookingStatus.COMPLETED);
+        UserPrincipal ownerPrincipal = new UserPrincipal(2L, "owner@example.com", "password", null);
+        
+        SecurityContextHolder.setContext(securityContext);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(ownerPrincipal);
+        
+        when(bookingRepository.completeAsOwner(eq(1L), eq(2L), any(LocalDateTime.class))).thenReturn(1);
+        when(bookingRepository.findByIdWithParticipants(1L)).thenReturn(Optional.of(booking));
+        when(bookingMapper.toDto(booking)).thenReturn(bookingDto);
+        when(walletHoldService.commitHold(booking)).thenReturn(true);
         
         // Act
         BookingDto result = bookingService.completeBooking(1L);
         
         // Assert
         assertNotNull(result);
-        verify(walletRepository, times(2)).save(any(Wallet.class));
-        verify(transactionRepository, times(1)).save(any(Transaction.class));
+        // The held hours are settled by the hold service
+        verifyNoInteractions(walletService);
+        verify(offerRepository).recordCompletedBooking(eq(1L), any(LocalDateTime.class));
+        verify(transactionRepository, times(1)).saveAll(argThat((List<Transaction> transactions) -> transactions.size() == 2
+                && transactions.get(1).getType() == Transaction.TransactionType.EARN));
+    }
+    
+    @Test
+    void completeBooking_ShouldOnlyRecordCommit_WhenBookingHasNoHold() {
+        // Arrange
+        booking.setStatus(Booking.BookingStatus.COMPLETED);
+        UserPrincipal ownerPrincipal = new UserPrincipal(2L, "owner@example.com", "password", null);
+        
+        SecurityContextHolder.setContext(securityContext);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(ownerPrincipal);
+        
+        when(bookingRepository.completeAsOwner(eq(1L), eq(2L), any(LocalDateTime.class))).thenReturn(1);
+        when(bookingRepository.findByIdWithParticipants(1L)).thenReturn(Optional.of(booking));
+        when(bookingMapper.toDto(booking)).thenReturn(bookingDto);
+        when(walletHoldService.commitHold(booking)).thenReturn(false);
+        
+        // Act
+        bookingService.completeBooking(1L);
+        
+        // Assert
+        // Bookings confirmed before holds existed paid at confirmation
+        verify(transactionRepository, times(1)).save(argThat(transaction ->
+                transaction.getType() == Transaction.TransactionType.COMMIT));
+        verify(transactionRepository, never()).saveAll(anyList());
     }
     
     @Test
@@ -267,6 +533,7 @@ class BookingServiceTest {
         when(securityContext.getAuthentication()).thenReturn(authentication);
         when(authentication.getPrincipal()).thenReturn(ownerPrincipal);
         
+        when(bookingRepository.completeAsOwner(eq(1L), eq(2L), any(LocalDateTime.class))).thenReturn(0);
         when(bookingRepository.findByIdAndOfferOwnerId(1L, 2L)).thenReturn(Optional.of(booking));
         
         // Act & Assert
@@ -280,8 +547,9 @@ class BookingServiceTest {
         when(securityContext.getAuthentication()).thenReturn(authentication);
         when(authentication.getPrincipal()).thenReturn(requesterPrincipal);
         
-        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        when(bookingRepository.cancelAsParticipant(eq(1L), eq(1L), eq(Booking.BookingStatus.PENDING),
+                eq("Changed my mind"), any(LocalDateTime.class))).thenReturn(1);
+        when(bookingRepository.findByIdWithParticipants(1L)).thenReturn(Optional.of(booking));
         when(bookingMapper.toDto(booking)).thenReturn(bookingDto);
         
         // Act
@@ -289,7 +557,51 @@ class BookingServiceTest {
         
         // Assert
         assertNotNull(result);
-        verify(bookingRepository, times(1)).save(any(Booking.class));
+        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(offerRepository, times(1)).releaseSeat(eq(1L), any(LocalDateTime.class));
+        verify(waitlistService, times(1)).promoteNext(1L);
+        verifyNoInteractions(transactionRepository);
+    }
+    
+    @Test
+    void cancelBooking_ShouldRecordRelease_WhenBookingWasConfirmed() {
+        // Arrange
+        SecurityContextHolder.setContext(securityContext);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(requesterPrincipal);
+        
+        when(bookingRepository.cancelAsParticipant(eq(1L), eq(1L), eq(Booking.BookingStatus.PENDING),
+                anyString(), any(LocalDateTime.class))).thenReturn(0);
+        when(bookingRepository.cancelAsParticipant(eq(1L), eq(1L), eq(Booking.BookingStatus.CONFIRMED),
+                anyString(), any(LocalDateTime.class))).thenReturn(1);
+        when(bookingRepository.findByIdWithParticipants(1L)).thenReturn(Optional.of(booking));
+        when(bookingMapper.toDto(booking)).thenReturn(bookingDto);
+        when(walletHoldService.releaseHold(booking)).thenReturn(true);
+        
+        // Act
+        bookingService.cancelBooking(1L, "Changed my mind");
+        
+        // Assert
+        verify(transactionRepository, times(1)).save(argThat(transaction ->
+                transaction.getType() == Transaction.TransactionType.RELEASE
+                        && transaction.getUser().equals(owner)));
+    }
+    
+    @Test
+    void cancelBooking_ShouldThrowException_WhenAlreadyCompleted() {
+        // Arrange
+        booking.setStatus(Booking.BookingStatus.COMPLETED);
+        SecurityContextHolder.setContext(securityContext);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(requesterPrincipal);
+        
+        when(bookingRepository.cancelAsParticipant(eq(1L), eq(1L), any(Booking.BookingStatus.class),
+                anyString(), any(LocalDateTime.class))).thenReturn(0);
+        when(bookingRepository.findByIdWithParticipants(1L)).thenReturn(Optional.of(booking));
+        
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> bookingService.cancelBooking(1L, "Too late"));
+        verifyNoInteractions(transactionRepository);
     }
     
     @Test
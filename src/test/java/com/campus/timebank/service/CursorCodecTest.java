@@ -0,0 +1,45 @@
+package com.campus.timebank.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorCodecTest {
+    
+    @Test
+    void decode_ShouldReturnEncodedParts_WhenCursorWasEncoded() {
+        // Arrange
+        String cursor = CursorCodec.encode(0.0607927f, 42L);
+        
+        // Act
+        String[] parts = CursorCodec.decode(cursor, 2);
+        
+        // Assert
+        assertEquals(0.0607927f, CursorCodec.decodeFloat(parts[0]));
+        assertEquals(42L, CursorCodec.decodeLong(parts[1]));
+    }
+    
+    @Test
+    void decode_ShouldThrowException_WhenCursorIsNotBase64() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> CursorCodec.decode("not a cursor!", 2));
+    }
+    
+    @Test
+    void decode_ShouldThrowException_WhenPartCountDiffers() {
+        // Arrange
+        String cursor = CursorCodec.encode(42L);
+        
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> CursorCodec.decode(cursor, 2));
+    }
+    
+    @Test
+    void decodeLong_ShouldThrowException_WhenPartIsNotANumber() {
+        // Arrange
+        String[] parts = CursorCodec.decode(CursorCodec.encode("abc", 1L), 2);
+        
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> CursorCodec.decodeLong(parts[0]));
+    }
+}
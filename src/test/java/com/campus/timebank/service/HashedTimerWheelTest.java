@@ -0,0 +1,102 @@
+package com.campus.timebank.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTimerWheelTest {
+    
+    private HashedTimerWheel wheel;
+    
+    @BeforeEach
+    void setUp() {
+        wheel = new HashedTimerWheel(1000, 8, 0);
+    }
+    
+    @Test
+    void advance_ShouldReturnOnlyDueIds_WhenDeadlinesPass() {
+        // Arrange
+        wheel.schedule(1L, 2000);
+        wheel.schedule(2L, 5000);
+        
+        // Act
+        List<Long> due = wheel.advance(3000);
+        
+        // Assert
+        assertEquals(List.of(1L), due);
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(2L), wheel.advance(5000));
+    }
+    
+    @Test
+    void advance_ShouldSkipIdsInLaterRotations_WhenTheyShareABucket() {
+        // Arrange
+        wheel.schedule(1L, 3000);
+        wheel.schedule(2L, 11000);
+        
+        // Act
+        List<Long> due = wheel.advance(3000);
+        
+        // Assert
+        assertEquals(List.of(1L), due);
+        assertEquals(List.of(2L), wheel.advance(11000));
+    }
+    
+    @Test
+    void advance_ShouldFireEveryDueId_WhenWheelWasIdleLongerThanOneRotation() {
+        // Arrange
+        wheel.schedule(1L, 2000);
+        wheel.schedule(2L, 7000);
+        wheel.schedule(3L, 60000);
+        
+        // Act
+        List<Long> due = wheel.advance(30000);
+        
+        // Assert
+        assertEquals(2, due.size());
+        assertTrue(due.containsAll(List.of(1L, 2L)));
+        assertEquals(1, wheel.size());
+    }
+    
+    @Test
+    void cancel_ShouldRemoveDeadline_WhenIdIsScheduled() {
+        // Arrange
+        wheel.schedule(1L, 2000);
+        
+        // Act
+        boolean canceled = wheel.cancel(1L);
+        
+        // Assert
+        assertTrue(canceled);
+        assertTrue(wheel.advance(3000).isEmpty());
+        assertFalse(wheel.cancel(1L));
+    }
+    
+    @Test
+    void schedule_ShouldReplacePreviousDeadline_WhenIdIsRescheduled() {
+        // Arrange
+        wheel.schedule(1L, 2000);
+        
+        // Act
+        wheel.schedule(1L, 6000);
+        
+        // Assert
+        assertTrue(wheel.advance(3000).isEmpty());
+        assertEquals(List.of(1L), wheel.advance(6000));
+    }
+    
+    @Test
+    void schedule_ShouldFireOnNextAdvance_WhenDeadlineIsOverdue() {
+        // Arrange
+        wheel.advance(5000);
+        
+        // Act
+        wheel.schedule(1L, 1000);
+        
+        // Assert
+        assertEquals(List.of(1L), wheel.advance(6000));
+    }
+}
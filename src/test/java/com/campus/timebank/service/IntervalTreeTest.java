@@ -0,0 +1,111 @@
+package com.campus.timebank.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntervalTreeTest {
+    
+    private IntervalTree tree;
+    
+    @BeforeEach
+    void setUp() {
+        tree = new IntervalTree();
+    }
+    
+    @Test
+    void overlapsAny_ShouldTreatIntervalsAsHalfOpen_WhenTheyTouch() {
+        // Arrange
+        tree.insert(1L, 100, 200);
+        
+        // Act & Assert
+        assertFalse(tree.overlapsAny(200, 300));
+        assertFalse(tree.overlapsAny(0, 100));
+        assertTrue(tree.overlapsAny(199, 300));
+        assertTrue(tree.overlapsAny(120, 130));
+    }
+    
+    @Test
+    void overlapping_ShouldReturnMatchesOrderedByStart_WhenSeveralOverlap() {
+        // Arrange
+        tree.insert(3L, 500, 600);
+        tree.insert(1L, 100, 200);
+        tree.insert(2L, 250, 300);
+        
+        // Act
+        List<IntervalTree.Interval> result = tree.overlapping(150, 550);
+        
+        // Assert
+        assertEquals(List.of(1L, 2L, 3L), result.stream().map(IntervalTree.Interval::id).toList());
+    }
+    
+    @Test
+    void insert_ShouldReplaceInterval_WhenIdIsInsertedAgain() {
+        // Arrange
+        tree.insert(1L, 100, 200);
+        
+        // Act
+        tree.insert(1L, 300, 400);
+        
+        // Assert
+        assertEquals(1, tree.size());
+        assertFalse(tree.overlapsAny(100, 200));
+        assertTrue(tree.overlapsAny(350, 360));
+    }
+    
+    @Test
+    void remove_ShouldFreeInterval_WhenIdIsPresent() {
+        // Arrange
+        tree.insert(1L, 100, 200);
+        tree.insert(2L, 100, 150);
+        
+        // Act
+        boolean removed = tree.remove(1L);
+        
+        // Assert
+        assertTrue(removed);
+        assertFalse(tree.remove(1L));
+        assertFalse(tree.overlapsAny(150, 200));
+        assertTrue(tree.overlapsAny(120, 130));
+    }
+    
+    @Test
+    void insert_ShouldThrowException_WhenIntervalIsEmpty() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> tree.insert(1L, 100, 100));
+    }
+    
+    @Test
+    void overlapping_ShouldMatchLinearScan_WhenIntervalsAreRandom() {
+        // Arrange
+        Random random = new Random(42);
+        long[][] intervals = new long[500][];
+        for (int i = 0; i < intervals.length; i++) {
+            long start = random.nextInt(10000);
+            intervals[i] = new long[]{start, start + 1 + random.nextInt(300)};
+            tree.insert(i, intervals[i][0], intervals[i][1]);
+        }
+        for (int i = 0; i < intervals.length; i += 3) {
+            tree.remove(i);
+            intervals[i] = null;
+        }
+        
+        // Act & Assert
+        for (int query = 0; query < 200; query++) {
+            long start = random.nextInt(10000);
+            long end = start + 1 + random.nextInt(500);
+            long expected = 0;
+            for (long[] interval : intervals) {
+                if (interval != null && interval[0] < end && start < interval[1]) {
+                    expected++;
+                }
+            }
+            assertEquals(expected, tree.overlapping(start, end).size());
+            assertEquals(expected > 0, tree.overlapsAny(start, end));
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.campus.timebank.service;
+
+import com.campus.timebank.dto.CursorPage;
+import com.campus.timebank.dto.OfferSearchResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OfferSearchServiceTest {
+    
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    
+    private OfferSearchService offerSearchService;
+    
+    @BeforeEach
+    void setUp() {
+        offerSearchService = new OfferSearchService(jdbcTemplate);
+        ReflectionTestUtils.setField(offerSearchService, "maxQueryLength", 200);
+        ReflectionTestUtils.setField(offerSearchService, "maxPageSize", 50);
+    }
+    
+    @Test
+    void search_ShouldRankMatchesAndFetchOneExtraRow_WhenNoCursor() {
+        // Arrange
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        
+        // Act
+        offerSearchService.search("calculus tutoring", null, 10);
+        
+        // Assert
+        verify(jdbcTemplate).query(sql.capture(), any(RowMapper.class), eq("calculus tutoring"), eq(11));
+        assertTrue(sql.getValue().contains("websearch_to_tsquery('english', ?)"));
+        assertTrue(sql.getValue().contains("ts_rank(o.search_vector, query.q) AS rank"));
+        assertTrue(sql.getValue().contains("o.search_vector @@ query.q AND o.status = 'ACTIVE'"));
+        assertTrue(sql.getValue().contains("ORDER BY m.rank DESC, m.id DESC LIMIT ?"));
+        assertFalse(sql.getValue().contains("(m.rank, m.id) <"));
+    }
+    
+    @Test
+    void search_ShouldSeekPastCursorRow_WhenCursorGiven() {
+        // Arrange
+        String cursor = CursorCodec.encode(0.25f, 42L);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        
+        // Act
+        offerSearchService.search("calculus", cursor, 10);
+        
+        // Assert
+        verify(jdbcTemplate).query(sql.capture(), any(RowMapper.class), eq("calculus"), eq(0.25f), eq(42L), eq(11));
+        assertTrue(sql.getValue().contains("WHERE (m.rank, m.id) < (?::real, ?)"));
+    }
+    
+    @Test
+    void search_ShouldHighlightWithSentinelsInsteadOfTags() {
+        // Arrange
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        
+        // Act
+        offerSearchService.search("calculus", null, 10);
+        
+        // Assert
+        verify(jdbcTemplate).query(sql.capture(), any(RowMapper.class), any(Object[].class));
+        assertTrue(sql.getValue().contains("'StartSel=' || chr(2) || ', StopSel=' || chr(3)"));
+        assertFalse(sql.getValue().contains("<b>"));
+    }
+    
+    @Test
+    void search_ShouldReturnCursorOfLastRow_WhenMoreRowsThanPageSize() {
+        // Arrange
+        List<OfferSearchResult> rows = List.of(result(9L, 0.5f), result(7L, 0.3f), result(3L, 0.1f));
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(rows);
+        
+        // Act
+        CursorPage<OfferSearchResult> page = offerSearchService.search("calculus", null, 2);
+        
+        // Assert
+        assertEquals(List.of(9L, 7L), page.getItems().stream().map(OfferSearchResult::getId).toList());
+        String[] key = CursorCodec.decode(page.getNextCursor(), 2);
+        assertEquals(0.3f, CursorCodec.decodeFloat(key[0]));
+        assertEquals(7L, CursorCodec.decodeLong(key[1]));
+    }
+    
+    @Test
+    void search_ShouldNotReturnCursor_WhenLastPage() {
+        // Arrange
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(List.of(result(9L, 0.5f)));
+        
+        // Act
+        CursorPage<OfferSearchResult> page = offerSearchService.search("calculus", null, 2);
+        
+        // Assert
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+    
+    @Test
+    void search_ShouldCapPageSize() {
+        // Arrange
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+        
+        // Act
+        offerSearchService.search("calculus", null, 500);
+        
+        // Assert
+        verify(jdbcTemplate).query(anyString(), any(RowMapper.class), eq("calculus"), eq(51));
+    }
+    
+    @Test
+    void search_ShouldThrowException_WhenQueryIsBlank() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> offerSearchService.search("  ", null, 10));
+        verifyNoInteractions(jdbcTemplate);
+    }
+    
+    @Test
+    void search_ShouldThrowException_WhenQueryIsTooLong() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> offerSearchService.search("a".repeat(201), null, 10));
+        verifyNoInteractions(jdbcTemplate);
+    }
+    
+    @Test
+    void toSnippet_ShouldEscapeDescriptionAndBoldOnlyMatches() {
+        // Act
+        String snippet = OfferSearchService.toSnippet("<script>alert(1)</script> \u0002calculus\u0003 & <b>more</b>");
+        
+        // Assert
+        assertEquals("&lt;script&gt;alert(1)&lt;/script&gt; <b>calculus</b> &amp; &lt;b&gt;more&lt;/b&gt;", snippet);
+    }
+    
+    private OfferSearchResult result(Long id, float rank) {
+        return OfferSearchResult.builder().id(id).rank(rank).build();
+    }
+}
@@ -1,6 +1,7 @@
 package com.campus.timebank.service;
 
 import com.campus.timebank.dto.CreateOfferRequest;
+import com.campus.timebank.dto.CursorPage;
 import com.campus.timebank.dto.OfferDto;
 import com.campus.timebank.entity.Offer;
 import com.campus.timebank.entity.User;
@@ -8,20 +9,27 @@ import com.campus.timebank.mapper.OfferMapper;
 import com.campus.timebank.repository.OfferRepository;
 import com.campus.timebank.repository.UserRepository;
 import com.campus.timebank.security.UserPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -42,6 +50,15 @@ class OfferServiceTest {
     @Mock
     private OfferMapper offerMapper;
     
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
     @Mock
     private SecurityContext securityContext;
     
@@ -59,6 +76,11 @@ class OfferServiceTest {
     
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(offerService, "cacheMaxOffers", 100L);
+        ReflectionTestUtils.setField(offerService, "cacheMaxListingWeight", 100L);
+        ReflectionTestUtils.setField(offerService, "cacheExpireAfterMs", 60000L);
+        offerService.init();
+        
         testOwner = User.builder()
                 .id(1L)
                 .email("owner@example.com")
@@ -146,6 +168,44 @@ class OfferServiceTest {
         verify(offerRepository, times(1)).findById(999L);
     }
     
+    @Test
+    void getOfferById_ShouldServeFromCache_UntilOfferChanges() {
+        // Arrange
+        when(offerRepository.findById(1L)).thenReturn(Optional.of(testOffer));
+        when(offerMapper.toDto(testOffer)).thenReturn(testOfferDto);
+        
+        // Act
+        offerService.getOfferById(1L);
+        offerService.getOfferById(1L);
+        offerService.onOfferBookingsChanged(OfferBookingsChangedEvent.countsChanged(testOffer));
+        offerService.getOfferById(1L);
+        
+        // Assert
+        verify(offerRepository, times(2)).findById(1L);
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "offers.by-id").tag("result", "hit")
+                .functionCounter().count());
+    }
+    
+    @Test
+    void onOfferBookingsChanged_ShouldOnlyDropPagesShowingOffer_WhenAvailabilityCannotChange() {
+        // Arrange
+        Offer otherOffer = Offer.builder().id(2L).owner(testOwner).title("Guitar").build();
+        when(offerRepository.findByStatusAndAvailableTrueWithOwner(eq(Offer.OfferStatus.ACTIVE), any(Pageable.class)))
+                .thenAnswer(invocation -> new PageImpl<>(List.of(
+                        ((Pageable) invocation.getArgument(1)).getPageNumber() == 0 ? testOffer : otherOffer)));
+        offerService.getActiveOffers(PageRequest.of(0, 1));
+        offerService.getActiveOffers(PageRequest.of(1, 1));
+        
+        // Act
+        offerService.onOfferBookingsChanged(OfferBookingsChangedEvent.countsChanged(testOffer));
+        offerService.getActiveOffers(PageRequest.of(0, 1));
+        offerService.getActiveOffers(PageRequest.of(1, 1));
+        
+        // Assert
+        verify(offerRepository, times(2)).findByStatusAndAvailableTrueWithOwner(Offer.OfferStatus.ACTIVE, PageRequest.of(0, 1));
+        verify(offerRepository, times(1)).findByStatusAndAvailableTrueWithOwner(Offer.OfferStatus.ACTIVE, PageRequest.of(1, 1));
+    }
+    
     @Test
     void getActiveOffers_ShouldReturnActiveOffers() {
         // Arrange
@@ -167,6 +227,50 @@ class OfferServiceTest {
         verify(offerRepository, times(1)).findByStatusAndAvailableTrue("ACTIVE", Pageable.unpaged());
     }
     
+    @Test
+    void getActiveOffersFeed_ShouldReturnCursorOfLastOffer_WhenMoreOffersFollow() {
+        // Arrange
+        testOffer.setCreatedAt(LocalDateTime.of(2024, 3, 1, 12, 0, 30, 123456000));
+        testOffer.setBookingCount(5);
+        testOffer.setActiveBookingCount(2);
+        Offer olderOffer = Offer.builder().id(2L).owner(testOwner).title("Guitar").build();
+        when(offerRepository.findActiveFeed(PageRequest.of(0, 2))).thenReturn(List.of(testOffer, olderOffer));
+        
+        // Act
+        CursorPage<OfferDto> page = offerService.getActiveOffersFeed(null, 1);
+        
+        // Assert
+        assertEquals(1, page.getItems().size());
+        assertEquals("John Doe", page.getItems().get(0).getOwnerName());
+        assertEquals(5, page.getItems().get(0).getBookingCount());
+        assertEquals(2, page.getItems().get(0).getActiveBookingCount());
+        String[] key = CursorCodec.decode(page.getNextCursor(), 2);
+        assertEquals(testOffer.getCreatedAt(), CursorCodec.decodeDateTime(key[0]));
+        assertEquals(1L, CursorCodec.decodeLong(key[1]));
+    }
+    
+    @Test
+    void getActiveOffersFeed_ShouldSeekPastCursor_WhenCursorIsGiven() {
+        // Arrange
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 1, 12, 0);
+        String cursor = CursorCodec.encode(createdAt, 7L);
+        when(offerRepository.findActiveFeedAfter(createdAt, 7L, PageRequest.of(0, 21))).thenReturn(List.of(testOffer));
+        
+        // Act
+        CursorPage<OfferDto> page = offerService.getActiveOffersFeed(cursor, 20);
+        
+        // Assert
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+    
+    @Test
+    void getActiveOffersFeed_ShouldThrowException_WhenCursorIsMalformed() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> offerService.getActiveOffersFeed("bm90LWEtY3Vyc29y", 20));
+        verifyNoInteractions(offerRepository);
+    }
+    
     @Test
     void getOffersByOwner_ShouldReturnOffersByOwner() {
         // Arrange
@@ -246,6 +350,29 @@ class OfferServiceTest {
         verify(offerRepository, times(1)).save(any(Offer.class));
     }
     
+    @Test
+    void updateOffer_ShouldThrowException_WhenCapacityIsBelowSeatsTaken() {
+        // Arrange
+        SecurityContextHolder.setContext(securityContext);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(testUserPrincipal);
+        
+        CreateOfferRequest updateRequest = CreateOfferRequest.builder()
+                .title("Updated Title")
+                .description("Updated Description")
+                .hoursRate(new BigDecimal("10.00"))
+                .capacity(2)
+                .build();
+        
+        when(offerRepository.findByIdAndOwnerId(1L, 1L)).thenReturn(Optional.of(testOffer));
+        when(offerRepository.save(any(Offer.class))).thenReturn(testOffer);
+        when(offerRepository.updateCapacity(eq(1L), eq(2), any(LocalDateTime.class))).thenReturn(0);
+        
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> offerService.updateOffer(1L, updateRequest));
+        verifyNoInteractions(offerMapper);
+    }
+    
     @Test
     void deactivateOffer_ShouldDeactivateOffer_WhenAuthorized() {
         // Arrange
@@ -262,6 +389,8 @@ class OfferServiceTest {
         // Assert
         verify(offerRepository, times(1)).findByIdAndOwnerId(1L, 1L);
         verify(offerRepository, times(1)).save(any(Offer.class));
+        verify(eventPublisher).publishEvent(new OfferChangedEvent(1L, "Programming Tutoring", "Learn Java programming",
+                "John Doe", false));
     }
     
     @Test
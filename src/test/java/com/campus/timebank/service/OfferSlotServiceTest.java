@@ -0,0 +1,111 @@
+package com.campus.timebank.service;
+
+import com.campus.timebank.dto.TimeRangeDto;
+import com.campus.timebank.entity.Offer;
+import com.campus.timebank.entity.OfferSlot;
+import com.campus.timebank.entity.User;
+import com.campus.timebank.mapper.OfferSlotMapper;
+import com.campus.timebank.repository.OfferRepository;
+import com.campus.timebank.repository.OfferSlotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OfferSlotServiceTest {
+    
+    @Mock
+    private OfferSlotRepository offerSlotRepository;
+    
+    @Mock
+    private OfferRepository offerRepository;
+    
+    @Mock
+    private OwnerScheduleService ownerScheduleService;
+    
+    @Mock
+    private OfferSlotMapper offerSlotMapper;
+    
+    @InjectMocks
+    private OfferSlotService offerSlotService;
+    
+    private Offer offer;
+    private OffsetDateTime from;
+    
+    @BeforeEach
+    void setUp() {
+        User owner = User.builder().id(2L).email("owner@example.com").build();
+        offer = Offer.builder().id(1L).owner(owner).title("Math Tutoring").build();
+        from = OffsetDateTime.now(ZoneOffset.UTC).plusDays(1).withHour(8).withMinute(0).withSecond(0).withNano(0);
+    }
+    
+    @Test
+    void getFreeSlots_ShouldSubtractOwnerBookings_WhenOfferHasSlots() {
+        // Arrange
+        OfferSlot slot = OfferSlot.builder().id(5L).offer(offer).startTime(from.plusHours(1)).endTime(from.plusHours(5)).build();
+        when(offerRepository.findById(1L)).thenReturn(Optional.of(offer));
+        when(offerSlotRepository.existsByOfferId(1L)).thenReturn(true);
+        when(offerSlotRepository.findOverlapping(1L, from, from.plusDays(1))).thenReturn(List.of(slot));
+        when(ownerScheduleService.busyBetween(eq(2L), any(), any())).thenReturn(List.of(
+                new IntervalTree.Interval(10L, millis(from.plusHours(2)), millis(from.plusHours(3)))));
+        
+        // Act
+        List<TimeRangeDto> free = offerSlotService.getFreeSlots(1L, from, from.plusDays(1));
+        
+        // Assert
+        assertEquals(2, free.size());
+        assertEquals(from.plusHours(1), free.get(0).getStartTime());
+        assertEquals(from.plusHours(2), free.get(0).getEndTime());
+        assertEquals(from.plusHours(3), free.get(1).getStartTime());
+        assertEquals(from.plusHours(5), free.get(1).getEndTime());
+    }
+    
+    @Test
+    void getFreeSlots_ShouldThrowException_WhenRangeIsTooLong() {
+        // Arrange
+        when(offerRepository.findById(1L)).thenReturn(Optional.of(offer));
+        
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> offerSlotService.getFreeSlots(1L, from, from.plusDays(60)));
+    }
+    
+    @Test
+    void checkBookable_ShouldThrowException_WhenOwnerIsBusy() {
+        // Arrange
+        when(offerSlotRepository.existsByOfferId(1L)).thenReturn(false);
+        when(ownerScheduleService.isBusy(2L, from, from.plusHours(1))).thenReturn(true);
+        
+        // Act & Assert
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> offerSlotService.checkBookable(offer, from, from.plusHours(1)));
+        assertEquals("The owner is already booked at that time", exception.getMessage());
+    }
+    
+    @Test
+    void checkBookable_ShouldThrowException_WhenTimeIsOutsideSlots() {
+        // Arrange
+        when(offerSlotRepository.existsByOfferId(1L)).thenReturn(true);
+        when(offerSlotRepository.existsContaining(1L, from, from.plusHours(1))).thenReturn(false);
+        
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> offerSlotService.checkBookable(offer, from, from.plusHours(1)));
+        verifyNoInteractions(ownerScheduleService);
+    }
+    
+    private static long millis(OffsetDateTime time) {
+        return time.toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,126 @@
+package com.campus.timebank.service;
+
+import com.campus.timebank.dto.OfferDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OfferSnapshotServiceTest {
+    
+    @Mock
+    private OfferService offerService;
+    
+    @Mock
+    private ExecutorService regenerationExecutor;
+    
+    private OfferSnapshotService offerSnapshotService;
+    
+    @BeforeEach
+    void setUp() {
+        offerSnapshotService = new OfferSnapshotService(offerService, new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(offerSnapshotService, "snapshotPages", 2);
+        ReflectionTestUtils.setField(offerSnapshotService, "pageSize", 20);
+        ReflectionTestUtils.setField(offerSnapshotService, "maxOffers", 100L);
+        ReflectionTestUtils.setField(offerSnapshotService, "offerTtlMs", 60000L);
+        offerSnapshotService.init();
+        offerSnapshotService.shutdown();
+        // Regeneration is run by hand so the tests stay deterministic
+        ReflectionTestUtils.setField(offerSnapshotService, "regenerationExecutor", regenerationExecutor);
+    }
+    
+    @Test
+    void getActiveOffersPage_ShouldReturnNull_WhenPageIsNotSnapshotted() {
+        // Arrange
+        stubActiveOffers();
+        offerSnapshotService.regeneratePages();
+        
+        // Act & Assert
+        assertNull(offerSnapshotService.getActiveOffersPage(PageRequest.of(2, 20)));
+        assertNull(offerSnapshotService.getActiveOffersPage(PageRequest.of(0, 50)));
+        assertNull(offerSnapshotService.getActiveOffersPage(PageRequest.of(0, 20, Sort.by("title"))));
+        assertNull(offerSnapshotService.getActiveOffersPage(Pageable.unpaged()));
+    }
+    
+    @Test
+    void getActiveOffersPage_ShouldServeEncodedPage_WhenSnapshotIsCurrent() throws IOException {
+        // Arrange
+        stubActiveOffers();
+        offerSnapshotService.regeneratePages();
+        
+        // Act
+        OfferSnapshot snapshot = offerSnapshotService.getActiveOffersPage(PageRequest.of(0, 20));
+        
+        // Assert
+        assertNotNull(snapshot);
+        assertTrue(new String(snapshot.identity()).contains("Math Tutoring"));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(snapshot.gzip()))) {
+            assertArrayEquals(snapshot.identity(), in.readAllBytes());
+        }
+        assertNotEquals(snapshot.etag(false), snapshot.etag(true));
+        assertFalse(snapshot.etag(false).startsWith("W/"));
+    }
+    
+    @Test
+    void onOfferChanged_ShouldStopServingPagesAndQueueRebuild() {
+        // Arrange
+        stubActiveOffers();
+        offerSnapshotService.regeneratePages();
+        when(offerService.getOfferById(1L)).thenReturn(offer());
+        offerSnapshotService.getOffer(1L);
+        
+        // Act
+        offerSnapshotService.onOfferChanged(new OfferChangedEvent(1L, "Math Tutoring", "Algebra", "Alice", false));
+        
+        // Assert
+        assertNull(offerSnapshotService.getActiveOffersPage(PageRequest.of(0, 20)));
+        // One page rebuild, and a rebuild of the offer that was being viewed
+        verify(regenerationExecutor, times(2)).execute(any(Runnable.class));
+    }
+    
+    @Test
+    void getOffer_ShouldEncodeOnce_WhenOfferIsViewedAgain() {
+        // Arrange
+        when(offerService.getOfferById(1L)).thenReturn(offer());
+        
+        // Act
+        OfferSnapshot first = offerSnapshotService.getOffer(1L);
+        OfferSnapshot second = offerSnapshotService.getOffer(1L);
+        
+        // Assert
+        assertSame(first, second);
+        verify(offerService, times(1)).getOfferById(1L);
+    }
+    
+    private void stubActiveOffers() {
+        when(offerService.getActiveOffers(any(Pageable.class)))
+                .thenAnswer(invocation -> new PageImpl<>(List.of(offer()), invocation.getArgument(0), 1));
+    }
+    
+    private OfferDto offer() {
+        return OfferDto.builder()
+                .id(1L)
+                .title("Math Tutoring")
+                .status("ACTIVE")
+                .available(true)
+                .build();
+    }
+}
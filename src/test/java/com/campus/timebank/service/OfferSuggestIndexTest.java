@@ -0,0 +1,71 @@
+package com.campus.timebank.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OfferSuggestIndexTest {
+    
+    private OfferSuggestIndex index;
+    
+    @BeforeEach
+    void setUp() {
+        index = new OfferSuggestIndex();
+        index.put(1L, "Java tutoring", "Learn Java basics", "John Doe");
+        index.put(2L, "JavaScript help", "Frontend development", "Jane Smith");
+        index.put(3L, "Guitar lessons", "Acoustic guitar for beginners", "John Roe");
+    }
+    
+    @Test
+    void suggest_ShouldCompleteLastWord_WhenItIsAPrefix() {
+        // Act
+        List<OfferSuggestIndex.Suggestion> suggestions = index.suggest("Jav", 10);
+        
+        // Assert
+        assertEquals(List.of(1L, 2L), suggestions.stream().map(OfferSuggestIndex.Suggestion::offerId).toList());
+    }
+    
+    @Test
+    void suggest_ShouldRequireEveryCompleteWord_WhenQueryHasSeveralWords() {
+        // Act
+        List<OfferSuggestIndex.Suggestion> suggestions = index.suggest("john gui", 10);
+        
+        // Assert
+        assertEquals(1, suggestions.size());
+        assertEquals("Guitar lessons", suggestions.get(0).title());
+        assertEquals("John Roe", suggestions.get(0).ownerName());
+    }
+    
+    @Test
+    void suggest_ShouldMatchWholeWordsOnly_WhenQueryEndsWithSpace() {
+        // Act
+        List<OfferSuggestIndex.Suggestion> suggestions = index.suggest("java ", 10);
+        
+        // Assert
+        assertEquals(List.of(1L), suggestions.stream().map(OfferSuggestIndex.Suggestion::offerId).toList());
+    }
+    
+    @Test
+    void suggest_ShouldReflectChanges_WhenOffersArePutAgainOrRemoved() {
+        // Act
+        index.put(2L, "Piano lessons", "Classical piano", "Jane Smith");
+        index.remove(1L);
+        
+        // Assert
+        assertTrue(index.suggest("jav", 10).isEmpty());
+        assertEquals(2, index.suggest("lessons", 10).size());
+        assertEquals(2, index.size());
+    }
+    
+    @Test
+    void suggest_ShouldStopAtLimit_WhenMoreOffersMatch() {
+        // Act
+        List<OfferSuggestIndex.Suggestion> suggestions = index.suggest("j", 2);
+        
+        // Assert
+        assertEquals(2, suggestions.size());
+    }
+}
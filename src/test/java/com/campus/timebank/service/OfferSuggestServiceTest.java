@@ -0,0 +1,78 @@
+package com.campus.timebank.service;
+
+import com.campus.timebank.dto.OfferSuggestionDto;
+import com.campus.timebank.entity.Offer;
+import com.campus.timebank.entity.User;
+import com.campus.timebank.repository.OfferRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OfferSuggestServiceTest {
+    
+    @Mock
+    private OfferRepository offerRepository;
+    
+    private OfferSuggestService offerSuggestService;
+    private User owner;
+    
+    @BeforeEach
+    void setUp() {
+        offerSuggestService = new OfferSuggestService(offerRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(offerSuggestService, "maxResults", 10);
+        offerSuggestService.init();
+        owner = User.builder().id(1L).firstName("John").lastName("Doe").build();
+    }
+    
+    @Test
+    void rebuild_ShouldKeepChanges_WhenTheyCommitDuringTheRead() {
+        // Arrange
+        Offer java = offer(1L, "Java tutoring", Offer.OfferStatus.ACTIVE);
+        Offer guitar = offer(2L, "Guitar lessons", Offer.OfferStatus.ACTIVE);
+        when(offerRepository.findAllByStatusWithOwner(Offer.OfferStatus.ACTIVE)).thenAnswer(invocation -> {
+            // Committed after the read took its snapshot, so neither change is in the result
+            offerSuggestService.onOfferChanged(OfferChangedEvent.of(offer(3L, "Java code review", Offer.OfferStatus.ACTIVE)));
+            offerSuggestService.onOfferChanged(OfferChangedEvent.of(offer(2L, "Guitar lessons", Offer.OfferStatus.INACTIVE)));
+            return List.of(java, guitar);
+        });
+        
+        // Act
+        offerSuggestService.rebuild();
+        
+        // Assert
+        assertEquals(List.of(3L, 1L), ids(offerSuggestService.suggest("jav", 10)));
+        assertTrue(offerSuggestService.suggest("guitar", 10).isEmpty());
+    }
+    
+    @Test
+    void onOfferChanged_ShouldApplyToIndex_WhenNoRebuildIsRunning() {
+        // Arrange
+        when(offerRepository.findAllByStatusWithOwner(Offer.OfferStatus.ACTIVE))
+                .thenReturn(List.of(offer(1L, "Java tutoring", Offer.OfferStatus.ACTIVE)));
+        offerSuggestService.rebuild();
+        
+        // Act
+        offerSuggestService.onOfferChanged(OfferChangedEvent.of(offer(1L, "Java tutoring", Offer.OfferStatus.INACTIVE)));
+        
+        // Assert
+        assertTrue(offerSuggestService.suggest("jav", 10).isEmpty());
+    }
+    
+    private Offer offer(Long id, String title, Offer.OfferStatus status) {
+        return Offer.builder().id(id).title(title).description("").owner(owner).status(status).build();
+    }
+    
+    private static List<Long> ids(List<OfferSuggestionDto> suggestions) {
+        return suggestions.stream().map(OfferSuggestionDto::getId).toList();
+    }
+}
@@ -0,0 +1,73 @@
+package com.campus.timebank.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimisticLockRetryTest {
+    
+    private SimpleMeterRegistry meterRegistry;
+    private OptimisticLockRetry optimisticLockRetry;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        optimisticLockRetry = new OptimisticLockRetry(meterRegistry);
+        ReflectionTestUtils.setField(optimisticLockRetry, "maxAttempts", 3);
+        ReflectionTestUtils.setField(optimisticLockRetry, "initialBackoffMs", 1L);
+        ReflectionTestUtils.setField(optimisticLockRetry, "maxBackoffMs", 5L);
+    }
+    
+    @Test
+    void execute_ShouldRetry_WhenConflictIsTransient() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        
+        // Act
+        String result = optimisticLockRetry.execute("booking.confirm", () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("Row was updated by another transaction");
+            }
+            return "confirmed";
+        });
+        
+        // Assert
+        assertEquals("confirmed", result);
+        assertEquals(3, calls.get());
+        assertEquals(2.0, meterRegistry.counter("optimistic.lock.conflicts", "operation", "booking.confirm").count());
+        assertEquals(2.0, meterRegistry.counter("optimistic.lock.retries", "operation", "booking.confirm").count());
+    }
+    
+    @Test
+    void execute_ShouldRethrow_WhenAttemptsAreExhausted() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        
+        // Act & Assert
+        assertThrows(OptimisticLockingFailureException.class, () -> optimisticLockRetry.execute("booking.cancel", () -> {
+            calls.incrementAndGet();
+            throw new OptimisticLockingFailureException("Row was updated by another transaction");
+        }));
+        assertEquals(3, calls.get());
+        assertEquals(1.0, meterRegistry.counter("optimistic.lock.exhausted", "operation", "booking.cancel").count());
+    }
+    
+    @Test
+    void execute_ShouldNotRetry_WhenExceptionIsUnrelated() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> optimisticLockRetry.execute("booking.complete", () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("Only confirmed bookings can be completed");
+        }));
+        assertEquals(1, calls.get());
+    }
+}
@@ -0,0 +1,84 @@
+package com.campus.timebank.service;
+
+import com.campus.timebank.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OwnerScheduleServiceTest {
+    
+    @Mock
+    private BookingRepository bookingRepository;
+    
+    private OwnerScheduleService ownerScheduleService;
+    private OffsetDateTime start;
+    
+    @BeforeEach
+    void setUp() {
+        ownerScheduleService = new OwnerScheduleService(bookingRepository);
+        ReflectionTestUtils.setField(ownerScheduleService, "maxOwners", 100L);
+        ReflectionTestUtils.setField(ownerScheduleService, "ttlMs", 60000L);
+        ownerScheduleService.init();
+        
+        start = OffsetDateTime.now().plusDays(3);
+        when(bookingRepository.findTimedSlotsByOwnerEndingAfter(eq(2L), any(OffsetDateTime.class)))
+                .thenReturn(List.<Object[]>of(new Object[]{5L, start, start.plusHours(1)}));
+    }
+    
+    @Test
+    void isBusy_ShouldConfirmWithDatabase_WhenTreeReportsConflict() {
+        // Arrange
+        when(bookingRepository.existsOverlappingSlot(2L, start, start.plusHours(1))).thenReturn(true);
+        
+        // Act & Assert
+        assertTrue(ownerScheduleService.isBusy(2L, start, start.plusHours(1)));
+    }
+    
+    @Test
+    void isBusy_ShouldReloadTree_WhenConflictWasCanceledOnAnotherNode() {
+        // Arrange
+        when(bookingRepository.existsOverlappingSlot(2L, start, start.plusHours(1))).thenReturn(false);
+        
+        // Act
+        boolean busy = ownerScheduleService.isBusy(2L, start, start.plusHours(1));
+        ownerScheduleService.busyBetween(2L, start, start.plusDays(1));
+        
+        // Assert
+        assertFalse(busy);
+        verify(bookingRepository, times(2)).findTimedSlotsByOwnerEndingAfter(eq(2L), any(OffsetDateTime.class));
+    }
+    
+    @Test
+    void isBusy_ShouldNotQueryDatabase_WhenSlotIsFreeInTree() {
+        // Act
+        boolean busy = ownerScheduleService.isBusy(2L, start.plusHours(1), start.plusHours(2));
+        
+        // Assert
+        assertFalse(busy);
+        verify(bookingRepository, never()).existsOverlappingSlot(anyLong(), any(), any());
+    }
+    
+    @Test
+    void bookingRemoved_ShouldFreeSlotInCachedTree() {
+        // Arrange
+        ownerScheduleService.busyBetween(2L, start, start.plusDays(1));
+        
+        // Act
+        ownerScheduleService.bookingRemoved(2L, 5L);
+        
+        // Assert
+        assertTrue(ownerScheduleService.busyBetween(2L, start, start.plusDays(1)).isEmpty());
+        verify(bookingRepository, never()).existsOverlappingSlot(anyLong(), any(), any());
+    }
+}
@@ -0,0 +1,120 @@
+package com.campus.timebank.service;
+
+import com.campus.timebank.entity.RefreshToken;
+import com.campus.timebank.entity.User;
+import com.campus.timebank.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+    
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+    
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+    
+    private User testUser;
+    
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(refreshTokenService, "refreshExpiration", 1209600000L);
+        
+        testUser = User.builder()
+                .id(1L)
+                .email("test@example.com")
+                .role(User.UserRole.STUDENT)
+                .active(true)
+                .build();
+    }
+    
+    @Test
+    void issue_ShouldStoreHashInsteadOfRawToken() {
+        // Act
+        String rawToken = refreshTokenService.issue(testUser);
+        
+        // Assert
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        assertNotEquals(rawToken, captor.getValue().getTokenHash());
+        assertEquals(64, captor.getValue().getTokenHash().length());
+        assertNotNull(captor.getValue().getFamilyId());
+    }
+    
+    @Test
+    void rotate_ShouldIssueTokenInSameFamily_WhenTokenIsUnused() {
+        // Arrange
+        RefreshToken stored = storedToken(null, LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.markUsed(eq(10L), any(LocalDateTime.class))).thenReturn(1);
+        
+        // Act
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate("raw-token");
+        
+        // Assert
+        assertSame(testUser, rotation.user());
+        assertNotNull(rotation.refreshToken());
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        assertEquals("family-1", captor.getValue().getFamilyId());
+        verify(refreshTokenRepository, never()).revokeFamily(anyString(), any());
+    }
+    
+    @Test
+    void rotate_ShouldRevokeFamily_WhenTokenIsReused() {
+        // Arrange
+        RefreshToken stored = storedToken(LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+        
+        // Act & Assert
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate("raw-token"));
+        verify(refreshTokenRepository).revokeFamily(eq("family-1"), any(LocalDateTime.class));
+        verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+    }
+    
+    @Test
+    void rotate_ShouldThrowException_WhenTokenIsExpired() {
+        // Arrange
+        RefreshToken stored = storedToken(null, LocalDateTime.now().minusMinutes(1));
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+        
+        // Act & Assert
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate("raw-token"));
+        verify(refreshTokenRepository, never()).markUsed(anyLong(), any());
+    }
+    
+    @Test
+    void rotate_ShouldThrowException_WhenTokenIsUnknown() {
+        // Arrange
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+        
+        // Act & Assert
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate("unknown"));
+    }
+    
+    private RefreshToken storedToken(LocalDateTime revokedAt, LocalDateTime expiresAt) {
+        return RefreshToken.builder()
+                .id(10L)
+                .user(testUser)
+                .tokenHash("hash")
+                .familyId("family-1")
+                .expiresAt(expiresAt)
+                .revokedAt(revokedAt)
+                .build();
+    }
+}
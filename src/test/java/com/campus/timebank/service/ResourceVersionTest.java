@@ -0,0 +1,48 @@
+package com.campus.timebank.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResourceVersionTest {
+    
+    @Test
+    void of_ShouldUseNewestTimestampAsLastModified() {
+        // Arrange
+        LocalDateTime older = LocalDateTime.of(2024, 3, 1, 10, 0);
+        LocalDateTime newer = LocalDateTime.of(2024, 3, 2, 10, 0);
+        
+        // Act
+        ResourceVersion version = ResourceVersion.of(1L, older, 4L, newer, null);
+        
+        // Assert
+        assertEquals(newer, version.lastModified());
+        assertTrue(version.etag().startsWith("W/\""));
+    }
+    
+    @Test
+    void of_ShouldChangeTag_WhenTimestampMovesWithinSameMillisecond() {
+        // Arrange
+        LocalDateTime time = LocalDateTime.of(2024, 3, 1, 10, 0, 0, 1_000_000);
+        
+        // Act
+        ResourceVersion first = ResourceVersion.of(1L, time);
+        ResourceVersion second = ResourceVersion.of(1L, time.plusNanos(1_000));
+        
+        // Assert
+        assertNotEquals(first.tag(), second.tag());
+        assertEquals(first.lastModifiedMillis(), second.lastModifiedMillis());
+    }
+    
+    @Test
+    void lastModifiedMillis_ShouldBeNegative_WhenThereIsNoTimestamp() {
+        // Act
+        ResourceVersion version = ResourceVersion.of(1L, 0L, null);
+        
+        // Assert
+        assertNull(version.lastModified());
+        assertEquals(-1, version.lastModifiedMillis());
+    }
+}
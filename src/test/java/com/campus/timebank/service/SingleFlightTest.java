@@ -0,0 +1,139 @@
+package com.campus.timebank.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+    
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlight singleFlight;
+    private ExecutorService executor;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight(meterRegistry);
+        ReflectionTestUtils.setField(singleFlight, "maxKeys", 100);
+        singleFlight.init();
+        executor = Executors.newFixedThreadPool(4);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+    
+    @Test
+    void execute_ShouldShareOneCall_WhenIdenticalReadsOverlap() throws Exception {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        
+        // Act
+        for (int i = 0; i < 4; i++) {
+            results.add(executor.submit(() -> singleFlight.execute("offers.byId", 1L, () -> {
+                calls.incrementAndGet();
+                awaitQuietly(release);
+                return "offer-1";
+            })));
+        }
+        // The first caller is blocked in its query until the other three have joined it
+        while (coalesced("offers.byId") < 3) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        
+        // Assert
+        for (Future<String> result : results) {
+            assertEquals("offer-1", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, calls.get());
+        assertEquals(0.0, meterRegistry.get("single.flight.keys").gauge().value());
+    }
+    
+    @Test
+    void execute_ShouldGiveWaitingCallersTheSameException_WhenCallFails() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> first = executor.submit(() -> singleFlight.execute("offers.byId", 2L, () -> {
+            awaitQuietly(release);
+            throw new IllegalArgumentException("Offer not found with id: 2");
+        }));
+        while (meterRegistry.get("single.flight.keys").gauge().value() < 1) {
+            Thread.sleep(5);
+        }
+        Future<String> second = executor.submit(() -> singleFlight.execute("offers.byId", 2L, () -> "unexpected"));
+        
+        // Act
+        while (coalesced("offers.byId") < 1) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        
+        // Assert
+        Exception firstFailure = assertThrows(Exception.class, () -> first.get(5, TimeUnit.SECONDS));
+        Exception secondFailure = assertThrows(Exception.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, firstFailure.getCause());
+        assertSame(firstFailure.getCause(), secondFailure.getCause());
+    }
+    
+    @Test
+    void execute_ShouldRunAgain_WhenPreviousCallHasFinished() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        
+        // Act
+        singleFlight.execute("offers.byId", 3L, calls::incrementAndGet);
+        int second = singleFlight.execute("offers.byId", 3L, calls::incrementAndGet);
+        
+        // Assert
+        assertEquals(2, second);
+        assertEquals(0.0, coalesced("offers.byId"));
+    }
+    
+    @Test
+    void execute_ShouldBypass_WhenKeyTableIsFull() {
+        // Arrange
+        ReflectionTestUtils.setField(singleFlight, "maxKeys", 0);
+        
+        // Act
+        String result = singleFlight.execute("offers.byId", 4L, () -> "offer-4");
+        
+        // Assert
+        assertEquals("offer-4", result);
+        assertEquals(1.0, meterRegistry.get("single.flight.calls")
+                .tag("outcome", "bypassed").counter().count());
+    }
+    
+    private double coalesced(String operation) {
+        Counter counter = meterRegistry.find("single.flight.calls")
+                .tag("operation", operation)
+                .tag("outcome", "coalesced")
+                .counter();
+        return counter == null ? 0.0 : counter.count();
+    }
+    
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.campus.timebank.service;
+
+import com.campus.timebank.dto.UserImportResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserImportServiceTest {
+    
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    private UserImportService userImportService;
+    
+    @BeforeEach
+    void setUp() {
+        userImportService = new UserImportService(jdbcTemplate, transactionManager, objectMapper,
+                Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(userImportService, "bcryptStrength", 4);
+        ReflectionTestUtils.setField(userImportService, "hashThreads", 2);
+        ReflectionTestUtils.setField(userImportService, "batchSize", 500);
+        ReflectionTestUtils.setField(userImportService, "initialBalance", new BigDecimal("10.00"));
+        userImportService.init();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        userImportService.shutdown();
+    }
+    
+    @Test
+    void importUsers_ShouldReportResultPerRow_WhenCsvHasInvalidAndRepeatedRows() throws Exception {
+        // Arrange
+        returnCreatedUser("alice@example.com", 7L);
+        String csv = "email,password,first_name,last_name,faculty\n" +
+                "alice@example.com,password123,Alice,Smith,\"Engineering, Civil\"\n" +
+                "bob@example.com,,Bob,Jones,Science\n" +
+                "alice@example.com,password456,Alice,Again,Science\n";
+        
+        // Act
+        List<UserImportResult> results = runImport(csv, UserImportService.Format.CSV);
+        
+        // Assert
+        assertEquals(3, results.size());
+        assertEquals(UserImportResult.Status.CREATED, results.get(0).getStatus());
+        assertEquals(7L, results.get(0).getUserId());
+        assertEquals(2, results.get(0).getLine());
+        assertEquals(UserImportResult.Status.INVALID, results.get(1).getStatus());
+        assertEquals(UserImportResult.Status.DUPLICATE, results.get(2).getStatus());
+        verify(jdbcTemplate, times(1)).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+    
+    @Test
+    void importUsers_ShouldReportDuplicate_WhenEmailAlreadyRegistered() throws Exception {
+        // Arrange
+        returnCreatedUser("new@example.com", 8L);
+        String ndjson = "{\"email\":\"new@example.com\",\"password\":\"password123\",\"firstName\":\"New\",\"lastName\":\"User\"}\n" +
+                "{\"email\":\"existing@example.com\",\"password\":\"password123\",\"firstName\":\"Old\",\"lastName\":\"User\"}\n" +
+                "{not json\n";
+        
+        // Act
+        List<UserImportResult> results = runImport(ndjson, UserImportService.Format.NDJSON);
+        
+        // Assert
+        assertEquals(3, results.size());
+        assertEquals(UserImportResult.Status.CREATED, results.get(0).getStatus());
+        assertEquals(UserImportResult.Status.DUPLICATE, results.get(1).getStatus());
+        assertEquals(UserImportResult.Status.INVALID, results.get(2).getStatus());
+        assertEquals("Malformed JSON", results.get(2).getMessage());
+    }
+    
+    @Test
+    void parseCsvLine_ShouldHandleQuotedCommasAndEscapedQuotes() {
+        // Act
+        List<String> values = UserImportService.parseCsvLine("a,\"b, c\",\"say \"\"hi\"\"\",");
+        
+        // Assert
+        assertEquals(List.of("a", "b, c", "say \"hi\"", ""), values);
+    }
+    
+    private void returnCreatedUser(String email, long id) throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getString("email")).thenReturn(email);
+        when(resultSet.getLong("id")).thenReturn(id);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(resultSet);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+    
+    private List<UserImportResult> runImport(String body, UserImportService.Format format) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        userImportService.importUsers(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), format, output);
+        
+        List<UserImportResult> results = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            results.add(objectMapper.readValue(line, UserImportResult.class));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,251 @@
+package com.campus.timebank.service;
+
+import com.campus.timebank.dto.CreateBookingRequest;
+import com.campus.timebank.dto.WaitlistPositionDto;
+import com.campus.timebank.entity.Booking;
+import com.campus.timebank.entity.Offer;
+import com.campus.timebank.entity.User;
+import com.campus.timebank.entity.WaitlistEntry;
+import com.campus.timebank.mapper.WaitlistEntryMapper;
+import com.campus.timebank.repository.BookingRepository;
+import com.campus.timebank.repository.OfferRepository;
+import com.campus.timebank.repository.UserRepository;
+import com.campus.timebank.repository.WaitlistEntryRepository;
+import com.campus.timebank.security.UserPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WaitlistServiceTest {
+    
+    @Mock
+    private WaitlistEntryRepository waitlistEntryRepository;
+    
+    @Mock
+    private OfferRepository offerRepository;
+    
+    @Mock
+    private UserRepository userRepository;
+    
+    @Mock
+    private BookingRepository bookingRepository;
+    
+    @Mock
+    private WaitlistEntryMapper waitlistEntryMapper;
+    
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private SimpleMeterRegistry meterRegistry;
+    private WaitlistService waitlistService;
+    private WaitlistEntry entry;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        waitlistService = new WaitlistService(waitlistEntryRepository, offerRepository, userRepository,
+                bookingRepository, waitlistEntryMapper, eventPublisher, transactionManager, meterRegistry);
+        ReflectionTestUtils.setField(waitlistService, "mirrorMaxOffers", 100L);
+        ReflectionTestUtils.setField(waitlistService, "mirrorMaxPositions", 3);
+        ReflectionTestUtils.setField(waitlistService, "mirrorTtlMs", 60000L);
+        waitlistService.init();
+        
+        User requester = User.builder().id(1L).email("requester@example.com").build();
+        Offer offer = Offer.builder().id(1L).title("Math Tutoring").build();
+        entry = WaitlistEntry.builder()
+                .id(10L)
+                .offer(offer)
+                .user(requester)
+                .hours(new BigDecimal("2.00"))
+                .position(42L)
+                .build();
+        
+        UserPrincipal principal = new UserPrincipal(1L, "requester@example.com", "password", null);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+    
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+    
+    @Test
+    void promoteNext_ShouldCreatePendingBookingForHead_WhenSeatIsFree() {
+        // Arrange
+        when(waitlistEntryRepository.lockNextWaiting(1L)).thenReturn(Optional.of(entry));
+        when(offerRepository.claimSeat(eq(1L), any(LocalDateTime.class))).thenReturn(1);
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // Act
+        boolean promoted = waitlistService.promoteNext(1L);
+        
+        // Assert
+        assertTrue(promoted);
+        assertEquals(WaitlistEntry.WaitlistStatus.PROMOTED, entry.getStatus());
+        assertEquals(Booking.BookingStatus.PENDING, entry.getBooking().getStatus());
+        assertEquals(new BigDecimal("2.00"), entry.getBooking().getReservedHours());
+        assertEquals(1, meterRegistry.get("waitlist.promotions").counter().count());
+    }
+    
+    @Test
+    void promoteNext_ShouldLockOfferBeforeQueueHead() {
+        // Arrange
+        when(waitlistEntryRepository.lockNextWaiting(1L)).thenReturn(Optional.empty());
+        
+        // Act
+        boolean promoted = waitlistService.promoteNext(1L);
+        
+        // Assert
+        assertFalse(promoted);
+        InOrder inOrder = inOrder(offerRepository, waitlistEntryRepository);
+        inOrder.verify(offerRepository).lockById(1L);
+        inOrder.verify(waitlistEntryRepository).lockNextWaiting(1L);
+        verify(offerRepository, never()).claimSeat(anyLong(), any());
+    }
+    
+    @Test
+    void promoteNext_ShouldKeepHeadWaiting_WhenOfferIsFull() {
+        // Arrange
+        when(waitlistEntryRepository.lockNextWaiting(1L)).thenReturn(Optional.of(entry));
+        when(offerRepository.claimSeat(eq(1L), any(LocalDateTime.class))).thenReturn(0);
+        
+        // Act
+        boolean promoted = waitlistService.promoteNext(1L);
+        
+        // Assert
+        assertFalse(promoted);
+        assertEquals(WaitlistEntry.WaitlistStatus.WAITING, entry.getStatus());
+        verifyNoInteractions(bookingRepository);
+    }
+    
+    @Test
+    void getPosition_ShouldAnswerFromMirror_WhenPositionsAreLoaded() {
+        // Arrange
+        when(waitlistEntryRepository.findWaiting(1L, 1L)).thenReturn(Optional.of(entry));
+        when(waitlistEntryRepository.findWaitingPositions(eq(1L), any(Pageable.class))).thenReturn(List.of(7L, 42L));
+        
+        // Act
+        WaitlistPositionDto first = waitlistService.getPosition(1L);
+        WaitlistPositionDto second = waitlistService.getPosition(1L);
+        
+        // Assert
+        assertEquals(2L, first.getPosition());
+        assertEquals(2L, first.getQueueLength());
+        assertEquals(first, second);
+        verify(waitlistEntryRepository, times(1)).findWaitingPositions(eq(1L), any(Pageable.class));
+    }
+    
+    @Test
+    void getPosition_ShouldReloadMirror_WhenEntryJoinedAfterItWasLoaded() {
+        // Arrange
+        when(waitlistEntryRepository.findWaiting(1L, 1L)).thenReturn(Optional.of(entry));
+        when(waitlistEntryRepository.findWaitingPositions(eq(1L), any(Pageable.class)))
+                .thenReturn(List.of(7L), List.of(7L, 42L));
+        
+        // Act
+        WaitlistPositionDto position = waitlistService.getPosition(1L);
+        
+        // Assert
+        assertEquals(2L, position.getPosition());
+        verify(waitlistEntryRepository, times(2)).findWaitingPositions(eq(1L), any(Pageable.class));
+    }
+    
+    @Test
+    void getPosition_ShouldCountInDatabase_WhenEntryIsBeyondMirror() {
+        // Arrange
+        when(waitlistEntryRepository.findWaiting(1L, 1L)).thenReturn(Optional.of(entry));
+        when(waitlistEntryRepository.findWaitingPositions(eq(1L), any(Pageable.class))).thenReturn(List.of(3L, 5L, 7L));
+        when(waitlistEntryRepository.countWaitingAhead(1L, 42L)).thenReturn(9L);
+        when(waitlistEntryRepository.countWaiting(1L)).thenReturn(15L);
+        
+        // Act
+        WaitlistPositionDto position = waitlistService.getPosition(1L);
+        
+        // Assert
+        assertEquals(10L, position.getPosition());
+        assertEquals(15L, position.getQueueLength());
+        verify(waitlistEntryRepository, times(1)).findWaitingPositions(eq(1L), any(Pageable.class));
+    }
+    
+    @Test
+    void join_ShouldRejectRequest_WhenHoursAreMissing() {
+        // Arrange
+        CreateBookingRequest request = CreateBookingRequest.builder().offerId(1L).build();
+        
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> waitlistService.join(request));
+        verifyNoInteractions(waitlistEntryRepository);
+    }
+    
+    @Test
+    void join_ShouldRejectRequest_WhenTimeSlotIsGiven() {
+        // Arrange
+        OffsetDateTime start = OffsetDateTime.now().plusDays(1);
+        CreateBookingRequest request = CreateBookingRequest.builder()
+                .offerId(1L)
+                .hours(new BigDecimal("1.00"))
+                .startTime(start)
+                .endTime(start.plusHours(1))
+                .build();
+        
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> waitlistService.join(request));
+        verifyNoInteractions(waitlistEntryRepository);
+    }
+    
+    @Test
+    void join_ShouldReportAlreadyWaiting_WhenConcurrentJoinWon() {
+        // Arrange
+        User owner = User.builder().id(2L).build();
+        Offer offer = Offer.builder().id(1L).owner(owner).status(Offer.OfferStatus.ACTIVE).build();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(entry.getUser()));
+        when(offerRepository.findById(1L)).thenReturn(Optional.of(offer));
+        when(waitlistEntryRepository.findWaiting(1L, 1L)).thenReturn(Optional.empty());
+        when(waitlistEntryRepository.saveAndFlush(any(WaitlistEntry.class))).thenThrow(new DataIntegrityViolationException(
+                "duplicate key value violates unique constraint \"uq_waitlist_entries_waiting_user\""));
+        CreateBookingRequest request = CreateBookingRequest.builder()
+                .offerId(1L)
+                .hours(new BigDecimal("2.00"))
+                .build();
+        
+        // Act & Assert
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> waitlistService.join(request));
+        assertEquals("You are already on this offer's waitlist", exception.getMessage());
+    }
+    
+    @Test
+    void leave_ShouldThrowException_WhenUserIsNotWaiting() {
+        // Arrange
+        when(waitlistEntryRepository.leave(eq(1L), eq(1L), any(LocalDateTime.class))).thenReturn(0);
+        
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> waitlistService.leave(1L));
+    }
+}
@@ -0,0 +1,259 @@
+package com.campus.timebank.service;
+
+import com.campus.timebank.entity.Booking;
+import com.campus.timebank.entity.Offer;
+import com.campus.timebank.entity.User;
+import com.campus.timebank.entity.WalletHold;
+import com.campus.timebank.repository.BookingRepository;
+import com.campus.timebank.repository.OfferRepository;
+import com.campus.timebank.repository.TransactionRepository;
+import com.campus.timebank.repository.WalletHoldRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WalletHoldServiceTest {
+    
+    @Mock
+    private WalletHoldRepository walletHoldRepository;
+    
+    @Mock
+    private WalletService walletService;
+    
+    @Mock
+    private BookingRepository bookingRepository;
+    
+    @Mock
+    private OfferRepository offerRepository;
+    
+    @Mock
+    private WaitlistService waitlistService;
+    
+    @Mock
+    private OwnerScheduleService ownerScheduleService;
+    
+    @Mock
+    private TransactionRepository transactionRepository;
+    
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private SimpleMeterRegistry meterRegistry;
+    private WalletHoldService walletHoldService;
+    private User owner;
+    private User requester;
+    private Booking booking;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        walletHoldService = new WalletHoldService(walletHoldRepository, walletService, bookingRepository,
+                offerRepository, waitlistService, ownerScheduleService, transactionRepository, eventPublisher,
+                transactionManager, meterRegistry);
+        ReflectionTestUtils.setField(walletHoldService, "ttlHours", 168L);
+        ReflectionTestUtils.setField(walletHoldService, "slotGraceHours", 48L);
+        ReflectionTestUtils.setField(walletHoldService, "tickMs", 1000L);
+        ReflectionTestUtils.setField(walletHoldService, "wheelSize", 64);
+        walletHoldService.init();
+        
+        owner = User.builder().id(2L).email("owner@example.com").build();
+        requester = User.builder().id(1L).email("requester@example.com").build();
+        Offer offer = Offer.builder().id(1L).owner(owner).title("Math Tutoring").build();
+        booking = Booking.builder()
+                .id(1L)
+                .offer(offer)
+                .requester(requester)
+                .status(Booking.BookingStatus.CONFIRMED)
+                .reservedHours(new BigDecimal("2.00"))
+                .build();
+    }
+    
+    @Test
+    void placeHolds_ShouldHoldTotalOnceAndScheduleDeadlines() {
+        // Arrange
+        Booking second = Booking.builder()
+                .id(2L)
+                .offer(booking.getOffer())
+                .requester(requester)
+                .reservedHours(new BigDecimal("1.50"))
+                .build();
+        when(walletHoldRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<WalletHold> holds = invocation.getArgument(0);
+            for (int i = 0; i < holds.size(); i++) {
+                holds.get(i).setId(10L + i);
+            }
+            return holds;
+        });
+        
+        // Act
+        List<WalletHold> holds = walletHoldService.placeHolds(2L, List.of(booking, second));
+        
+        // Assert
+        assertEquals(2, holds.size());
+        assertTrue(holds.stream().allMatch(hold -> hold.getUser() == owner
+                && hold.getStatus() == WalletHold.HoldStatus.ACTIVE));
+        verify(walletService, times(1)).hold(2L, new BigDecimal("3.50"));
+        assertEquals(2, meterRegistry.get("wallet.holds.scheduled").gauge().value());
+    }
+    
+    @Test
+    void placeHold_ShouldExpireAfterSession_WhenSlotIsBookedTwoWeeksAhead() {
+        // Arrange
+        OffsetDateTime start = OffsetDateTime.now().plusWeeks(2);
+        booking.setStartTime(start);
+        booking.setEndTime(start.plusHours(2));
+        when(walletHoldRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<WalletHold> holds = invocation.getArgument(0);
+            holds.get(0).setId(10L);
+            return holds;
+        });
+        
+        // Act
+        WalletHold hold = walletHoldService.placeHold(booking);
+        
+        // Assert
+        LocalDateTime sessionEnd = booking.getEndTime().atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        assertTrue(hold.getExpiresAt().isAfter(sessionEnd));
+        assertFalse(hold.getExpiresAt().isAfter(sessionEnd.plusHours(48)));
+    }
+    
+    @Test
+    void placeHold_ShouldExpireAfterTtl_WhenBookingIsUntimed() {
+        // Arrange
+        when(walletHoldRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<WalletHold> holds = invocation.getArgument(0);
+            holds.get(0).setId(10L);
+            return holds;
+        });
+        
+        // Act
+        WalletHold hold = walletHoldService.placeHold(booking);
+        
+        // Assert
+        assertTrue(hold.getExpiresAt().isAfter(LocalDateTime.now().plusHours(167)));
+        assertFalse(hold.getExpiresAt().isAfter(LocalDateTime.now().plusHours(168)));
+    }
+    
+    @Test
+    void placeHold_ShouldNotSaveHold_WhenAvailableBalanceIsShort() {
+        // Arrange
+        doThrow(new IllegalStateException("Insufficient balance"))
+                .when(walletService).hold(2L, new BigDecimal("2.00"));
+        
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> walletHoldService.placeHold(booking));
+        verifyNoInteractions(walletHoldRepository);
+    }
+    
+    @Test
+    void commitHold_ShouldSettleHeldHoursWithRequester_WhenHoldIsActive() {
+        // Arrange
+        WalletHold hold = activeHold();
+        when(walletHoldRepository.findActiveByBookingId(1L)).thenReturn(Optional.of(hold));
+        when(walletHoldRepository.resolve(eq(10L), eq(WalletHold.HoldStatus.COMMITTED), any(LocalDateTime.class)))
+                .thenReturn(1);
+        
+        // Act
+        boolean committed = walletHoldService.commitHold(booking);
+        
+        // Assert
+        assertTrue(committed);
+        verify(walletService, times(1)).settleHold(2L, 1L, new BigDecimal("2.00"));
+    }
+    
+    @Test
+    void commitHold_ShouldReturnFalse_WhenBookingHasNoHold() {
+        // Arrange
+        when(walletHoldRepository.findActiveByBookingId(1L)).thenReturn(Optional.empty());
+        
+        // Act
+        boolean committed = walletHoldService.commitHold(booking);
+        
+        // Assert
+        assertFalse(committed);
+        verifyNoInteractions(walletService);
+    }
+    
+    @Test
+    void releaseHold_ShouldThrowException_WhenHoldWasSettledConcurrently() {
+        // Arrange
+        when(walletHoldRepository.findActiveByBookingId(1L)).thenReturn(Optional.of(activeHold()));
+        when(walletHoldRepository.resolve(eq(10L), eq(WalletHold.HoldStatus.RELEASED), any(LocalDateTime.class)))
+                .thenReturn(0);
+        
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> walletHoldService.releaseHold(booking));
+        verifyNoInteractions(walletService);
+    }
+    
+    @Test
+    void expireDueHolds_ShouldFreeOwnerSchedule_WhenTimedBookingExpires() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(walletHoldService, "tickMs", 1L);
+        walletHoldService.init();
+        booking.setSlotOwnerId(2L);
+        WalletHold hold = activeHold();
+        hold.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        when(walletHoldRepository.findActiveDeadlinesUpdatedSince(any(LocalDateTime.class)))
+                .thenReturn(List.<Object[]>of(new Object[]{10L, hold.getExpiresAt()}));
+        when(walletHoldRepository.findByIdWithBooking(10L)).thenReturn(Optional.of(hold));
+        when(bookingRepository.cancelAsParticipant(eq(1L), eq(2L), eq(Booking.BookingStatus.CONFIRMED), anyString(),
+                any(LocalDateTime.class))).thenReturn(1);
+        when(walletHoldRepository.expireIfDue(eq(10L), any(LocalDateTime.class))).thenReturn(1);
+        walletHoldService.sync();
+        Thread.sleep(5);
+        
+        // Act
+        walletHoldService.expireDueHolds();
+        
+        // Assert
+        verify(ownerScheduleService).bookingRemoved(2L, 1L);
+        verify(walletService).releaseHold(2L, new BigDecimal("2.00"));
+        assertEquals(1, meterRegistry.get("wallet.holds.expired").counter().count());
+    }
+    
+    @Test
+    void sync_ShouldScheduleActiveHoldsFromTable() {
+        // Arrange
+        when(walletHoldRepository.findActiveDeadlinesUpdatedSince(any(LocalDateTime.class)))
+                .thenReturn(List.<Object[]>of(new Object[]{10L, LocalDateTime.now().plusHours(1)}));
+        
+        // Act
+        walletHoldService.sync();
+        walletHoldService.sync();
+        
+        // Assert
+        assertEquals(1, meterRegistry.get("wallet.holds.scheduled").gauge().value());
+    }
+    
+    private WalletHold activeHold() {
+        return WalletHold.builder()
+                .id(10L)
+                .user(owner)
+                .booking(booking)
+                .amount(new BigDecimal("2.00"))
+                .expiresAt(LocalDateTime.now().plusHours(168))
+                .build();
+    }
+}
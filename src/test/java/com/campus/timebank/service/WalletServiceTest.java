@@ -1,8 +1,148 @@
 package com.campus.timebank.service;
 
+import com.campus.timebank.mapper.WalletMapper;
+import com.campus.timebank.repository.WalletRepository;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
 @ExtendWith(MockitoExtension.class)
 public class WalletServiceTest {
+    
+    private static final BigDecimal HOURS = new BigDecimal("2.00");
+    
+    @Mock
+    private WalletRepository walletRepository;
+    
+    @Mock
+    private WalletMapper walletMapper;
+    
+    @Mock
+    private WalletShardManager walletShardManager;
+    
+    @InjectMocks
+    private WalletService walletService;
+    
+    @Test
+    void hold_ShouldThrowException_WhenAvailableBalanceIsShort() {
+        // Arrange
+        when(walletRepository.holdIfAvailable(1L, HOURS)).thenReturn(0);
+        
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> walletService.hold(1L, HOURS));
+    }
+    
+    @Test
+    void hold_ShouldRecordRowUpdateTime_WhenWalletIsNotSharded() {
+        // Arrange
+        when(walletRepository.holdIfAvailable(1L, HOURS)).thenReturn(1);
+        
+        // Act
+        walletService.hold(1L, HOURS);
+        
+        // Assert
+        verify(walletShardManager).recordUpdate(eq(1L), anyLong());
+    }
+    
+    @Test
+    void hold_ShouldHoldOnShardsWithoutTouchingRow_WhenWalletIsSharded() {
+        // Arrange
+        WalletShardManager.ShardRoute route = new WalletShardManager.ShardRoute(10L, 4);
+        when(walletShardManager.routeFor(1L)).thenReturn(route);
+        when(walletShardManager.hold(route, HOURS)).thenReturn(true);
+        
+        // Act
+        walletService.hold(1L, HOURS);
+        
+        // Assert
+        verifyNoInteractions(walletRepository);
+    }
+    
+    @Test
+    void releaseHold_ShouldUseShards_WhenAnotherNodeShardedTheWallet() {
+        // Arrange
+        WalletShardManager.ShardRoute route = new WalletShardManager.ShardRoute(10L, 4);
+        when(walletRepository.releaseHeld(1L, HOURS)).thenReturn(0);
+        when(walletShardManager.refreshRoute(1L)).thenReturn(route);
+        when(walletShardManager.releaseHold(route, HOURS)).thenReturn(true);
+        
+        // Act
+        walletService.releaseHold(1L, HOURS);
+        
+        // Assert
+        verify(walletShardManager).releaseHold(route, HOURS);
+    }
+
+    @Test
+    void settleHold_ShouldSpendHeldHoursBeforeCrediting_WhenPayerHasLowerId() {
+        // Arrange
+        when(walletRepository.spendHeld(1L, HOURS)).thenReturn(1);
+        when(walletRepository.credit(2L, HOURS)).thenReturn(1);
+        
+        // Act
+        walletService.settleHold(1L, 2L, HOURS);
+        
+        // Assert
+        InOrder inOrder = inOrder(walletRepository);
+        inOrder.verify(walletRepository).spendHeld(1L, HOURS);
+        inOrder.verify(walletRepository).credit(2L, HOURS);
+    }
+    
+    @Test
+    void settleHold_ShouldCreditFirst_WhenPayeeHasLowerId() {
+        // Arrange
+        when(walletRepository.credit(1L, HOURS)).thenReturn(1);
+        when(walletRepository.spendHeld(2L, HOURS)).thenReturn(1);
+        
+        // Act
+        walletService.settleHold(2L, 1L, HOURS);
+        
+        // Assert
+        InOrder inOrder = inOrder(walletRepository);
+        inOrder.verify(walletRepository).credit(1L, HOURS);
+        inOrder.verify(walletRepository).spendHeld(2L, HOURS);
+    }
+    
+    @Test
+    void settleHold_ShouldThrowException_WhenNoHoursAreHeld() {
+        // Arrange
+        when(walletRepository.spendHeld(1L, HOURS)).thenReturn(0);
+        
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> walletService.settleHold(1L, 2L, HOURS));
+        verify(walletRepository, never()).credit(anyLong(), any());
+    }
+    
+    @Test
+    void settleHold_ShouldThrowException_WhenAmountIsNotPositive() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> walletService.settleHold(1L, 2L, BigDecimal.ZERO));
+        verifyNoInteractions(walletRepository);
+    }
+    
+    @Test
+    void settleHold_ShouldSpendHeldHoursFromShards_WhenPayerWalletIsSharded() {
+        // Arrange
+        WalletShardManager.ShardRoute route = new WalletShardManager.ShardRoute(10L, 4);
+        when(walletShardManager.routeFor(1L)).thenReturn(route);
+        when(walletShardManager.spendHeld(route, HOURS)).thenReturn(true);
+        when(walletRepository.credit(2L, HOURS)).thenReturn(1);
+        
+        // Act
+        walletService.settleHold(1L, 2L, HOURS);
+        
+        // Assert
+        verify(walletRepository, never()).spendHeld(anyLong(), any());
+        verify(walletRepository, never()).releaseHeld(anyLong(), any());
+    }
 }
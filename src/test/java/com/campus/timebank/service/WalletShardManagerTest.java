@@ -0,0 +1,168 @@
+package com.campus.timebank.service;
+
+import com.campus.timebank.entity.Wallet;
+import com.campus.timebank.entity.WalletShard;
+import com.campus.timebank.repository.WalletRepository;
+import com.campus.timebank.repository.WalletShardRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WalletShardManagerTest {
+    
+    @Mock
+    private WalletRepository walletRepository;
+    
+    @Mock
+    private WalletShardRepository walletShardRepository;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private WalletShardManager walletShardManager;
+    
+    @BeforeEach
+    void setUp() {
+        walletShardManager = new WalletShardManager(walletRepository, walletShardRepository, transactionManager,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(walletShardManager, "enabled", true);
+        ReflectionTestUtils.setField(walletShardManager, "shardCount", 4);
+        ReflectionTestUtils.setField(walletShardManager, "slowUpdateMs", 50L);
+        ReflectionTestUtils.setField(walletShardManager, "promotionThreshold", 2);
+        walletShardManager.init();
+    }
+    
+    @Test
+    void hold_ShouldSpreadOverShards_WhenNoSingleShardCoversAmount() {
+        // Arrange
+        WalletShardManager.ShardRoute route = new WalletShardManager.ShardRoute(10L, 2);
+        WalletShard first = shard(0, "2.00", "1.00");
+        WalletShard second = shard(1, "2.50", "0.00");
+        when(walletShardRepository.holdIfAvailable(eq(10L), anyInt(), any())).thenReturn(0);
+        when(walletShardRepository.findAllForUpdate(10L)).thenReturn(List.of(first, second));
+        
+        // Act
+        boolean held = walletShardManager.hold(route, new BigDecimal("3.00"));
+        
+        // Assert
+        assertTrue(held);
+        assertEquals(0, first.getHeld().compareTo(new BigDecimal("2.00")));
+        assertEquals(0, second.getHeld().compareTo(new BigDecimal("2.00")));
+        assertEquals(0, first.getBalance().add(second.getBalance()).compareTo(new BigDecimal("4.50")));
+    }
+    
+    @Test
+    void hold_ShouldFail_WhenShardsTogetherCannotCoverAmount() {
+        // Arrange
+        WalletShardManager.ShardRoute route = new WalletShardManager.ShardRoute(10L, 2);
+        WalletShard first = shard(0, "2.00", "1.50");
+        when(walletShardRepository.holdIfAvailable(eq(10L), anyInt(), any())).thenReturn(0);
+        when(walletShardRepository.findAllForUpdate(10L)).thenReturn(List.of(first, shard(1, "1.00", "0.00")));
+        
+        // Act & Assert
+        assertFalse(walletShardManager.hold(route, new BigDecimal("3.00")));
+        assertEquals(0, first.getHeld().compareTo(new BigDecimal("1.50")));
+    }
+    
+    @Test
+    void spendHeld_ShouldDrainHeldAndBalanceSeparately_WhenTheySitOnDifferentShards() {
+        // Arrange
+        WalletShardManager.ShardRoute route = new WalletShardManager.ShardRoute(10L, 2);
+        WalletShard first = shard(0, "1.00", "3.00");
+        WalletShard second = shard(1, "4.00", "0.00");
+        when(walletShardRepository.spendHeld(eq(10L), anyInt(), any())).thenReturn(0);
+        when(walletShardRepository.findAllForUpdate(10L)).thenReturn(List.of(first, second));
+        
+        // Act
+        boolean spent = walletShardManager.spendHeld(route, new BigDecimal("3.00"));
+        
+        // Assert
+        assertTrue(spent);
+        assertEquals(0, first.getHeld().add(second.getHeld()).compareTo(BigDecimal.ZERO));
+        assertEquals(0, first.getBalance().add(second.getBalance()).compareTo(new BigDecimal("2.00")));
+        assertEquals(0, first.getTotalSpent().add(second.getTotalSpent()).compareTo(new BigDecimal("3.00")));
+    }
+    
+    @Test
+    void spendHeld_ShouldNotLockAllShards_WhenOneShardCoversAmount() {
+        // Arrange
+        WalletShardManager.ShardRoute route = new WalletShardManager.ShardRoute(10L, 4);
+        when(walletShardRepository.spendHeld(eq(10L), anyInt(), any())).thenReturn(1);
+        
+        // Act & Assert
+        assertTrue(walletShardManager.spendHeld(route, new BigDecimal("3.00")));
+        verify(walletShardRepository, never()).findAllForUpdate(anyLong());
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void promoteContendedWallets_ShouldSplitBalance_WhenThresholdIsReached() {
+        // Arrange
+        Wallet wallet = Wallet.builder()
+                .id(10L)
+                .balance(new BigDecimal("10.01"))
+                .totalEarned(new BigDecimal("12.00"))
+                .totalSpent(new BigDecimal("1.99"))
+                .held(new BigDecimal("2.00"))
+                .build();
+        when(walletRepository.findByUserIdForUpdate(2L)).thenReturn(Optional.of(wallet));
+        walletShardManager.recordUpdate(2L, TimeUnit.MILLISECONDS.toNanos(80));
+        walletShardManager.recordUpdate(2L, TimeUnit.MILLISECONDS.toNanos(120));
+        
+        // Act
+        walletShardManager.promoteContendedWallets();
+        
+        // Assert
+        ArgumentCaptor<List<WalletShard>> captor = ArgumentCaptor.forClass(List.class);
+        verify(walletShardRepository).saveAll(captor.capture());
+        BigDecimal total = captor.getValue().stream().map(WalletShard::getBalance).reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(4, captor.getValue().size());
+        assertEquals(0, total.compareTo(new BigDecimal("10.01")));
+        WalletShard first = captor.getValue().get(0);
+        assertEquals(0, first.getHeld().compareTo(new BigDecimal("2.00")));
+        assertTrue(first.getBalance().compareTo(first.getHeld()) >= 0);
+        assertEquals(0, wallet.getHeld().compareTo(BigDecimal.ZERO));
+        assertEquals(4, wallet.getShardCount());
+        assertEquals(0, wallet.getBalance().compareTo(BigDecimal.ZERO));
+        assertNotNull(walletShardManager.routeFor(2L));
+    }
+    
+    @Test
+    void promoteContendedWallets_ShouldIgnoreWallet_WhenUpdatesWereFast() {
+        // Arrange
+        walletShardManager.recordUpdate(2L, TimeUnit.MILLISECONDS.toNanos(1));
+        walletShardManager.recordUpdate(2L, TimeUnit.MILLISECONDS.toNanos(2));
+        
+        // Act
+        walletShardManager.promoteContendedWallets();
+        
+        // Assert
+        verifyNoInteractions(walletRepository);
+        assertNull(walletShardManager.routeFor(2L));
+    }
+    
+    private WalletShard shard(int shardNo, String balance, String held) {
+        return WalletShard.builder()
+                .walletId(10L)
+                .shardNo(shardNo)
+                .balance(new BigDecimal(balance))
+                .held(new BigDecimal(held))
+                .build();
+    }
+}